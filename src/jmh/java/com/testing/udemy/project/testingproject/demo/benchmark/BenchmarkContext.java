@@ -0,0 +1,55 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.TestProjectDemoApplication;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Starts the application against a fresh in-memory H2 database and generates employees for it.
+ */
+final class BenchmarkContext {
+
+    private static final String[] LAST_NAMES = {"Paseka", "Madam", "Bolik", "Kowalski", "Nowak", "Wojcik", "Lewandowski", "Zielinski"};
+    private static final String[] FIRST_NAMES = {"Sebastian", "Adam", "Lolik", "Lukasz", "Anna", "Maria"};
+
+    private BenchmarkContext() {
+    }
+
+    // Properties go in as command line arguments so they win over application.properties
+    static ConfigurableApplicationContext start(WebApplicationType webApplicationType, String... properties) {
+        List<String> args = new ArrayList<>(List.of(
+                "--database=benchmark_" + System.nanoTime(),
+                "--server.port=0",
+                "--logging.level.root=WARN"));
+        for (String property : properties) {
+            args.add("--" + property);
+        }
+        return new SpringApplicationBuilder(TestProjectDemoApplication.class)
+                .web(webApplicationType)
+                .profiles("h2")
+                .bannerMode(Banner.Mode.OFF)
+                .run(args.toArray(new String[0]));
+    }
+
+    static Employee employee(long n) {
+        return Employee.builder()
+                .firstName(FIRST_NAMES[(int) (n % FIRST_NAMES.length)])
+                .lastName(LAST_NAMES[(int) (n % LAST_NAMES.length)] + (n % 1000))
+                .email("employee" + n + "@benchmark.net")
+                .build();
+    }
+
+    static List<Employee> employees(long from, int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (long n = from; n < from + count; n++) {
+            employees.add(employee(n));
+        }
+        return employees;
+    }
+}
@@ -0,0 +1,102 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.*;
+
+/**
+ * Runs the benchmarks, writes the JMH JSON result and compares it with a baseline result.
+ * Exits with status 1 when a score moved the wrong way by more than the threshold, which
+ * fails the Maven build. Arguments are regular JMH command line options.
+ *
+ * <p>A baseline is any earlier result file taken on the same machine. A missing baseline fails
+ * the run as well, so a misplaced path cannot turn the check off unnoticed; with
+ * {@code -Dbenchmark.record-baseline=true} the result is written there instead of compared.
+ */
+public final class BenchmarkRunner {
+
+    private static final Set<String> LOWER_IS_BETTER = Set.of("avgt", "sample", "ss");
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Path result = Paths.get(System.getProperty("benchmark.result", "target/jmh-result.json"));
+        Path baseline = Paths.get(System.getProperty("benchmark.baseline", "src/jmh/baseline.json"));
+        double threshold = Double.parseDouble(System.getProperty("benchmark.threshold", "0.10"));
+        boolean recordBaseline = Boolean.parseBoolean(System.getProperty("benchmark.record-baseline", "false"));
+
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .shouldFailOnError(true)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result.toString())
+                .build();
+        new Runner(options).run();
+
+        if (recordBaseline) {
+            Files.createDirectories(baseline.toAbsolutePath().getParent());
+            Files.copy(result, baseline, StandardCopyOption.REPLACE_EXISTING);
+            System.out.println("Recorded the benchmark baseline at " + baseline);
+            return;
+        }
+        if (!Files.exists(baseline)) {
+            System.err.println("No benchmark baseline at " + baseline + ". Record one on this machine with"
+                    + " -Dbenchmark.record-baseline=true, or point -Dbenchmark.baseline at an existing one");
+            System.exit(1);
+        }
+        List<String> regressions = findRegressions(read(baseline), read(result), threshold);
+        if (!regressions.isEmpty()) {
+            System.err.println("Benchmarks regressed by more than " + Math.round(threshold * 100) + "%:");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No benchmark regressed by more than " + Math.round(threshold * 100) + "% against " + baseline);
+    }
+
+    static List<String> findRegressions(JsonNode baseline, JsonNode current, double threshold) {
+        Map<String, JsonNode> baselineScores = new HashMap<>();
+        baseline.forEach(run -> baselineScores.put(key(run), run));
+        List<String> regressions = new ArrayList<>();
+        for (JsonNode run : current) {
+            JsonNode previous = baselineScores.get(key(run));
+            if (previous == null) {
+                continue;
+            }
+            double before = previous.path("primaryMetric").path("score").asDouble();
+            double after = run.path("primaryMetric").path("score").asDouble();
+            boolean lowerIsBetter = LOWER_IS_BETTER.contains(run.path("mode").asText());
+            double change = before == 0 ? 0 : (after - before) / before;
+            if (lowerIsBetter ? change > threshold : change < -threshold) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.3f -> %.3f %s (%+.1f%%)", key(run), before, after,
+                        run.path("primaryMetric").path("scoreUnit").asText(), change * 100));
+            }
+        }
+        return regressions;
+    }
+
+    private static String key(JsonNode run) {
+        StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+        Map<String, String> params = new TreeMap<>();
+        run.path("params").fields().forEachRemaining(param -> params.put(param.getKey(), param.getValue().asText()));
+        if (!params.isEmpty()) {
+            key.append(params);
+        }
+        return key.toString();
+    }
+
+    private static JsonNode read(Path path) throws IOException {
+        return new ObjectMapper().readTree(path.toFile());
+    }
+}
@@ -0,0 +1,55 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.batch.BatchResult;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Rows per second of the chunked batch create compared with creating the same rows one request at a time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeBatchBenchmark {
+
+    private static final int ROWS = 500;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(WebApplicationType.NONE);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public BatchResult saveEmployeesInBatch() {
+        return employeeService.saveEmployees(BenchmarkContext.employees(sequence.getAndAdd(ROWS), ROWS).iterator());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveEmployeesOneByOne(Blackhole blackhole) {
+        for (Employee employee : BenchmarkContext.employees(sequence.getAndAdd(ROWS), ROWS)) {
+            blackhole.consume(employeeService.saveEmployee(employee));
+        }
+    }
+}
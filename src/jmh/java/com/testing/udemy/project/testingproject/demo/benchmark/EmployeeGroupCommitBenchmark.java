@@ -0,0 +1,48 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Inserts per second of concurrent single creates, each in its own transaction or group
+ * committed. In-memory H2 never waits for a disk, so the gap here comes from fewer statements
+ * and transactions alone; MySQL, whose commits wait for the redo log to be flushed, gains more.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class EmployeeGroupCommitBenchmark {
+
+    @Param({"false", "true"})
+    public boolean groupCommit;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(WebApplicationType.NONE, "employee.group-commit.enabled=" + groupCommit);
+        employeeService = context.getBean(EmployeeService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.saveEmployee(BenchmarkContext.employee(sequence.getAndIncrement()));
+    }
+}
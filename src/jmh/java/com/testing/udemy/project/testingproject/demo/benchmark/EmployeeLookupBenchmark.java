@@ -0,0 +1,85 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemResult;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent point reads that all reach the database (both caches off), with ids drawn from a
+ * Zipfian distribution so a few hot employees take most of the reads. Compares one query per
+ * read with coalesced reads; the ratio of reads to queries is printed at the end of each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class EmployeeLookupBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"false", "true"})
+    public boolean coalescing;
+
+    // Zipf exponent: 0 is uniform, around 1 the top 1% of ids take about half of the reads
+    @Param({"0.99", "1.2"})
+    public double skew;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private long[] ids;
+    private double[] cumulative;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(WebApplicationType.NONE,
+                "spring.cache.type=none",
+                "employee.second-level-cache.enabled=false",
+                "employee.coalescing.enabled=" + coalescing);
+        employeeService = context.getBean(EmployeeService.class);
+        ids = employeeService.saveEmployees(BenchmarkContext.employees(0, EMPLOYEES).iterator())
+                .getItems().stream()
+                .mapToLong(BatchItemResult::getId)
+                .toArray();
+        cumulative = new double[ids.length];
+        double sum = 0;
+        for (int rank = 0; rank < ids.length; rank++) {
+            sum += 1 / Math.pow(rank + 1, skew);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < ids.length; rank++) {
+            cumulative[rank] /= sum;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Gauge ratio = context.getBean(MeterRegistry.class).find("employee.coalescing.ratio").gauge();
+        if (ratio != null) {
+            System.out.printf("%ncoalescing=%s, skew=%s: %.1f reads per query%n", coalescing, skew, ratio.value());
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(zipfianId());
+    }
+
+    private long zipfianId() {
+        int rank = Arrays.binarySearch(cumulative, ThreadLocalRandom.current().nextDouble());
+        return ids[Math.min(rank < 0 ? -rank - 1 : rank, ids.length - 1)];
+    }
+}
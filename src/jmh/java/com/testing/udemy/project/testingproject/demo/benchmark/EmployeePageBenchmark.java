@@ -0,0 +1,93 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCounts;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One page of the offset listing as the table grows: bare, with either total the page envelope
+ * offers, and with a COUNT per request, the usual way of filling in a total. Only the last one
+ * should get slower with the size of the table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeePageBenchmark {
+
+    private static final int CHUNK = 10_000;
+    // Pages are drawn from the first thousand rows, so the page query costs the same at every table size
+    private static final int PAGES = 50;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int employees;
+
+    @Param({"NONE", "EXACT", "APPROXIMATE", "COUNT"})
+    public String total;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private JdbcTemplate jdbcTemplate;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Caches off so every page reaches the database; the change feed and search index would
+        // only slow down loading the table
+        context = BenchmarkContext.start(WebApplicationType.NONE,
+                "spring.cache.type=none",
+                "employee.second-level-cache.enabled=false",
+                "employee.change-feed.enabled=false",
+                "employee.search-index.enabled=false",
+                "employee.counts.enabled=false");
+        employeeService = context.getBean(EmployeeService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        for (int from = 0; from < employees; from += CHUNK) {
+            employeeService.saveEmployees(BenchmarkContext.employees(from, Math.min(CHUNK, employees - from)).iterator());
+        }
+        EmployeeCounts employeeCounts = context.getBean(EmployeeCounts.class);
+        employeeCounts.resync();
+        employeeCounts.refreshEstimate();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object page() {
+        // A different page each call, or H2 would hand back the previous result of the same query
+        PageRequest page = PageRequest.of(ThreadLocalRandom.current().nextInt(PAGES), PAGE_SIZE,
+                EmployeeSortKey.ID.getSort());
+        switch (total) {
+            case "NONE":
+                return employeeService.getAllEmployees(page);
+            case "COUNT":
+                List<Employee> items = employeeService.getAllEmployees(page);
+                // H2 answers a bare COUNT(*) from the row count it keeps, where InnoDB scans an index; a
+                // condition on an unindexed column that every row meets makes H2 scan as well, and the
+                // bound changes for the same reason the page does
+                Long count = jdbcTemplate.queryForObject("select count(*) from employees where version > ?", Long.class,
+                        -1 - ThreadLocalRandom.current().nextInt(1_000_000));
+                return new CountedPage<>(items, page.getPageNumber(), PAGE_SIZE, count, TotalCount.EXACT,
+                        (long) (page.getPageNumber() + 1) * PAGE_SIZE < count);
+            default:
+                return employeeService.getEmployeePage(page, TotalCount.valueOf(total));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.testing.udemy.project.testingproject.demo.compression.GzipEncoder;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost and size of a page of employees in every encoding the API negotiates, with and without
+ * gzip. The score is the encode time; the size on the wire is printed once per parameter combination.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeePayloadBenchmark {
+
+    public enum Format {
+        JSON(new JsonFactory()),
+        CBOR(new CBORFactory()),
+        SMILE(new SmileFactory());
+
+        private final JsonFactory factory;
+
+        Format(JsonFactory factory) {
+            this.factory = factory;
+        }
+    }
+
+    @Param({"JSON", "CBOR", "SMILE"})
+    private Format format;
+
+    @Param({"false", "true"})
+    private boolean gzip;
+
+    @Param({"100", "1000"})
+    private int pageSize;
+
+    private ObjectWriter pageWriter;
+    private List<Employee> page;
+    private GzipEncoder.Pool encoders;
+    private final ByteArrayOutputStream encoded = new ByteArrayOutputStream(256 * 1024);
+    private final ByteArrayOutputStream wire = new ByteArrayOutputStream(256 * 1024);
+
+    @Setup
+    public void setup() throws IOException {
+        pageWriter = Jackson2ObjectMapperBuilder.json().factory(format.factory).build()
+                .writerFor(new TypeReference<List<Employee>>() {
+                });
+        page = BenchmarkContext.employees(0, pageSize);
+        encoders = new GzipEncoder.Pool(6, 8 * 1024, 1);
+        System.out.printf("%n%s, gzip=%s, %d employees: %d bytes on the wire%n", format, gzip, pageSize, encodePage());
+    }
+
+    @TearDown
+    public void tearDown() {
+        encoders.close();
+    }
+
+    @Benchmark
+    public int encodePage() throws IOException {
+        encoded.reset();
+        pageWriter.writeValue(encoded, page);
+        if (!gzip) {
+            return encoded.size();
+        }
+        wire.reset();
+        GzipEncoder encoder = encoders.acquire();
+        try {
+            encoder.start(wire);
+            encoder.write(encoded.toByteArray(), 0, encoded.size());
+            encoder.finish();
+        } finally {
+            encoders.release(encoder);
+        }
+        return wire.size();
+    }
+}
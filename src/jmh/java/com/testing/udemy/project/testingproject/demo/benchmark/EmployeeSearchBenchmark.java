@@ -0,0 +1,58 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of a name prefix search page as the table grows; served from the name index it
+ * should stay flat across the row counts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSearchBenchmark {
+
+    private static final int CHUNK = 5_000;
+    private static final String[] PREFIXES = {"Pas", "Mad", "Bol", "Kow", "Now", "Woj", "Lew", "Zie"};
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // The query cache would answer the repeated prefixes without reaching the index
+        context = BenchmarkContext.start(WebApplicationType.NONE,
+                "spring.cache.type=none",
+                "employee.second-level-cache.enabled=false");
+        employeeService = context.getBean(EmployeeService.class);
+        EmployeeRepository employeeRepository = context.getBean(EmployeeRepository.class);
+        for (int from = 0; from < rows; from += CHUNK) {
+            employeeRepository.insertAll(BenchmarkContext.employees(from, Math.min(CHUNK, rows - from)));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public CursorPage<Employee> searchEmployeesByName() {
+        String prefix = PREFIXES[ThreadLocalRandom.current().nextInt(PREFIXES.length)];
+        return employeeService.searchEmployeesByName(prefix, null, null, 20);
+    }
+}
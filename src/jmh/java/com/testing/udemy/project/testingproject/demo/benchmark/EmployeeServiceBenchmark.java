@@ -0,0 +1,94 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemResult;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCursor;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-row paths of the service against H2. The cache parameter compares point reads
+ * served by Caffeine with reads that always reach the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"caffeine", "none"})
+    public String cacheType;
+
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private long[] ids;
+    private final AtomicLong sequence = new AtomicLong(EMPLOYEES);
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(WebApplicationType.NONE, "spring.cache.type=" + cacheType);
+        employeeService = context.getBean(EmployeeService.class);
+        ids = employeeService.saveEmployees(BenchmarkContext.employees(0, EMPLOYEES).iterator())
+                .getItems().stream()
+                .mapToLong(BatchItemResult::getId)
+                .toArray();
+        // Measure the steady state rather than the cold misses of the first pass
+        for (long id : ids) {
+            employeeService.getEmployeeById(id);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.saveEmployee(BenchmarkContext.employee(sequence.getAndIncrement()));
+    }
+
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesByOffset() {
+        return employeeService.getAllEmployees(PageRequest.of(
+                ThreadLocalRandom.current().nextInt(EMPLOYEES / PAGE_SIZE), PAGE_SIZE));
+    }
+
+    @Benchmark
+    public CursorPage<Employee> getEmployeesAfterCursor() {
+        String after = EmployeeCursor.after(EmployeeSortKey.ID, Employee.builder().id(randomId()).build()).encode();
+        return employeeService.getEmployeesAfter(EmployeeSortKey.ID, after, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<Employee> patchEmployee() {
+        EmployeePatch patch = EmployeePatch.builder().firstName("Patched" + sequence.getAndIncrement()).build();
+        return employeeService.patchEmployee(randomId(), patch, null);
+    }
+
+    private long randomId() {
+        return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+    }
+}
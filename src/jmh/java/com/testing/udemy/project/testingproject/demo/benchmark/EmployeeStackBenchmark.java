@@ -0,0 +1,77 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemResult;
+import com.testing.udemy.project.testingproject.demo.config.ReactiveEmployeeServer;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The blocking servlet stack against the WebFlux/R2DBC one over real HTTP on the same H2 database.
+ * The cache is off so every read reaches the database; 64 client threads keep both servers busy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(64)
+@Fork(1)
+public class EmployeeStackBenchmark {
+
+    private static final int EMPLOYEES = 10_000;
+
+    @Param({"servlet", "reactive"})
+    public String stack;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+    private long[] ids;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        context = BenchmarkContext.start(WebApplicationType.SERVLET,
+                "spring.cache.type=none", "employee.reactive.enabled=true", "employee.reactive.port=0");
+        int port = stack.equals("reactive")
+                ? context.getBean(ReactiveEmployeeServer.class).getPort()
+                : ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + (stack.equals("reactive") ? "/reactive" : "") + "/api/employees";
+        client = HttpClient.newHttpClient();
+        ids = context.getBean(EmployeeService.class)
+                .saveEmployees(BenchmarkContext.employees(0, EMPLOYEES).iterator())
+                .getItems().stream()
+                .mapToLong(BatchItemResult::getId)
+                .toArray();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String getEmployeeById() throws IOException, InterruptedException {
+        long id = ids[ThreadLocalRandom.current().nextInt(ids.length)];
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).build());
+    }
+
+    @Benchmark
+    public String getEmployeesPage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "?limit=20")).build());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
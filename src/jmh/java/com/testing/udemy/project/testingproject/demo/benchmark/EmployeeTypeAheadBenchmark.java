@@ -0,0 +1,50 @@
+package com.testing.udemy.project.testingproject.demo.benchmark;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.search.EmployeeSearchIndex;
+import com.testing.udemy.project.testingproject.demo.search.NgramIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency distribution of type-ahead queries against the in-memory index at a million employees.
+ * Sampled rather than averaged, so the p99 can be read straight off the result.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+public class EmployeeTypeAheadBenchmark {
+
+    // Keystroke-sized prefixes, common and rare substrings, and multi-token queries
+    private static final String[] QUERIES = {"p", "pa", "pas", "kowal", "wski12", "sebastian nowak", "anna z",
+            "employee123", "employee98765@", "benchmark", "ma lew", "olik bolik7", "xyz"};
+
+    @Param({"1000000"})
+    public int rows;
+
+    private NgramIndex index;
+    private List<List<String>> queries;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        index = new NgramIndex(rows);
+        for (long n = 0; n < rows; n++) {
+            Employee employee = BenchmarkContext.employee(n);
+            employee.setId(n + 1);
+            index.put(employee);
+        }
+        index.trim();
+        queries = List.of(QUERIES).stream().map(EmployeeSearchIndex::tokenize).toList();
+    }
+
+    @Benchmark
+    public List<Employee> search() {
+        return index.search(queries.get(ThreadLocalRandom.current().nextInt(queries.size())), 10);
+    }
+}
@@ -0,0 +1,59 @@
+package com.testing.udemy.project.testingproject.demo.loadtest;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Holds every connection for {@code loadtest.db-latency} milliseconds before handing it out, so
+ * the in-memory database behaves like one across a network. Registered as an explicit source
+ * rather than through component scanning.
+ */
+class DbLatencyInjection {
+
+    // PriorityOrdered runs before the bounding post-processor, so the delay sits inside the permit
+    @Bean
+    static BeanPostProcessor dbLatencyPostProcessor() {
+        long latencyMillis = Long.getLong("loadtest.db-latency", 5);
+        return new LatencyPostProcessor(latencyMillis);
+    }
+
+    private static class LatencyPostProcessor implements BeanPostProcessor, PriorityOrdered {
+
+        private final long latencyMillis;
+
+        LatencyPostProcessor(long latencyMillis) {
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource) || latencyMillis <= 0) {
+                return bean;
+            }
+            return new DelegatingDataSource((DataSource) bean) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    Connection connection = super.getConnection();
+                    try {
+                        Thread.sleep(latencyMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return connection;
+                }
+            };
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
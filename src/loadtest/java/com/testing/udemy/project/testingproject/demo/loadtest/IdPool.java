@@ -0,0 +1,63 @@
+package com.testing.udemy.project.testingproject.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The ids of the employees that currently exist, so reads and updates hit live rows and a delete
+ * claims its id before the call goes out and nothing else picks it afterwards.
+ */
+class IdPool {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private long[] ids = new long[1024];
+    private int size;
+
+    void add(long id) {
+        lock.lock();
+        try {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns a random live id, or -1 when the pool is empty
+    long pick() {
+        lock.lock();
+        try {
+            return size == 0 ? -1 : ids[ThreadLocalRandom.current().nextInt(size)];
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Removes and returns a random live id, or -1 when the pool is empty
+    long claim() {
+        lock.lock();
+        try {
+            if (size == 0) {
+                return -1;
+            }
+            int index = ThreadLocalRandom.current().nextInt(size);
+            long id = ids[index];
+            ids[index] = ids[--size];
+            return id;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.testing.udemy.project.testingproject.demo.loadtest;
+
+import com.testing.udemy.project.testingproject.demo.TestProjectDemoApplication;
+import com.testing.udemy.project.testingproject.demo.concurrency.VirtualThreads;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives a closed-loop GET-by-id load against the application once with platform request threads
+ * and once with virtual ones, and prints throughput and latency percentiles for both.
+ */
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        int durationSeconds = Integer.getInteger("loadtest.duration", 20);
+        int concurrency = Integer.getInteger("loadtest.concurrency", 400);
+        int rows = Integer.getInteger("loadtest.rows", 1000);
+        Path report = Path.of(System.getProperty("loadtest.report", "target/load-test-report.txt"));
+        // The comparison is the point of this run, so a JVM without virtual threads fails it rather than
+        // reporting the platform mode alone
+        if (!VirtualThreads.isSupported()) {
+            throw new IllegalStateException("The load test needs JDK 21 or later for virtual threads, running "
+                    + System.getProperty("java.version") + "; point -Dloadtest.jvm at the java of a newer JDK");
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("concurrency=%d duration=%ds db-latency=%sms rows=%d",
+                concurrency, durationSeconds, System.getProperty("loadtest.db-latency", "5"), rows));
+        lines.add(String.format("%-10s %10s %10s %10s %10s %8s", "mode", "req/s", "p50 ms", "p99 ms", "max ms", "errors"));
+        lines.add(run("platform", false, durationSeconds, concurrency, rows));
+        lines.add(run("virtual", true, durationSeconds, concurrency, rows));
+
+        lines.forEach(System.out::println);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.write(report, lines);
+    }
+
+    private static String run(String mode, boolean virtualThreads, int durationSeconds, int concurrency, int rows)
+            throws InterruptedException {
+        try (ConfigurableApplicationContext context = start(virtualThreads)) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            long firstId = seed(context.getBean(EmployeeRepository.class), rows);
+            String baseUrl = "http://localhost:" + port + "/api/employees/";
+            HttpClient client = HttpClient.newBuilder()
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            // The first pass warms up JIT and connections, the second one is measured
+            drive(client, baseUrl, firstId, rows, concurrency, Math.max(1, durationSeconds / 4), new Recorder(3), new AtomicLong());
+            Recorder recorder = new Recorder(3);
+            AtomicLong errors = new AtomicLong();
+            long count = drive(client, baseUrl, firstId, rows, concurrency, durationSeconds, recorder, errors);
+
+            Histogram histogram = recorder.getIntervalHistogram();
+            return String.format("%-10s %10.0f %10.2f %10.2f %10.2f %8d", mode,
+                    count / (double) durationSeconds,
+                    histogram.getValueAtPercentile(50) / 1_000_000.0,
+                    histogram.getValueAtPercentile(99) / 1_000_000.0,
+                    histogram.getMaxValue() / 1_000_000.0,
+                    errors.get());
+        }
+    }
+
+    private static ConfigurableApplicationContext start(boolean virtualThreads) {
+        return new SpringApplicationBuilder(TestProjectDemoApplication.class, DbLatencyInjection.class)
+                .profiles("h2")
+                .bannerMode(Banner.Mode.OFF)
+                .run("--database=loadtest_" + System.nanoTime(),
+                        "--server.port=0",
+                        "--logging.level.root=WARN",
+                        // Every read has to reach the database, otherwise the cache is what gets measured
+                        "--spring.cache.type=none",
+                        "--employee.virtual-threads.enabled=" + virtualThreads);
+    }
+
+    private static long seed(EmployeeRepository repository, int rows) {
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int n = 0; n < rows; n++) {
+            employees.add(Employee.builder()
+                    .firstName("Load")
+                    .lastName("Test" + n)
+                    .email("load" + n + "@loadtest.net")
+                    .build());
+        }
+        repository.insertAll(employees);
+        return repository.findPageAfterId(0, PageRequest.of(0, 1)).get(0).getId();
+    }
+
+    private static long drive(HttpClient client, String baseUrl, long firstId, int rows, int concurrency,
+                              int durationSeconds, Recorder recorder, AtomicLong errors) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(durationSeconds);
+        AtomicLong completed = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            Thread worker = new Thread(() -> {
+                try {
+                    while (System.nanoTime() < deadline) {
+                        long id = firstId + ThreadLocalRandom.current().nextInt(rows);
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + id))
+                                .timeout(Duration.ofSeconds(30))
+                                .build();
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (IOException e) {
+                            errors.incrementAndGet();
+                        }
+                        recorder.recordValue(System.nanoTime() - start);
+                        completed.incrementAndGet();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+        done.await();
+        return completed.get();
+    }
+}
@@ -0,0 +1,333 @@
+package com.testing.udemy.project.testingproject.demo.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.TestProjectDemoApplication;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.Banner;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a weighted mix of create, get-by-id, list, update and delete calls against the application
+ * at a fixed arrival rate and reports throughput, latency percentiles and errors per operation.
+ * <p>
+ * Arrivals follow a Poisson process that does not wait for earlier calls to finish, and every
+ * latency is measured from the moment the call was due, so a stalled server shows up as queueing
+ * in the percentiles instead of as a lower request rate. The results are written as a table and
+ * appended to a CSV file under {@code loadtest.label}, one row per operation, for comparing builds.
+ */
+public class MixedLoadRunner {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final int LIST_PAGES = 10;
+    private static final int LIST_PAGE_SIZE = 20;
+
+    public static void main(String[] args) throws Exception {
+        int durationSeconds = Integer.getInteger("loadtest.duration", 20);
+        int warmupSeconds = Integer.getInteger("loadtest.warmup", Math.max(1, durationSeconds / 4));
+        int rate = Integer.getInteger("loadtest.rate", 500);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 2000);
+        int rows = Integer.getInteger("loadtest.rows", 1000);
+        String mix = System.getProperty("loadtest.mix", "get:70,list:15,create:7,update:6,delete:2");
+        String label = System.getProperty("loadtest.label", "local");
+        Path report = Path.of(System.getProperty("loadtest.report", "target/load-test-report.txt"));
+        Path csv = Path.of(System.getProperty("loadtest.csv", "target/load-test-results.csv"));
+        Map<Operation, Integer> weights = Operation.parseMix(mix);
+
+        Stats stats;
+        try (ConfigurableApplicationContext context = start()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            IdPool ids = seed(context.getBean(EmployeeRepository.class), rows);
+            Driver driver = new Driver("http://localhost:" + port + "/api/employees", ids, weights, maxInFlight);
+
+            // The first pass warms up JIT, caches and connections, the second one is measured
+            driver.drive(rate, warmupSeconds);
+            stats = driver.drive(rate, durationSeconds);
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("label=%s rate=%d/s duration=%ds db-latency=%sms rows=%d mix=%s",
+                label, rate, durationSeconds, System.getProperty("loadtest.db-latency", "5"), rows, mix));
+        lines.add(String.format("%-8s %9s %9s %9s %9s %9s %9s %8s %8s %7s",
+                "op", "count", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "rejected", "err %"));
+        List<String> rowsOut = new ArrayList<>();
+        Instant finished = Instant.now();
+        Histogram total = new Histogram(3);
+        long totalCount = 0, totalErrors = 0, totalRejected = 0;
+        for (Operation operation : weights.keySet()) {
+            Histogram histogram = stats.histogram(operation);
+            long errors = stats.errors.get(operation).get();
+            long rejected = stats.rejected.get(operation).get();
+            lines.add(format(operation.name().toLowerCase(Locale.ROOT), histogram, errors, rejected, durationSeconds));
+            rowsOut.add(csvRow(label, finished, rate, durationSeconds, operation.name().toLowerCase(Locale.ROOT), histogram, errors, rejected));
+            total.add(histogram);
+            totalCount += histogram.getTotalCount();
+            totalErrors += errors;
+            totalRejected += rejected;
+        }
+        lines.add(format("all", total, totalErrors, totalRejected, durationSeconds));
+        rowsOut.add(csvRow(label, finished, rate, durationSeconds, "all", total, totalErrors, totalRejected));
+        if (stats.dropped.get() > 0) {
+            lines.add(String.format("%d calls were not sent because %d were already in flight; they count as errors",
+                    stats.dropped.get(), maxInFlight));
+        }
+        if (totalCount < (long) rate * durationSeconds * 9 / 10) {
+            lines.add("the client fell more than 10% behind the requested rate, so the server was not offered the full load");
+        }
+
+        lines.forEach(System.out::println);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.write(report, lines);
+        Files.createDirectories(csv.toAbsolutePath().getParent());
+        if (!Files.exists(csv)) {
+            Files.write(csv, List.of("label,finished,rate,duration_s,operation,count,throughput,p50_ms,p99_ms,p999_ms,max_ms,errors,rejected,error_rate"));
+        }
+        Files.write(csv, rowsOut, StandardOpenOption.APPEND);
+        System.out.println("Appended to " + csv.toAbsolutePath());
+    }
+
+    private static String format(String name, Histogram histogram, long errors, long rejected, int durationSeconds) {
+        long count = histogram.getTotalCount();
+        return String.format("%-8s %9d %9.0f %9.2f %9.2f %9.2f %9.2f %8d %8d %7.2f", name, count,
+                count / (double) durationSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                errors, rejected, errorRate(errors, count) * 100);
+    }
+
+    private static String csvRow(String label, Instant finished, int rate, int durationSeconds, String name,
+                                 Histogram histogram, long errors, long rejected) {
+        long count = histogram.getTotalCount();
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%s,%d,%.1f,%.3f,%.3f,%.3f,%.3f,%d,%d,%.5f",
+                label.replace(',', '_'), finished, rate, durationSeconds, name, count,
+                count / (double) durationSeconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                errors, rejected, errorRate(errors, count));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double errorRate(long errors, long count) {
+        return count == 0 ? 0 : errors / (double) count;
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TestProjectDemoApplication.class, DbLatencyInjection.class)
+                .profiles("h2")
+                .bannerMode(Banner.Mode.OFF)
+                .run("--database=loadtest_" + System.nanoTime(),
+                        "--server.port=0",
+                        "--logging.level.root=WARN");
+    }
+
+    private static IdPool seed(EmployeeRepository repository, int rows) {
+        List<Employee> employees = new ArrayList<>(rows);
+        for (int n = 0; n < rows; n++) {
+            employees.add(Employee.builder()
+                    .firstName("Load")
+                    .lastName("Test" + n)
+                    .email("load" + n + "@loadtest.net")
+                    .build());
+        }
+        repository.insertAll(employees);
+
+        IdPool ids = new IdPool();
+        long afterId = 0;
+        List<Employee> page;
+        while (!(page = repository.findPageAfterId(afterId, PageRequest.of(0, 500))).isEmpty()) {
+            page.forEach(employee -> ids.add(employee.getId()));
+            afterId = page.get(page.size() - 1).getId();
+        }
+        return ids;
+    }
+
+    private static class Stats {
+
+        private final Map<Operation, Recorder> latencies = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+        private final Map<Operation, AtomicLong> rejected = new EnumMap<>(Operation.class);
+        private final AtomicLong dropped = new AtomicLong();
+
+        Stats() {
+            for (Operation operation : Operation.values()) {
+                latencies.put(operation, new Recorder(3));
+                errors.put(operation, new AtomicLong());
+                rejected.put(operation, new AtomicLong());
+            }
+        }
+
+        void record(Operation operation, long latencyNanos, int status) {
+            latencies.get(operation).recordValue(latencyNanos);
+            if (status < 200 || status >= 300) {
+                errors.get(operation).incrementAndGet();
+            }
+            // The concurrency limits shed load with 503; those are errors too, but worth telling apart
+            if (status == 503) {
+                rejected.get(operation).incrementAndGet();
+            }
+        }
+
+        Histogram histogram(Operation operation) {
+            return latencies.get(operation).getIntervalHistogram();
+        }
+    }
+
+    private static class Driver {
+
+        private final String baseUrl;
+        private final IdPool ids;
+        private final Map<Operation, Integer> weights;
+        private final int totalWeight;
+        private final int maxInFlight;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicLong sequence = new AtomicLong();
+        private final HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Driver(String baseUrl, IdPool ids, Map<Operation, Integer> weights, int maxInFlight) {
+            this.baseUrl = baseUrl;
+            this.ids = ids;
+            this.weights = weights;
+            this.totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+            this.maxInFlight = maxInFlight;
+        }
+
+        Stats drive(int rate, int durationSeconds) throws InterruptedException {
+            Stats stats = new Stats();
+            List<CompletableFuture<?>> calls = new ArrayList<>();
+            long meanGapNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+            long start = System.nanoTime();
+            long deadline = start + TimeUnit.SECONDS.toNanos(durationSeconds);
+            long due = start;
+            while (true) {
+                // Exponential gaps make the arrivals a Poisson process at the requested mean rate
+                due += (long) (-Math.log(1 - ThreadLocalRandom.current().nextDouble()) * meanGapNanos);
+                if (due >= deadline) {
+                    break;
+                }
+                long wait = due - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                Operation operation = Operation.pick(weights, ThreadLocalRandom.current().nextInt(totalWeight));
+                if (inFlight.get() >= maxInFlight) {
+                    stats.dropped.incrementAndGet();
+                    stats.record(operation, System.nanoTime() - due, 0);
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                calls.add(call(operation, due, stats));
+                if (calls.size() >= 10_000) {
+                    calls.removeIf(CompletableFuture::isDone);
+                }
+            }
+            try {
+                CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).get(60, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                System.out.println("Not every call finished after the run: " + e);
+            }
+            return stats;
+        }
+
+        private CompletableFuture<?> call(Operation operation, long due, Stats stats) {
+            long n = sequence.incrementAndGet();
+            long id = operation == Operation.DELETE ? ids.claim() : ids.pick();
+            if (id < 0 && operation != Operation.LIST) {
+                // Deletes ran the table empty; creating keeps the offered rate up
+                operation = Operation.CREATE;
+            }
+            Operation called = operation;
+            HttpRequest request = request(called, id, n);
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                    .handle((response, failure) -> {
+                        inFlight.decrementAndGet();
+                        int status = failure == null ? response.statusCode() : 0;
+                        stats.record(called, System.nanoTime() - due, status);
+                        if (called == Operation.CREATE && status == 201) {
+                            ids.add(createdId(response.body()));
+                        } else if (called == Operation.DELETE && status != 200) {
+                            ids.add(id);
+                        }
+                        return null;
+                    });
+        }
+
+        private HttpRequest request(Operation operation, long id, long n) {
+            HttpRequest.Builder builder;
+            switch (operation) {
+                case CREATE:
+                    builder = HttpRequest.newBuilder(URI.create(baseUrl))
+                            .POST(HttpRequest.BodyPublishers.ofString(body(n)));
+                    break;
+                case GET:
+                    builder = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id));
+                    break;
+                case LIST:
+                    int page = ThreadLocalRandom.current().nextInt(LIST_PAGES);
+                    builder = HttpRequest.newBuilder(URI.create(baseUrl + "?page=" + page + "&size=" + LIST_PAGE_SIZE));
+                    break;
+                case UPDATE:
+                    builder = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                            .PUT(HttpRequest.BodyPublishers.ofString(body(n)));
+                    break;
+                case DELETE:
+                    builder = HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).DELETE();
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+            return builder.header("Content-Type", "application/json")
+                    .timeout(Duration.ofSeconds(30))
+                    .build();
+        }
+
+        // Every create and update gets its own address, so the unique email index never rejects one
+        private static String body(long n) {
+            return "{\"firstName\":\"Mixed\",\"lastName\":\"Load" + n + "\",\"email\":\"mixed" + n + "@loadtest.net\"}";
+        }
+
+        private static long createdId(String body) {
+            try {
+                return OBJECT_MAPPER.readTree(body).get("id").asLong();
+            } catch (IOException e) {
+                throw new IllegalStateException("Unreadable create response " + body, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.testing.udemy.project.testingproject.demo.loadtest;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The calls the mixed load test makes against the employee API, weighted by a mix such as
+ * {@code get:70,list:15,create:7,update:6,delete:2}.
+ */
+enum Operation {
+    CREATE, GET, LIST, UPDATE, DELETE;
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Expected operation:weight but got '" + entry + "' in " + mix);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0] + " in " + mix);
+            }
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("No operation has a weight in " + mix);
+        }
+        return weights;
+    }
+
+    // Picks an operation for a draw in [0, total weight)
+    static Operation pick(Map<Operation, Integer> weights, int draw) {
+        for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+            draw -= weight.getValue();
+            if (draw < 0) {
+                return weight.getKey();
+            }
+        }
+        throw new IllegalArgumentException("Draw beyond the total weight of " + weights);
+    }
+}
@@ -0,0 +1,135 @@
+package com.testing.udemy.project.testingproject.demo.loadtest;
+
+import com.testing.udemy.project.testingproject.demo.TestProjectDemoApplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures time-to-first-request of the jar built by the appcds profile: a fresh JVM per run, timed
+ * from process start until a listing request answers 200. Each run of the default configuration is
+ * followed by one with the prod profile and, when the archive exists, one with the prod profile on
+ * the AppCDS archive. H2 in MySQL mode stands in for the database and is appended to the class
+ * path, which the archive tolerates.
+ */
+public class StartupTimeRunner {
+
+    private static final Duration START_TIMEOUT = Duration.ofMinutes(2);
+
+    public static void main(String[] args) throws Exception {
+        int runs = Integer.getInteger("loadtest.startup-runs", 5);
+        Path directory = Path.of(System.getProperty("loadtest.appcds-directory", "target/appcds"));
+        Path report = Path.of(System.getProperty("loadtest.report", "target/load-test-report.txt"));
+        Path jar;
+        try (var jars = Files.list(directory)) {
+            jar = jars.filter(path -> path.getFileName().toString().endsWith("-appcds.jar")).findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No application jar in " + directory
+                            + ", build it with mvn -Pappcds package -DskipTests"));
+        }
+        Path archive = directory.resolve("app.jsa");
+        String classPath = jar + File.pathSeparator + h2Jar();
+
+        List<String> names = new ArrayList<>(List.of("default", "prod"));
+        if (Files.exists(archive)) {
+            names.add("prod+cds");
+        }
+        long[][] millis = new long[names.size()][runs];
+        for (int run = 0; run < runs; run++) {
+            millis[0][run] = timeToFirstRequest(classPath, List.of(), List.of());
+            millis[1][run] = timeToFirstRequest(classPath, List.of(), List.of("--spring.profiles.active=prod"));
+            if (names.size() > 2) {
+                millis[2][run] = timeToFirstRequest(classPath, List.of("-XX:SharedArchiveFile=" + archive, "-Xlog:cds=error"),
+                        List.of("--spring.profiles.active=prod"));
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("time to first request, %d runs each, cores=%d", runs, Runtime.getRuntime().availableProcessors()));
+        lines.add(String.format("%-10s %10s %10s %10s", "config", "min ms", "median ms", "max ms"));
+        for (int n = 0; n < names.size(); n++) {
+            long[] sorted = millis[n].clone();
+            Arrays.sort(sorted);
+            lines.add(String.format("%-10s %10d %10d %10d", names.get(n), sorted[0], sorted[runs / 2], sorted[runs - 1]));
+        }
+        if (names.size() == 2) {
+            lines.add("prod+cds  skipped, no " + archive);
+        }
+
+        lines.forEach(System.out::println);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        Files.write(report, lines);
+    }
+
+    private static long timeToFirstRequest(String classPath, List<String> jvmOptions, List<String> arguments)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.addAll(List.of("-cp", classPath, TestProjectDemoApplication.class.getName(),
+                "--database=startup",
+                "--spring.datasource.url=jdbc:h2:mem:startup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--server.port=" + port,
+                "--logging.level.root=WARN"));
+        command.addAll(arguments);
+
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=1"))
+                .timeout(Duration.ofSeconds(10))
+                .build();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                .start();
+        try {
+            long deadline = start + START_TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException e) {
+                    // Not listening yet
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("No answer within " + START_TIMEOUT + ": " + command);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+
+    private static String h2Jar() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .filter(entry -> new File(entry).getName().startsWith("h2-"))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("H2 is not on the class path"));
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -2,12 +2,21 @@ package com.testing.udemy.project.testingproject.demo;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
 
-@SpringBootApplication
+// The reactive stack is opt-in and wired by ReactiveConfiguration; a second, auto-configured
+// transaction manager would make every @Transactional ambiguous
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class TestProjectDemoApplication {
 
     public static void main(String[] args) {
-        SpringApplication.run(TestProjectDemoApplication.class, args);
+        ConfigurableApplicationContext context = SpringApplication.run(TestProjectDemoApplication.class, args);
+        // AppCDS training run of the appcds build profile: exit once started so the JVM writes the class archive
+        if (Boolean.getBoolean("appcds.training")) {
+            System.exit(SpringApplication.exit(context));
+        }
     }
 
 }
@@ -0,0 +1,26 @@
+package com.testing.udemy.project.testingproject.demo.batch;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Outcome of one row of a batch create; {@code index} is the row's position in the request body.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchItemResult {
+    private final int index;
+    private final BatchItemStatus status;
+    private final Long id;
+    private final String message;
+
+    public static BatchItemResult created(int index, long id) {
+        return new BatchItemResult(index, BatchItemStatus.CREATED, id, null);
+    }
+
+    public static BatchItemResult rejected(int index, BatchItemStatus status, String message) {
+        return new BatchItemResult(index, status, null, message);
+    }
+}
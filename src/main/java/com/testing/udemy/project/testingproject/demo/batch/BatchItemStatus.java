@@ -0,0 +1,8 @@
+package com.testing.udemy.project.testingproject.demo.batch;
+
+public enum BatchItemStatus {
+    CREATED,
+    DUPLICATE,
+    INVALID,
+    FAILED
+}
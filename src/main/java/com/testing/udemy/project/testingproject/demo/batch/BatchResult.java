@@ -0,0 +1,22 @@
+package com.testing.udemy.project.testingproject.demo.batch;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter
+public class BatchResult {
+    private int created;
+    private int rejected;
+    private final List<BatchItemResult> items = new ArrayList<>();
+
+    public void add(BatchItemResult item) {
+        if (item.getStatus() == BatchItemStatus.CREATED) {
+            created++;
+        } else {
+            rejected++;
+        }
+        items.add(item);
+    }
+}
@@ -0,0 +1,20 @@
+package com.testing.udemy.project.testingproject.demo.batch;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Selects the employees of a bulk delete, either by id or by email domain; exactly one must be given.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkDeleteRequest {
+
+    private List<Long> ids;
+
+    private String emailDomain;
+}
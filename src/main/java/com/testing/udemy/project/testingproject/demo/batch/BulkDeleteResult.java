@@ -0,0 +1,10 @@
+package com.testing.udemy.project.testingproject.demo.batch;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class BulkDeleteResult {
+    private final long deleted;
+}
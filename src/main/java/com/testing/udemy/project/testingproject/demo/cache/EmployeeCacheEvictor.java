@@ -0,0 +1,31 @@
+package com.testing.udemy.project.testingproject.demo.cache;
+
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the employee cache in line with the table by dropping the entry of every written id.
+ * Creates evict as well, because a lookup of the id before it existed is cached as empty.
+ */
+@Component
+public class EmployeeCacheEvictor {
+
+    public static final String EMPLOYEES = "employees";
+
+    private final CacheManager cacheManager;
+
+    public EmployeeCacheEvictor(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        Cache cache = cacheManager.getCache(EMPLOYEES);
+        if (cache != null) {
+            cache.evict(event.getEmployeeId());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.testing.udemy.project.testingproject.demo.cache;
+
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.hibernate.SessionFactory;
+import org.springframework.context.event.EventListener;
+
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * Hibernate invalidates its caches for the writes it executes itself, but the batch insert goes
+ * through plain JDBC and the reactive stack through R2DBC. Those writes drop the entity and the
+ * cached employee queries here. Hibernate's own are left to its update timestamps; clearing the query
+ * region for them as well would also drop results cached after the write.
+ */
+public class SecondLevelCacheEvictor {
+
+    private final SessionFactory sessionFactory;
+
+    public SecondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!event.isOutsideHibernate()) {
+            return;
+        }
+        sessionFactory.getCache().evictEntityData(Employee.class, event.getEmployeeId());
+        sessionFactory.getCache().evictQueryRegion(Employee.QUERY_CACHE_REGION);
+    }
+}
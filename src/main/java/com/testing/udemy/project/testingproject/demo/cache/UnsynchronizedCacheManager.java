@@ -0,0 +1,119 @@
+package com.testing.udemy.project.testingproject.demo.cache;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Caffeine caches whose {@code @Cacheable(sync = true)} loads run outside the cache. Caffeine calls
+ * a loader inside a ConcurrentHashMap bin monitor, which pins a virtual thread's carrier for the
+ * whole query; here a miss loads and then puts, and concurrent misses of one key are left to the
+ * caller to merge. A load that an eviction of its key overtook leaves nothing behind. The caches share their Caffeine instances with the wrapped manager, so
+ * statistics and metrics are unchanged.
+ */
+public class UnsynchronizedCacheManager implements CacheManager {
+
+    private final CaffeineCacheManager delegate;
+    private final Map<String, Cache> caches = new ConcurrentHashMap<>();
+
+    public UnsynchronizedCacheManager(CaffeineCacheManager delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (!(target instanceof CaffeineCache)) {
+            return target;
+        }
+        return caches.computeIfAbsent(name, key -> new UnsynchronizedCaffeineCache((CaffeineCache) target,
+                delegate.isAllowNullValues()));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+
+    private static class UnsynchronizedCaffeineCache extends CaffeineCache {
+
+        private static final int EVICTION_STRIPES = 64;
+
+        // Evictions per stripe of keys. A load that saw its stripe evicted while it ran takes its value
+        // back out, or a write's eviction that raced with it would be undone by the pre-write value
+        private final AtomicLongArray evictions = new AtomicLongArray(EVICTION_STRIPES);
+
+        UnsynchronizedCaffeineCache(CaffeineCache target, boolean allowNullValues) {
+            super(target.getName(), target.getNativeCache(), allowNullValues);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T get(Object key, Callable<T> valueLoader) {
+            ValueWrapper cached = get(key);
+            if (cached != null) {
+                return (T) cached.get();
+            }
+            int stripe = stripe(key);
+            long generation = evictions.get(stripe);
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            // Put first, check after: an eviction counted after the check also removes the entry after the put
+            Object storeValue = toStoreValue(value);
+            getNativeCache().put(key, storeValue);
+            if (evictions.get(stripe) != generation) {
+                getNativeCache().asMap().remove(key, storeValue);
+            }
+            return value;
+        }
+
+        @Override
+        public void evict(Object key) {
+            evictions.incrementAndGet(stripe(key));
+            super.evict(key);
+        }
+
+        @Override
+        public boolean evictIfPresent(Object key) {
+            evictions.incrementAndGet(stripe(key));
+            return super.evictIfPresent(key);
+        }
+
+        @Override
+        public void clear() {
+            evictAllStripes();
+            super.clear();
+        }
+
+        @Override
+        public boolean invalidate() {
+            evictAllStripes();
+            return super.invalidate();
+        }
+
+        private void evictAllStripes() {
+            for (int stripe = 0; stripe < EVICTION_STRIPES; stripe++) {
+                evictions.incrementAndGet(stripe);
+            }
+        }
+
+        private static int stripe(Object key) {
+            return Math.floorMod(key.hashCode(), EVICTION_STRIPES);
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.exception.ServiceUnavailableException;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Numbers every {@link EmployeeChangedEvent} and serves the result as a resumable stream.
+ * <p>
+ * Writers only put their event on a queue. One thread drains it, gives each change the next
+ * sequence number, stores the batch in the {@link ChangeLog} and then appends it to an in-memory
+ * {@link ChangeRing}, so a number is visible to clients only once it is durable and is never
+ * handed out twice, even across restarts. Each subscriber reads from the ring at its own pace,
+ * falling back to the table once it is further behind than the ring reaches; a slow client
+ * therefore only ever delays itself.
+ * <p>
+ * Writers are never held back by the feed. When the queue is full, or a batch cannot be stored,
+ * the changes are dropped and counted, and the next stored batch is numbered past a gap: a
+ * subscriber that reaches the gap cannot know what it missed and is sent a reset.
+ */
+@Slf4j
+@Component
+public class ChangeFeed implements SmartLifecycle, MeterBinder {
+
+    private static final int WRITE_BATCH_SIZE = 500;
+    private static final int STORE_ATTEMPTS = 3;
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(1);
+    private static final Duration RETENTION_MARK_INTERVAL = Duration.ofMinutes(1);
+
+    private final EmployeeProperties.ChangeFeed properties;
+    private final ChangeLog changeLog;
+    private final BlockingQueue<EmployeeChangedEvent> pending;
+    private final Semaphore subscribers;
+    // Last sequence and time, taken by the writer every minute; everything up to an expired mark is pruned
+    private final Deque<long[]> retentionMarks = new ArrayDeque<>();
+    // Changes dropped from a full queue since the writer last left a gap for them
+    private final AtomicLong droppedSinceGap = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile ChangeRing ring;
+    private volatile boolean running;
+    private long sequence;
+    private Thread writer;
+    private ExecutorService streams;
+
+    public ChangeFeed(EmployeeProperties employeeProperties, JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.properties = employeeProperties.getChangeFeed();
+        this.changeLog = new ChangeLog(jdbcTemplate, objectMapper);
+        this.pending = new ArrayBlockingQueue<>(Math.max(properties.getQueueCapacity(), 1));
+        this.subscribers = new Semaphore(properties.getMaxSubscribers());
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (!properties.isEnabled() || pending.offer(event)) {
+            return;
+        }
+        // The change log has fallen this far behind; the write that published the event must not wait for it
+        droppedSinceGap.incrementAndGet();
+        dropped.increment();
+    }
+
+    /**
+     * Streams every change after {@code after}, or only future ones when it is null.
+     */
+    public SseEmitter subscribe(Long after) {
+        ChangeRing current = ring;
+        if (!running || current == null) {
+            throw new ServiceUnavailableException("The change feed is not enabled");
+        }
+        if (!subscribers.tryAcquire()) {
+            throw new ServiceUnavailableException("The change feed has reached its limit of "
+                    + properties.getMaxSubscribers() + " subscribers");
+        }
+        SseEmitter emitter = new SseEmitter(properties.getStreamTimeout().toMillis());
+        ChangeStream stream = new ChangeStream(this, emitter, after == null ? current.last() : after,
+                properties.getHeartbeatInterval());
+        emitter.onCompletion(stream::close);
+        emitter.onTimeout(stream::close);
+        emitter.onError(error -> stream.close());
+        try {
+            streams.execute(() -> {
+                try {
+                    stream.run();
+                } finally {
+                    subscribers.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            subscribers.release();
+            throw new ServiceUnavailableException("The change feed is shutting down");
+        }
+        return emitter;
+    }
+
+    public long lastSequence() {
+        ChangeRing current = ring;
+        return current == null ? 0 : current.last();
+    }
+
+    /**
+     * Up to {@code limit} changes following {@code sequence}, or null when the feed can no longer
+     * say what followed it: the changes were pruned, or the sequence was never handed out.
+     */
+    List<EmployeeChange> changesAfter(long sequence, int limit) {
+        ChangeRing current = ring;
+        if (sequence > current.last()) {
+            return null;
+        }
+        List<EmployeeChange> changes = current.after(sequence, limit);
+        if (changes != null) {
+            return changes;
+        }
+        changes = changeLog.after(sequence, limit);
+        return changes.isEmpty() || changes.get(0).getSequence() != sequence + 1 ? null : changes;
+    }
+
+    boolean awaitAfter(long sequence, Duration timeout) throws InterruptedException {
+        return ring.awaitAfter(sequence, timeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        changeLog.createTableIfMissing();
+        sequence = changeLog.lastSequence();
+        ring = new ChangeRing(properties.getRingCapacity(), sequence);
+        retentionMarks.add(new long[]{sequence, System.currentTimeMillis()});
+        running = true;
+        AtomicInteger streamCount = new AtomicInteger();
+        streams = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-stream-" + streamCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer = new Thread(this::writeChanges, "change-feed-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Change feed started at sequence {}", sequence);
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        streams.shutdownNow();
+        try {
+            writer.join(RETRY_DELAY.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.changes.dropped", dropped, LongAdder::sum)
+                .description("Changes left out of the change feed because its queue was full or the change log could not be written")
+                .register(registry);
+    }
+
+    private void writeChanges() {
+        List<EmployeeChangedEvent> events = new ArrayList<>(WRITE_BATCH_SIZE);
+        List<EmployeeChange> changes = new ArrayList<>(WRITE_BATCH_SIZE);
+        while (running) {
+            try {
+                EmployeeChangedEvent first = pending.poll(RETENTION_MARK_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    // Read before draining: the changes dropped so far came before the ones about to be numbered
+                    long droppedBefore = droppedSinceGap.getAndSet(0);
+                    if (droppedBefore > 0) {
+                        log.warn("Dropped {} changes while the change feed queue was full, subscribers will be sent a reset",
+                                droppedBefore);
+                        sequence++;
+                    }
+                    events.add(first);
+                    pending.drainTo(events, WRITE_BATCH_SIZE - 1);
+                    Instant now = Instant.now();
+                    for (EmployeeChangedEvent event : events) {
+                        changes.add(new EmployeeChange(sequence + changes.size() + 1, event.getType(),
+                                event.getEmployeeId(), event.getEmployee(), now));
+                    }
+                    // Numbers of a batch that was not stored are skipped all the same: part of it may be in the table
+                    sequence += changes.size();
+                    if (store(changes)) {
+                        ring.append(changes);
+                    } else {
+                        dropped.add(changes.size());
+                    }
+                    events.clear();
+                    changes.clear();
+                }
+                prune();
+            } catch (InterruptedException e) {
+                if (!changes.isEmpty() || !pending.isEmpty()) {
+                    log.warn("Change feed stopped with {} changes not yet stored", changes.size() + pending.size());
+                }
+                return;
+            }
+        }
+    }
+
+    // Retried a few times; past that the batch is given up rather than let the queue fill behind it
+    private boolean store(List<EmployeeChange> changes) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                changeLog.append(changes);
+                return true;
+            } catch (DataAccessException e) {
+                if (attempt == STORE_ATTEMPTS) {
+                    log.error("Could not store {} changes in the change log, subscribers will be sent a reset",
+                            changes.size(), e);
+                    return false;
+                }
+                log.warn("Could not store {} changes in the change log, retrying", changes.size(), e);
+                TimeUnit.MILLISECONDS.sleep(RETRY_DELAY.toMillis());
+            }
+        }
+    }
+
+    private void prune() {
+        long now = System.currentTimeMillis();
+        if (now - retentionMarks.getLast()[1] >= RETENTION_MARK_INTERVAL.toMillis()) {
+            retentionMarks.add(new long[]{sequence, now});
+        }
+        long expired = 0;
+        while (retentionMarks.size() > 1 && now - retentionMarks.getFirst()[1] > properties.getRetention().toMillis()) {
+            expired = retentionMarks.removeFirst()[0];
+        }
+        // The last stored change always stays, it is where numbering resumes after a restart
+        expired = Math.min(expired, ring.last() - 1);
+        if (expired > 0) {
+            try {
+                log.debug("Pruned {} changes from the change log", changeLog.deleteUpTo(expired));
+            } catch (DataAccessException e) {
+                log.warn("Could not prune the change log", e);
+            }
+        }
+    }
+}
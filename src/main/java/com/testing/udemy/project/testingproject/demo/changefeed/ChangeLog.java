@@ -0,0 +1,82 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * The change feed's history in {@value #TABLE}, for clients that fall further behind than the
+ * in-memory ring reaches. Rows are keyed by sequence number, so reading on from a position and
+ * pruning old entries are both primary key range scans.
+ */
+class ChangeLog {
+
+    static final String TABLE = "employee_changes";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    ChangeLog(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    void createTableIfMissing() {
+        jdbcTemplate.execute("create table if not exists " + TABLE + " (sequence bigint not null primary key,"
+                + " type varchar(16) not null, employee_id bigint not null, employee text, changed_at bigint not null)");
+    }
+
+    long lastSequence() {
+        Long last = jdbcTemplate.queryForObject("select max(sequence) from " + TABLE, Long.class);
+        return last == null ? 0 : last;
+    }
+
+    void append(List<EmployeeChange> changes) {
+        jdbcTemplate.batchUpdate("insert into " + TABLE + " (sequence, type, employee_id, employee, changed_at)"
+                + " values (?, ?, ?, ?, ?)", changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getSequence());
+            statement.setString(2, change.getType().name());
+            statement.setLong(3, change.getEmployeeId());
+            statement.setString(4, change.getEmployee() == null ? null : write(change.getEmployee()));
+            statement.setLong(5, change.getChangedAt().toEpochMilli());
+        });
+    }
+
+    List<EmployeeChange> after(long sequence, int limit) {
+        return jdbcTemplate.query("select sequence, type, employee_id, employee, changed_at from " + TABLE
+                + " where sequence > ? order by sequence limit ?", this::read, sequence, limit);
+    }
+
+    int deleteUpTo(long sequence) {
+        return jdbcTemplate.update("delete from " + TABLE + " where sequence <= ?", sequence);
+    }
+
+    private EmployeeChange read(ResultSet row, int rowNumber) throws SQLException {
+        String employee = row.getString("employee");
+        try {
+            return new EmployeeChange(row.getLong("sequence"),
+                    EmployeeChangedEvent.Type.valueOf(row.getString("type")),
+                    row.getLong("employee_id"),
+                    employee == null ? null : objectMapper.readValue(employee, Employee.class),
+                    Instant.ofEpochMilli(row.getLong("changed_at")));
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String write(Employee employee) {
+        try {
+            return objectMapper.writeValueAsString(employee);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
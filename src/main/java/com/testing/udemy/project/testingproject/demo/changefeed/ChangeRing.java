@@ -0,0 +1,103 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The most recent changes, indexed by sequence number. A single writer appends; any number of
+ * readers copy out what follows their position or wait for it. A lock rather than a monitor, so
+ * waiting readers on virtual threads do not pin their carriers.
+ * <p>
+ * A change numbered past {@code last + 1} follows a gap of changes the feed dropped. The ring
+ * starts over from it, so a reader behind the gap falls back to the change log, which cannot
+ * bridge the missing numbers either and has it reset.
+ */
+class ChangeRing {
+
+    private final EmployeeChange[] slots;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appended = lock.newCondition();
+    private long last;
+    private int size;
+
+    ChangeRing(int capacity, long last) {
+        this.slots = new EmployeeChange[Math.max(capacity, 1)];
+        this.last = last;
+    }
+
+    void append(List<EmployeeChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            for (EmployeeChange change : changes) {
+                if (change.getSequence() != last + 1) {
+                    size = 0;
+                }
+                slots[slot(change.getSequence())] = change;
+                last = change.getSequence();
+                size = Math.min(size + 1, slots.length);
+            }
+            appended.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long last() {
+        lock.lock();
+        try {
+            return last;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} changes following {@code sequence}, or null when some of them have
+     * already been overwritten.
+     */
+    List<EmployeeChange> after(long sequence, int limit) {
+        lock.lock();
+        try {
+            if (sequence < last - size) {
+                return null;
+            }
+            int count = (int) Math.max(Math.min(last - sequence, limit), 0);
+            List<EmployeeChange> changes = new ArrayList<>(count);
+            for (long next = sequence + 1; next <= sequence + count; next++) {
+                changes.add(slots[slot(next)]);
+            }
+            return changes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Waits until a change after {@code sequence} exists; false if none arrived within the timeout.
+     */
+    boolean awaitAfter(long sequence, long timeout, TimeUnit unit) throws InterruptedException {
+        long nanos = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (last <= sequence) {
+                if (nanos <= 0) {
+                    return false;
+                }
+                nanos = appended.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int slot(long sequence) {
+        return (int) Math.floorMod(sequence, (long) slots.length);
+    }
+}
@@ -0,0 +1,76 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Sends one subscriber the changes after its position, on a thread of its own, until the client
+ * goes away. Each event carries its sequence number as the SSE id, so a reconnecting client
+ * resumes with Last-Event-ID. When its position can no longer be served the client is sent a
+ * {@code reset} event instead, carrying the latest sequence: it has to reload the list and
+ * continue from there.
+ */
+class ChangeStream implements Runnable {
+
+    static final String RESET_EVENT = "reset";
+
+    private static final int SEND_BATCH_SIZE = 100;
+
+    private final ChangeFeed feed;
+    private final SseEmitter emitter;
+    private final Duration heartbeatInterval;
+    private long position;
+    private volatile boolean closed;
+
+    ChangeStream(ChangeFeed feed, SseEmitter emitter, long position, Duration heartbeatInterval) {
+        this.feed = feed;
+        this.emitter = emitter;
+        this.position = position;
+        this.heartbeatInterval = heartbeatInterval;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (!closed && feed.isRunning()) {
+                List<EmployeeChange> changes = feed.changesAfter(position, SEND_BATCH_SIZE);
+                if (changes == null) {
+                    position = feed.lastSequence();
+                    emitter.send(SseEmitter.event()
+                            .id(Long.toString(position))
+                            .name(RESET_EVENT)
+                            .data(position));
+                } else if (!changes.isEmpty()) {
+                    for (EmployeeChange change : changes) {
+                        emitter.send(SseEmitter.event()
+                                .id(Long.toString(change.getSequence()))
+                                .name(change.getType().name().toLowerCase(Locale.ROOT))
+                                .data(change, MediaType.APPLICATION_JSON));
+                    }
+                    position = changes.get(changes.size() - 1).getSequence();
+                } else if (!feed.awaitAfter(position, heartbeatInterval)) {
+                    // Keeps proxies from timing out an idle stream and finds clients that are gone
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+            emitter.complete();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away or the stream timed out; it reconnects with the last id it saw
+            closed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            emitter.complete();
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        }
+    }
+
+    void close() {
+        closed = true;
+    }
+}
@@ -0,0 +1,26 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed. A client that saw {@code n} knows the next change it needs is
+ * {@code n + 1}; a number with no change stands for changes the feed dropped, and a client that
+ * reaches it is sent a reset.
+ */
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EmployeeChange {
+    private final long sequence;
+    private final EmployeeChangedEvent.Type type;
+    private final long employeeId;
+    // The written state; null for deletes
+    private final Employee employee;
+    private final Instant changedAt;
+}
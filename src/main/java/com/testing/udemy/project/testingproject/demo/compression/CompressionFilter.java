@@ -0,0 +1,429 @@
+package com.testing.udemy.project.testingproject.demo.compression;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * gzips responses larger than {@code minResponseSize} for clients that accept it. The first
+ * {@code minResponseSize} bytes are held back, so a small response goes out as it is, with a
+ * Content-Length; Tomcat's own compression can only apply its threshold when the length is
+ * known up front, which it never is for a serialized body. Past the threshold the response is
+ * streamed through a pooled {@link GzipEncoder}, so exports stay streaming.
+ * <p>
+ * A compressed body is other bytes than the uncompressed one, so a strong ETag gets
+ * {@value #GZIP_ETAG_SUFFIX} appended. When a client revalidates such a tag, the application sees
+ * it without the suffix and the 304 carries it again.
+ * <p>
+ * Event streams never enter the filter: they are written from another thread while the request
+ * thread is still unwinding through it, and the wrapper is not safe for two threads at once.
+ * They are recognised by {@code Accept: text/event-stream} or by their path, since a client need
+ * not send the header.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    static final String GZIP_ETAG_SUFFIX = "-gzip";
+
+    private final int minResponseSize;
+    private final Set<String> mimeTypes;
+    private final Set<String> streamingPaths;
+    private final GzipEncoder.Pool encoders;
+
+    public CompressionFilter(int minResponseSize, Collection<String> mimeTypes, Collection<String> streamingPaths,
+                             GzipEncoder.Pool encoders) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = mimeTypes.stream()
+                .map(mimeType -> mimeType.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+        this.streamingPaths = Set.copyOf(streamingPaths);
+        this.encoders = encoders;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return streamingPaths.contains(request.getRequestURI().substring(request.getContextPath().length()))
+                || acceptsEventStream(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!acceptsGzip(request)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        CompressingResponse compressingResponse = new CompressingResponse(response);
+        try {
+            filterChain.doFilter(withoutGzipETags(request, ifNoneMatch), compressingResponse);
+            if (ifNoneMatch != null && compressingResponse.getStatus() == HttpServletResponse.SC_NOT_MODIFIED) {
+                restoreGzipETag(compressingResponse, ifNoneMatch);
+            }
+            if (request.isAsyncStarted()) {
+                // Written later from another thread; one that is not a known event stream is sent as it comes
+                compressingResponse.passThrough();
+            } else {
+                compressingResponse.finish();
+            }
+        } finally {
+            compressingResponse.release();
+        }
+    }
+
+    private static HttpServletRequest withoutGzipETags(HttpServletRequest request, String ifNoneMatch) {
+        if (ifNoneMatch == null || !ifNoneMatch.contains(GZIP_ETAG_SUFFIX + "\"")) {
+            return request;
+        }
+        String stripped = ifNoneMatch.replace(GZIP_ETAG_SUFFIX + "\"", "\"");
+        return new HttpServletRequestWrapper(request) {
+            @Override
+            public String getHeader(String name) {
+                return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name) ? stripped : super.getHeader(name);
+            }
+
+            @Override
+            public Enumeration<String> getHeaders(String name) {
+                return HttpHeaders.IF_NONE_MATCH.equalsIgnoreCase(name)
+                        ? Collections.enumeration(Collections.singletonList(stripped)) : super.getHeaders(name);
+            }
+        };
+    }
+
+    // The 304 names the tag the client holds: the same version, compressed again, would be the same body
+    private static void restoreGzipETag(HttpServletResponse response, String ifNoneMatch) {
+        String eTag = response.getHeader(HttpHeaders.ETAG);
+        if (eTag != null && eTag.endsWith("\"") && !eTag.startsWith("W/") && ifNoneMatch.contains(gzipETag(eTag))) {
+            response.setHeader(HttpHeaders.ETAG, gzipETag(eTag));
+        }
+    }
+
+    private static String gzipETag(String eTag) {
+        return eTag.substring(0, eTag.length() - 1) + GZIP_ETAG_SUFFIX + "\"";
+    }
+
+    private static boolean acceptsEventStream(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        try {
+            return accept != null && MediaType.parseMediaTypes(accept).stream()
+                    .anyMatch(mediaType -> mediaType.equalsTypeAndSubtype(MediaType.TEXT_EVENT_STREAM));
+        } catch (InvalidMediaTypeException e) {
+            // Left to content negotiation to reject
+            return false;
+        }
+    }
+
+    static boolean acceptsGzip(HttpServletRequest request) {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        return mimeTypes.contains((mediaType.getType() + "/" + mediaType.getSubtype()).toLowerCase(Locale.ROOT));
+    }
+
+    private enum State {
+        BUFFERING,
+        COMPRESSING,
+        PASSING_THROUGH,
+        DONE
+    }
+
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+        private final CompressingOutputStream outputStream = new CompressingOutputStream(this);
+        private PrintWriter writer;
+        // Held back while buffering: it would be wrong once the body is compressed
+        private long contentLength = -1;
+
+        private CompressingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            if (outputStream.state == State.PASSING_THROUGH) {
+                super.setContentLengthLong(length);
+            } else {
+                contentLength = length;
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(Long.parseLong(value));
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.flush();
+        }
+
+        // The container writes error pages to the unwrapped response
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            outputStream.abandon();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            outputStream.abandon();
+            super.sendError(status);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            outputStream.abandon();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            outputStream.restart();
+            contentLength = -1;
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            outputStream.restart();
+        }
+
+        private void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.finish();
+        }
+
+        private void passThrough() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            outputStream.passThrough();
+        }
+
+        private void release() {
+            outputStream.release();
+        }
+
+        private HttpServletResponse raw() {
+            return (HttpServletResponse) getResponse();
+        }
+    }
+
+    private final class CompressingOutputStream extends ServletOutputStream {
+        private final CompressingResponse response;
+        private State state = State.BUFFERING;
+        private byte[] pending;
+        private int pendingLength;
+        private GzipEncoder encoder;
+
+        private CompressingOutputStream(CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            switch (state) {
+                case BUFFERING:
+                    if (pendingLength + length <= minResponseSize) {
+                        if (pending == null) {
+                            pending = new byte[minResponseSize];
+                        }
+                        System.arraycopy(bytes, offset, pending, pendingLength, length);
+                        pendingLength += length;
+                        return;
+                    }
+                    decide();
+                    write(bytes, offset, length);
+                    return;
+                case COMPRESSING:
+                    encoder.write(bytes, offset, length);
+                    return;
+                case PASSING_THROUGH:
+                    response.raw().getOutputStream().write(bytes, offset, length);
+                    return;
+                default:
+                    throw new IOException("The response has already been completed");
+            }
+        }
+
+        // Past the threshold: compress if the body is worth it and nobody encoded it already
+        private void decide() throws IOException {
+            HttpServletResponse raw = response.raw();
+            if (isCompressible(raw.getContentType()) && raw.getHeader(HttpHeaders.CONTENT_ENCODING) == null) {
+                raw.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+                String eTag = raw.getHeader(HttpHeaders.ETAG);
+                if (eTag != null && eTag.endsWith("\"") && !eTag.startsWith("W/")) {
+                    raw.setHeader(HttpHeaders.ETAG, gzipETag(eTag));
+                }
+                encoder = encoders.acquire();
+                encoder.start(raw.getOutputStream());
+                state = State.COMPRESSING;
+                if (pendingLength > 0) {
+                    encoder.write(pending, 0, pendingLength);
+                }
+            } else {
+                passThroughPending();
+            }
+            pendingLength = 0;
+        }
+
+        // An asynchronous response that has not been compressed yet will not be; one that has is ended here
+        private void passThrough() throws IOException {
+            if (state == State.BUFFERING) {
+                passThroughPending();
+                pendingLength = 0;
+            } else if (state == State.COMPRESSING) {
+                finish();
+            }
+        }
+
+        private void passThroughPending() throws IOException {
+            HttpServletResponse raw = response.raw();
+            state = State.PASSING_THROUGH;
+            if (response.contentLength >= 0) {
+                raw.setContentLengthLong(response.contentLength);
+            }
+            if (pendingLength > 0) {
+                raw.getOutputStream().write(pending, 0, pendingLength);
+            }
+        }
+
+        // While buffering a flush is held back, so that it does not decide against compression too early
+        @Override
+        public void flush() throws IOException {
+            if (state == State.COMPRESSING) {
+                encoder.flush();
+            } else if (state == State.PASSING_THROUGH) {
+                response.raw().getOutputStream().flush();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            finish();
+        }
+
+        private void finish() throws IOException {
+            if (state == State.BUFFERING) {
+                if (pendingLength > 0) {
+                    response.raw().setContentLength(pendingLength);
+                    response.raw().getOutputStream().write(pending, 0, pendingLength);
+                } else if (response.contentLength >= 0) {
+                    response.raw().setContentLengthLong(response.contentLength);
+                }
+            } else if (state == State.COMPRESSING) {
+                encoder.finish();
+            }
+            state = State.DONE;
+            release();
+        }
+
+        private void abandon() {
+            state = State.DONE;
+            pendingLength = 0;
+            release();
+        }
+
+        private void restart() {
+            if (state == State.DONE) {
+                return;
+            }
+            release();
+            state = State.BUFFERING;
+            pendingLength = 0;
+        }
+
+        private void release() {
+            if (encoder != null) {
+                encoders.release(encoder);
+                encoder = null;
+            }
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("Non-blocking writes are not supported by " + CompressionFilter.class.getSimpleName());
+        }
+    }
+}
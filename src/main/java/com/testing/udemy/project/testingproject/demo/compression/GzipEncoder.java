@@ -0,0 +1,121 @@
+package com.testing.udemy.project.testingproject.demo.compression;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Writes a gzip member with a {@link Deflater} and output buffer that are reused across
+ * responses. A Deflater holds a few hundred kilobytes of native zlib state, which
+ * {@link java.util.zip.GZIPOutputStream} would allocate and free again for every response.
+ */
+public final class GzipEncoder {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+    private final Deflater deflater;
+    private final CRC32 crc = new CRC32();
+    private final byte[] buffer;
+    private OutputStream out;
+
+    private GzipEncoder(int level, int bufferSize) {
+        // nowrap: raw deflate, the gzip header and trailer are written here
+        this.deflater = new Deflater(level, true);
+        this.buffer = new byte[bufferSize];
+    }
+
+    public void start(OutputStream out) throws IOException {
+        this.out = out;
+        out.write(HEADER);
+    }
+
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        crc.update(bytes, offset, length);
+        deflater.setInput(bytes, offset, length);
+        while (!deflater.needsInput()) {
+            drain(Deflater.NO_FLUSH);
+        }
+    }
+
+    // Pushes everything written so far to the client, at the cost of a few bytes of ratio
+    public void flush() throws IOException {
+        int length;
+        do {
+            length = drain(Deflater.SYNC_FLUSH);
+        } while (length == buffer.length);
+        out.flush();
+    }
+
+    public void finish() throws IOException {
+        deflater.finish();
+        while (!deflater.finished()) {
+            drain(Deflater.NO_FLUSH);
+        }
+        writeIntLittleEndian((int) crc.getValue());
+        writeIntLittleEndian((int) deflater.getBytesRead());
+    }
+
+    private int drain(int flush) throws IOException {
+        int length = deflater.deflate(buffer, 0, buffer.length, flush);
+        if (length > 0) {
+            out.write(buffer, 0, length);
+        }
+        return length;
+    }
+
+    private void writeIntLittleEndian(int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+
+    private void reset() {
+        deflater.reset();
+        crc.reset();
+        out = null;
+    }
+
+    /**
+     * Idle encoders up to a fixed capacity; a burst beyond it gets fresh encoders that are
+     * freed again instead of being kept.
+     */
+    public static final class Pool implements AutoCloseable {
+        private final int level;
+        private final int bufferSize;
+        private final BlockingQueue<GzipEncoder> idle;
+
+        public Pool(int level, int bufferSize, int capacity) {
+            this.level = level;
+            this.bufferSize = bufferSize;
+            this.idle = new ArrayBlockingQueue<>(Math.max(capacity, 1));
+        }
+
+        public GzipEncoder acquire() {
+            GzipEncoder encoder = idle.poll();
+            return encoder != null ? encoder : new GzipEncoder(level, bufferSize);
+        }
+
+        public void release(GzipEncoder encoder) {
+            encoder.reset();
+            if (!idle.offer(encoder)) {
+                encoder.deflater.end();
+            }
+        }
+
+        public int idle() {
+            return idle.size();
+        }
+
+        @Override
+        public void close() {
+            GzipEncoder encoder;
+            while ((encoder = idle.poll()) != null) {
+                encoder.deflater.end();
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A concurrency limit that follows the latency of the calls it admits, in the manner of a
+ * gradient limiter with AIMD steps. Two moving averages of latency are kept: a short one over the
+ * last few dozen calls and a long one over the last few hundred. While the short average stays
+ * within {@code tolerance} times the long one and the limit is actually in use, the limit grows by
+ * one per limit's worth of calls. Once the short average exceeds that, requests are queueing
+ * somewhere below, and the limit is cut by {@code backoffRatio}; so is it when a call fails. Cuts
+ * are at most one per long average, since the calls already in flight saw the same congestion.
+ * Comparing averages rather than absolute latencies keeps a mix of cheap and expensive calls from
+ * reading as congestion.
+ * <p>
+ * Admission is a compare-and-set on the in-flight count, so rejecting costs next to nothing.
+ */
+public class AdaptiveLimit implements MeterBinder {
+
+    private static final double SHORT_SMOOTHING = 1 / 20.0;
+    private static final double LONG_SMOOTHING = 1 / 500.0;
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double backoffRatio;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder rejectedLowPriority = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile double limit;
+    // Guarded by lock
+    private double shortRtt;
+    private double longRtt;
+    private long lastDecrease;
+
+    public AdaptiveLimit(String name, int initialLimit, int minLimit, int maxLimit, double tolerance, double backoffRatio) {
+        this.name = name;
+        this.minLimit = Math.max(minLimit, 1);
+        this.maxLimit = Math.max(maxLimit, this.minLimit);
+        this.tolerance = tolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.min(Math.max(initialLimit, this.minLimit), this.maxLimit);
+    }
+
+    /**
+     * Admits a call if fewer than {@code share} of the limit are in flight, or returns null.
+     * Low priority calls pass a share below one, which keeps the rest for the cheap ones.
+     */
+    public Permit tryAcquire(double share) {
+        int allowed = Math.max((int) (limit * share), 1);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                (share < 1 ? rejectedLowPriority : rejected).increment();
+                return null;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return new Permit(current + 1, System.nanoTime());
+            }
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart, boolean dropped) {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            if (longRtt == 0) {
+                shortRtt = rttNanos;
+                longRtt = rttNanos;
+                return;
+            }
+            if (!dropped) {
+                shortRtt += (rttNanos - shortRtt) * SHORT_SMOOTHING;
+                longRtt += (rttNanos - longRtt) * LONG_SMOOTHING;
+            }
+            if (dropped || shortRtt > longRtt * tolerance) {
+                if (now - lastDecrease >= longRtt) {
+                    limit = Math.max(minLimit, limit * backoffRatio);
+                    lastDecrease = now;
+                }
+            } else if (inFlightAtStart * 2 >= limit) {
+                limit = Math.min(maxLimit, limit + 1 / limit);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("employee.concurrency.limit", this, AdaptiveLimit::getLimit)
+                .description("Calls admitted at once before the rest are rejected")
+                .tag("limit", name)
+                .register(registry);
+        Gauge.builder("employee.concurrency.in.flight", this, AdaptiveLimit::getInFlight)
+                .description("Calls currently admitted")
+                .tag("limit", name)
+                .register(registry);
+        FunctionCounter.builder("employee.concurrency.rejected", rejected, LongAdder::sum)
+                .description("Calls rejected because the limit was reached")
+                .tags("limit", name, "priority", "high")
+                .register(registry);
+        FunctionCounter.builder("employee.concurrency.rejected", rejectedLowPriority, LongAdder::sum)
+                .description("Calls rejected because the limit was reached")
+                .tags("limit", name, "priority", "low")
+                .register(registry);
+    }
+
+    /**
+     * One admitted call; exactly one of its methods has to be called when the call ends.
+     */
+    public final class Permit {
+        private final int inFlightAtStart;
+        private final long startNanos;
+
+        private Permit(int inFlightAtStart, long startNanos) {
+            this.inFlightAtStart = inFlightAtStart;
+            this.startNanos = startNanos;
+        }
+
+        public void succeeded() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, false);
+        }
+
+        public void failed() {
+            inFlight.decrementAndGet();
+            onSample(System.nanoTime() - startNanos, inFlightAtStart, true);
+        }
+
+        // For calls whose latency says nothing about congestion, such as streams of unknown length
+        public void ignored() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
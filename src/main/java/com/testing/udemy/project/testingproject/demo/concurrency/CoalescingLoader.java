@@ -0,0 +1,113 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Loads values by key so that concurrent callers share work. A caller asking for a key that is
+ * already being loaded waits for that load instead of starting its own. Keys that are not are
+ * gathered by a {@link MicroBatcher}, so keys asked for within {@code window} of each other are
+ * loaded with one call of the batch function.
+ */
+public class CoalescingLoader<K, V> implements MeterBinder {
+
+    private final String name;
+    private final Function<Set<K>, Map<K, V>> batchLoader;
+    private final MicroBatcher<K, V> batcher;
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+    private final LongAdder loadedKeys = new LongAdder();
+
+    /**
+     * @param batchLoader loads the given keys; keys missing from the returned map load as null
+     */
+    public CoalescingLoader(String name, Function<Set<K>, Map<K, V>> batchLoader, long windowNanos, int maxBatchSize) {
+        this.name = name;
+        this.batchLoader = batchLoader;
+        this.batcher = new MicroBatcher<>(this::loadAll, windowNanos, maxBatchSize);
+    }
+
+    public V load(K key) {
+        requests.increment();
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> loading = inFlight.putIfAbsent(key, future);
+        if (loading != null) {
+            coalesced.increment();
+            return MicroBatcher.await(loading);
+        }
+        try {
+            V value = batcher.submit(key);
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * Lets the next caller for {@code key} start a fresh load rather than share one that may have
+     * read the value before it changed.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    // A forgotten key may be asked for twice in one batch; it is loaded once
+    private List<V> loadAll(List<K> keys) {
+        Set<K> distinct = new LinkedHashSet<>(keys);
+        loads.increment();
+        loadedKeys.add(distinct.size());
+        Map<K, V> values = batchLoader.apply(distinct);
+        List<V> results = new ArrayList<>(keys.size());
+        for (K key : keys) {
+            results.add(values.get(key));
+        }
+        return results;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.coalescing.requests", requests, LongAdder::sum)
+                .description("Keys asked for")
+                .tag("loader", name)
+                .register(registry);
+        FunctionCounter.builder("employee.coalescing.shared", coalesced, LongAdder::sum)
+                .description("Keys answered by a load another caller had already started")
+                .tag("loader", name)
+                .register(registry);
+        FunctionCounter.builder("employee.coalescing.loads", loads, LongAdder::sum)
+                .description("Calls of the batch function, each one query")
+                .tag("loader", name)
+                .register(registry);
+        FunctionCounter.builder("employee.coalescing.loaded.keys", loadedKeys, LongAdder::sum)
+                .description("Keys loaded by the batch function")
+                .tag("loader", name)
+                .register(registry);
+        Gauge.builder("employee.coalescing.ratio", this, CoalescingLoader::getCoalescingRatio)
+                .description("Keys asked for per query run since start")
+                .tag("loader", name)
+                .register(registry);
+    }
+
+    public double getCoalescingRatio() {
+        long queries = loads.sum();
+        return queries == 0 ? Double.NaN : (double) requests.sum() / queries;
+    }
+}
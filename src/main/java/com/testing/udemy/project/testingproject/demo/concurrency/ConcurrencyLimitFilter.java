@@ -0,0 +1,110 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Admits employee API requests through an {@link AdaptiveLimit} for reads and one for writes,
+ * and answers the rest at once with 503 and Retry-After instead of letting them queue for a
+ * connection. Point reads and single writes may use the whole limit; listings, searches, exports
+ * and bulk calls only {@code lowPriorityShare} of it, so that when the database slows down the
+ * expensive calls are shed first.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final String API_PATH = "/api/employees";
+
+    enum RequestClass {
+        POINT_READ(false, false, true),
+        LIST_READ(false, true, true),
+        // Streams for as long as the directory takes to read, which says nothing about congestion
+        EXPORT(false, true, false),
+        WRITE(true, false, true),
+        // Takes as long as the batch is big
+        BULK_WRITE(true, true, false);
+
+        private final boolean write;
+        private final boolean lowPriority;
+        private final boolean sampled;
+
+        RequestClass(boolean write, boolean lowPriority, boolean sampled) {
+            this.write = write;
+            this.lowPriority = lowPriority;
+            this.sampled = sampled;
+        }
+    }
+
+    private final AdaptiveLimit readLimit;
+    private final AdaptiveLimit writeLimit;
+    private final double lowPriorityShare;
+    private final String retryAfter;
+
+    public ConcurrencyLimitFilter(AdaptiveLimit readLimit, AdaptiveLimit writeLimit, double lowPriorityShare, Duration retryAfter) {
+        this.readLimit = readLimit;
+        this.writeLimit = writeLimit;
+        this.lowPriorityShare = lowPriorityShare;
+        this.retryAfter = Long.toString(Math.max((retryAfter.toMillis() + 999) / 1000, 1));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestClass requestClass = classify(request.getMethod(), request.getRequestURI().substring(request.getContextPath().length()));
+        if (requestClass == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        AdaptiveLimit limit = requestClass.write ? writeLimit : readLimit;
+        AdaptiveLimit.Permit permit = limit.tryAcquire(requestClass.lowPriority ? lowPriorityShare : 1);
+        if (permit == null) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfter);
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many concurrent requests, retry later");
+            return;
+        }
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= HttpStatus.INTERNAL_SERVER_ERROR.value();
+        } finally {
+            if (!requestClass.sampled || request.isAsyncStarted()) {
+                permit.ignored();
+            } else if (failed) {
+                permit.failed();
+            } else {
+                permit.succeeded();
+            }
+        }
+    }
+
+    /**
+     * The class of an employee API call, or null for requests the limits do not apply to: the
+     * change feed, whose streams stay open for as long as the client listens.
+     */
+    static RequestClass classify(String method, String path) {
+        if (!path.startsWith(API_PATH)) {
+            return null;
+        }
+        String rest = path.substring(API_PATH.length());
+        if (rest.startsWith("/")) {
+            rest = rest.substring(1);
+        }
+        if (rest.equals("changes")) {
+            return null;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            if (!rest.isEmpty() && rest.chars().allMatch(Character::isDigit)) {
+                return RequestClass.POINT_READ;
+            }
+            return rest.equals("export") ? RequestClass.EXPORT : RequestClass.LIST_READ;
+        }
+        return rest.equals("batch") || rest.equals("bulk-delete") ? RequestClass.BULK_WRITE : RequestClass.WRITE;
+    }
+}
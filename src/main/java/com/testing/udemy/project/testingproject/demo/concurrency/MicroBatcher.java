@@ -0,0 +1,136 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Hands items submitted by concurrent callers to a batch function together. A caller joins the
+ * batch that is collecting items, or opens one: the caller that opens a batch waits
+ * {@code linger} for others to join and then runs the batch function for all of them, on its own
+ * thread. A batch that reaches {@code maxBatchSize} is run at once by the caller that filled it.
+ * Every caller gets back its own element of the function's result, or the exception it threw.
+ * There are no background threads, and nobody waits on a monitor, so callers may be virtual threads.
+ */
+public class MicroBatcher<T, R> {
+
+    private final Function<List<T>, List<R>> batchFunction;
+    private final long lingerNanos;
+    private final int maxBatchSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Guarded by lock
+    private Batch<T, R> openBatch;
+
+    private static final class Batch<T, R> {
+        private final List<T> items = new ArrayList<>();
+        private final List<CompletableFuture<R>> results = new ArrayList<>();
+    }
+
+    /**
+     * @param batchFunction returns one result per item, in the order of the items
+     */
+    public MicroBatcher(Function<List<T>, List<R>> batchFunction, long lingerNanos, int maxBatchSize) {
+        this.batchFunction = batchFunction;
+        this.lingerNanos = lingerNanos;
+        this.maxBatchSize = Math.max(maxBatchSize, 1);
+    }
+
+    public R submit(T item) {
+        CompletableFuture<R> result = new CompletableFuture<>();
+        Batch<T, R> batch;
+        boolean opened;
+        boolean full;
+        lock.lock();
+        try {
+            opened = openBatch == null;
+            if (opened) {
+                openBatch = new Batch<>();
+            }
+            batch = openBatch;
+            batch.items.add(item);
+            batch.results.add(result);
+            full = batch.items.size() >= maxBatchSize;
+            if (full) {
+                openBatch = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full) {
+            run(batch);
+        } else if (opened) {
+            linger(result);
+            if (close(batch)) {
+                run(batch);
+            }
+        }
+        return await(result);
+    }
+
+    // Ends early when the batch filled up and was run by the caller that filled it
+    private void linger(CompletableFuture<R> result) {
+        if (lingerNanos <= 0) {
+            return;
+        }
+        try {
+            result.get(lingerNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // The linger is over, or the batch failed and await reports it
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // False when the batch filled up meanwhile and the caller that filled it runs it
+    private boolean close(Batch<T, R> batch) {
+        lock.lock();
+        try {
+            if (openBatch != batch) {
+                return false;
+            }
+            openBatch = null;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run(Batch<T, R> batch) {
+        List<R> results;
+        try {
+            results = batchFunction.apply(Collections.unmodifiableList(batch.items));
+            if (results.size() != batch.items.size()) {
+                throw new IllegalStateException("The batch function returned " + results.size()
+                        + " results for " + batch.items.size() + " items");
+            }
+        } catch (RuntimeException | Error e) {
+            batch.results.forEach(result -> result.completeExceptionally(e));
+            return;
+        }
+        for (int i = 0; i < results.size(); i++) {
+            batch.results.get(i).complete(results.get(i));
+        }
+    }
+
+    static <R> R await(CompletableFuture<R> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import javax.servlet.Filter;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * CBOR and Smile next to JSON for clients that send {@code Accept: application/cbor} or
+ * {@code Accept: application/x-jackson-smile}. Both mappers come from Boot's builder, so they
+ * follow the same {@code spring.jackson.*} settings as the JSON one.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    public static final String SMILE_VALUE = "application/x-jackson-smile";
+
+    // Replace the converters Spring MVC would otherwise add with mappers of its own defaults
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    // The same URL answers in three encodings, so shared caches must key on Accept as well
+    @Bean
+    public FilterRegistrationBean<Filter> varyByAcceptFilter() {
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>((request, response, chain) -> {
+            ((HttpServletResponse) response).addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            chain.doFilter(request, response);
+        });
+        registration.addUrlPatterns("/api/employees/*");
+        return registration;
+    }
+}
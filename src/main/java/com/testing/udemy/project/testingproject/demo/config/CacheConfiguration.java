@@ -0,0 +1,11 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// Ahead of the transaction advice, so a cache hit returns without opening a transaction
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfiguration {
+}
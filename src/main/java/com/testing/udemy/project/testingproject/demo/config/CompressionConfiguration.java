@@ -0,0 +1,35 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.testing.udemy.project.testingproject.demo.compression.CompressionFilter;
+import com.testing.udemy.project.testingproject.demo.compression.GzipEncoder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(prefix = "employee.compression", name = "enabled", havingValue = "true")
+public class CompressionConfiguration {
+
+    private static final int ENCODER_BUFFER_SIZE = 8 * 1024;
+    private static final String CHANGE_FEED_PATH = "/api/employees/changes";
+
+    @Bean(destroyMethod = "close")
+    public GzipEncoder.Pool gzipEncoderPool(EmployeeProperties employeeProperties) {
+        EmployeeProperties.Compression compression = employeeProperties.getCompression();
+        return new GzipEncoder.Pool(compression.getLevel(), ENCODER_BUFFER_SIZE, compression.getPoolSize());
+    }
+
+    @Bean
+    public FilterRegistrationBean<CompressionFilter> compressionFilter(EmployeeProperties employeeProperties,
+                                                                      GzipEncoder.Pool gzipEncoderPool) {
+        EmployeeProperties.Compression compression = employeeProperties.getCompression();
+        FilterRegistrationBean<CompressionFilter> registration = new FilterRegistrationBean<>(new CompressionFilter(
+                (int) compression.getMinResponseSize().toBytes(), compression.getMimeTypes(),
+                List.of(CHANGE_FEED_PATH), gzipEncoderPool));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,42 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.testing.udemy.project.testingproject.demo.concurrency.AdaptiveLimit;
+import com.testing.udemy.project.testingproject.demo.concurrency.ConcurrencyLimitFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+@ConditionalOnProperty(prefix = "employee.concurrency-limit", name = "enabled", havingValue = "true")
+public class ConcurrencyLimitConfiguration {
+
+    @Bean
+    public AdaptiveLimit readConcurrencyLimit(EmployeeProperties employeeProperties) {
+        return limit("read", employeeProperties.getConcurrencyLimit(), employeeProperties.getConcurrencyLimit().getRead());
+    }
+
+    @Bean
+    public AdaptiveLimit writeConcurrencyLimit(EmployeeProperties employeeProperties) {
+        return limit("write", employeeProperties.getConcurrencyLimit(), employeeProperties.getConcurrencyLimit().getWrite());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(EmployeeProperties employeeProperties,
+                                                                                AdaptiveLimit readConcurrencyLimit,
+                                                                                AdaptiveLimit writeConcurrencyLimit) {
+        EmployeeProperties.ConcurrencyLimit concurrencyLimit = employeeProperties.getConcurrencyLimit();
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(new ConcurrencyLimitFilter(
+                readConcurrencyLimit, writeConcurrencyLimit, concurrencyLimit.getLowPriorityShare(), concurrencyLimit.getRetryAfter()));
+        registration.addUrlPatterns("/api/employees", "/api/employees/*");
+        // Ahead of everything but encoding and request metrics, so rejections are cheap and still counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    private static AdaptiveLimit limit(String name, EmployeeProperties.ConcurrencyLimit concurrencyLimit, EmployeeProperties.Limit limit) {
+        return new AdaptiveLimit(name, limit.getInitialLimit(), limit.getMinLimit(), limit.getMaxLimit(),
+                concurrencyLimit.getTolerance(), concurrencyLimit.getBackoffRatio());
+    }
+}
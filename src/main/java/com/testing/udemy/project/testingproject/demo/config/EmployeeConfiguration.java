@@ -0,0 +1,9 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(EmployeeProperties.class)
+public class EmployeeConfiguration {
+}
@@ -0,0 +1,390 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import com.testing.udemy.project.testingproject.demo.datasource.ReplicaSelection;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tuning knobs of the employee service, bound from the {@code employee.*} properties.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "employee")
+public class EmployeeProperties {
+
+    private final Batch batch = new Batch();
+
+    private final EmailFilter emailFilter = new EmailFilter();
+
+    private final BulkDelete bulkDelete = new BulkDelete();
+
+    private final VirtualThreads virtualThreads = new VirtualThreads();
+
+    private final Reactive reactive = new Reactive();
+
+    private final Routing routing = new Routing();
+
+    private final SearchIndex searchIndex = new SearchIndex();
+
+    private final SecondLevelCache secondLevelCache = new SecondLevelCache();
+
+    private final Compression compression = new Compression();
+
+    private final ChangeFeed changeFeed = new ChangeFeed();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final GroupCommit groupCommit = new GroupCommit();
+
+    private final QueryLog queryLog = new QueryLog();
+
+    private final Counts counts = new Counts();
+
+    @Getter
+    @Setter
+    public static class Batch {
+        /**
+         * Rows checked for duplicates with one query and inserted in one JDBC batch and transaction.
+         */
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class BulkDelete {
+        /**
+         * Rows removed per DELETE statement and transaction, which bounds how long row locks are held.
+         */
+        private int chunkSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class VirtualThreads {
+        /**
+         * Run each request on its own virtual thread and queue database work on a semaphore the
+         * size of the connection pool. Needs a JDK with virtual threads (21 or later).
+         */
+        private boolean enabled = false;
+    }
+
+    @Getter
+    @Setter
+    public static class Reactive {
+        /**
+         * Serve the WebFlux variant of the API under /reactive/api/employees on its own port.
+         */
+        private boolean enabled = false;
+
+        private int port = 8081;
+
+        /**
+         * R2DBC URL of the same database the servlet stack reaches through JDBC.
+         */
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int poolSize = 10;
+
+        /**
+         * Rows requested from the database at a time while streaming a listing to a client.
+         */
+        private int fetchSize = 256;
+    }
+
+    @Getter
+    @Setter
+    public static class Routing {
+        /**
+         * Send read-only transactions to the replicas below and everything else to spring.datasource.
+         */
+        private boolean enabled = false;
+
+        private List<Replica> replicas = new ArrayList<>();
+
+        private ReplicaSelection selection = ReplicaSelection.ROUND_ROBIN;
+
+        /**
+         * Replicas whose heartbeat is older than this leave the rotation until they catch up.
+         * Keep it well above check-interval, which is how stale a healthy heartbeat can get.
+         */
+        private Duration maxLag = Duration.ofSeconds(5);
+
+        private Duration checkInterval = Duration.ofSeconds(1);
+
+        /**
+         * How long a client keeps reading from the primary after its last write.
+         */
+        private Duration readYourWritesWindow = Duration.ofSeconds(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private int poolSize = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class SearchIndex {
+        /**
+         * Serve type-ahead search from an in-memory n-gram index instead of LIKE scans of the table.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Rebuild once replaced and deleted employees exceed this fraction of the live ones.
+         */
+        private double rebuildStaleRatio = 0.2;
+    }
+
+    @Getter
+    @Setter
+    public static class SecondLevelCache {
+        /**
+         * Keep Employee entities and the cacheable name and email queries in Hibernate's second-level cache.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Eviction policy per region; every region Hibernate uses must be listed.
+         */
+        private Map<String, CacheRegion> regions = new LinkedHashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class CacheRegion {
+        private long maximumSize = 10_000;
+
+        /**
+         * Null keeps entries until they are evicted by size or invalidated by a write.
+         */
+        private Duration expireAfterWrite;
+    }
+
+    @Getter
+    @Setter
+    public static class Compression {
+        /**
+         * gzip API responses for clients that send Accept-Encoding: gzip.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Responses up to this size are sent uncompressed.
+         */
+        private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+        /**
+         * Deflate level from 1 (fastest) to 9 (smallest).
+         */
+        private int level = 6;
+
+        /**
+         * Idle gzip encoders kept for reuse; a burst beyond it allocates encoders that are freed afterwards.
+         */
+        private int poolSize = 64;
+
+        private List<String> mimeTypes = new ArrayList<>(List.of("application/json", "application/x-ndjson",
+                "text/csv", "application/cbor", "application/cbor-seq", "application/x-jackson-smile"));
+    }
+
+    @Getter
+    @Setter
+    public static class ChangeFeed {
+        /**
+         * Number every employee change and stream them as server-sent events from /api/employees/changes.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Most recent changes kept in memory; clients further behind are served from the change log table.
+         */
+        private int ringCapacity = 10_000;
+
+        /**
+         * Changes waiting to be stored; once the change log falls this far behind, further changes are
+         * dropped and subscribers are sent a reset.
+         */
+        private int queueCapacity = 10_000;
+
+        /**
+         * Changes older than this are pruned from the change log, and clients that far behind are sent a reset.
+         */
+        private Duration retention = Duration.ofDays(7);
+
+        private int maxSubscribers = 256;
+
+        /**
+         * An idle stream gets a comment line this often, so proxies keep it open and dead clients are noticed.
+         */
+        private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+        /**
+         * Streams are closed after this long; clients reconnect with Last-Event-ID and miss nothing.
+         */
+        private Duration streamTimeout = Duration.ofMinutes(30);
+    }
+
+    @Getter
+    @Setter
+    public static class ConcurrencyLimit {
+        /**
+         * Admit employee API calls up to a limit that adapts to their latency and answer the rest with 503.
+         */
+        private boolean enabled = false;
+
+        private final Limit read = new Limit(20, 4, 200);
+
+        private final Limit write = new Limit(10, 2, 100);
+
+        /**
+         * Fraction of a limit that listings, searches, exports and bulk calls may use; point reads
+         * and single writes can use all of it.
+         */
+        private double lowPriorityShare = 0.75;
+
+        /**
+         * Recent latency above this multiple of the long-run average counts as congestion.
+         */
+        private double tolerance = 2.0;
+
+        /**
+         * Factor a limit is cut by on congestion or a failed call.
+         */
+        private double backoffRatio = 0.9;
+
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Limit {
+        private int initialLimit;
+
+        private int minLimit;
+
+        private int maxLimit;
+
+        Limit(int initialLimit, int minLimit, int maxLimit) {
+            this.initialLimit = initialLimit;
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Coalescing {
+        /**
+         * Share one query between concurrent point reads of an employee that miss the caches.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long the first read of a batch waits for reads of other ids to join it; zero only
+         * merges reads of the same id.
+         */
+        private Duration batchWindow = Duration.ofNanos(100_000);
+
+        private int maxBatchSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class GroupCommit {
+        /**
+         * Insert concurrent single creates together, as one multi-row insert and one commit.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How long the first create of a group waits for others to join it.
+         */
+        private Duration linger = Duration.ofMillis(1);
+
+        private int maxBatchSize = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class QueryLog {
+        /**
+         * Time every statement, report the totals per request in X-DB-Queries and X-DB-Time, and log slow ones.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Statements taking at least this long are always logged.
+         */
+        private Duration threshold = Duration.ofMillis(100);
+
+        /**
+         * Share of the faster statements logged as well, between 0 and 1.
+         */
+        private double sampleRate = 0.0;
+
+        /**
+         * Entries waiting for the log writer; further ones are dropped and counted.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Counts {
+        /**
+         * Keep the totals that page envelopes report, so that no listing has to run a COUNT.
+         */
+        private boolean enabled = false;
+
+        /**
+         * How often the running count is checked against a COUNT of the table, which picks up
+         * writes made by other instances or outside the service.
+         */
+        private Duration resyncInterval = Duration.ofHours(1);
+
+        /**
+         * How often the approximate total is refreshed.
+         */
+        private Duration estimateInterval = Duration.ofMinutes(1);
+    }
+
+    @Getter
+    @Setter
+    public static class EmailFilter {
+        /**
+         * Keep a Bloom filter of known emails so most creates of new emails skip the duplicate-check SELECT.
+         */
+        private boolean enabled = false;
+
+        private long expectedInsertions = 1_000_000;
+
+        private double falsePositiveProbability = 0.01;
+
+        /**
+         * Rebuild from the table once deletes and updates exceed this fraction of the filter's entries.
+         */
+        private double rebuildStaleRatio = 0.1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.testing.udemy.project.testingproject.demo.querylog.QueryLoggingDataSource;
+import com.testing.udemy.project.testingproject.demo.querylog.QueryStatsFilter;
+import com.testing.udemy.project.testingproject.demo.querylog.RepositoryMethodTracker;
+import com.testing.udemy.project.testingproject.demo.querylog.SlowQueryLog;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Slow-query log and per-request statement accounting, switched on with
+ * {@code employee.query-log.enabled=true}. Takes the place of {@code spring.jpa.show-sql}, which
+ * prints every statement synchronously on the request thread.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.query-log", name = "enabled", havingValue = "true")
+public class QueryLogConfiguration {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(EmployeeProperties employeeProperties) {
+        EmployeeProperties.QueryLog queryLog = employeeProperties.getQueryLog();
+        return new SlowQueryLog(queryLog.getThreshold(), queryLog.getSampleRate(), queryLog.getQueueCapacity());
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatsFilter> queryStatsFilter() {
+        FilterRegistrationBean<QueryStatsFilter> registration = new FilterRegistrationBean<>(new QueryStatsFilter());
+        registration.addUrlPatterns("/api/*");
+        // Right behind the concurrency limits, so everything a request runs is counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+
+    // Static so the post-processors do not force this configuration to be created early; the log is
+    // looked up on the first statement, by which time it exists
+    @Bean
+    public static BeanPostProcessor queryLogDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof QueryLoggingDataSource) {
+                    return bean;
+                }
+                return new QueryLoggingDataSource((DataSource) bean, beanName, new LazyListener(slowQueryLog));
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor repositoryMethodTrackerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport) {
+                    ((RepositoryFactoryBeanSupport<?, ?, ?>) bean).addRepositoryFactoryCustomizer(factory ->
+                            factory.addRepositoryProxyPostProcessor((proxyFactory, repositoryInformation) ->
+                                    proxyFactory.addAdvice(new RepositoryMethodTracker(repositoryInformation.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static class LazyListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SlowQueryLog> provider;
+        private volatile SlowQueryLog slowQueryLog;
+
+        LazyListener(ObjectProvider<SlowQueryLog> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            listener().beforeQuery(execInfo, queryInfoList);
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            listener().afterQuery(execInfo, queryInfoList);
+        }
+
+        private SlowQueryLog listener() {
+            SlowQueryLog current = slowQueryLog;
+            if (current == null) {
+                current = provider.getObject();
+                slowQueryLog = current;
+            }
+            return current;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+
+/**
+ * The non-blocking stack, switched on with {@code employee.reactive.enabled=true}: an R2DBC pool on
+ * the application's database and a Reactor Netty server on {@code employee.reactive.port}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.reactive", name = "enabled", havingValue = "true")
+public class ReactiveConfiguration {
+
+    // The pool is deliberately not a ConnectionFactory bean: Boot's DataSourceAutoConfiguration backs
+    // off as soon as one exists, which would take the JDBC side of the application down with it
+    @Bean
+    public DatabaseClient reactiveDatabaseClient(EmployeeProperties employeeProperties) {
+        EmployeeProperties.Reactive reactive = employeeProperties.getReactive();
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(reactive.getUrl()).mutate();
+        if (reactive.getUsername() != null) {
+            options.option(ConnectionFactoryOptions.USER, reactive.getUsername());
+        }
+        if (reactive.getPassword() != null) {
+            options.option(ConnectionFactoryOptions.PASSWORD, reactive.getPassword());
+        }
+        ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        return DatabaseClient.create(new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name("reactive-employees")
+                .maxSize(reactive.getPoolSize())
+                .maxAcquireTime(Duration.ofSeconds(30))
+                // a released connection is otherwise handed to the next waiting borrower on the releasing
+                // event loop, which then runs every queued query back to back and starves its own channels
+                .customizer(pool -> pool.acquisitionScheduler(Schedulers.boundedElastic()))
+                .build()));
+    }
+
+    @Bean
+    public DisposableBean reactiveConnectionPoolDisposer(DatabaseClient reactiveDatabaseClient) {
+        return ((ConnectionPool) reactiveDatabaseClient.getConnectionFactory())::dispose;
+    }
+
+    @Bean
+    public ReactiveEmployeeServer reactiveEmployeeServer(ApplicationContext applicationContext,
+                                                         EmployeeProperties employeeProperties) {
+        return new ReactiveEmployeeServer(applicationContext, employeeProperties.getReactive().getPort());
+    }
+}
@@ -0,0 +1,69 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.service.ReactiveEmployeeService;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.http.server.reactive.HttpHandler;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * Runs the WebFlux API on Reactor Netty next to the servlet container. The controller lives in a
+ * context of its own that is handed the service and ObjectMapper from the application. It cannot be
+ * a child context: WebFlux configuration refuses to start below one that has Spring MVC enabled.
+ */
+public class ReactiveEmployeeServer implements SmartLifecycle {
+
+    private final ApplicationContext applicationContext;
+    private final int port;
+
+    private AnnotationConfigApplicationContext context;
+    private DisposableServer server;
+
+    public ReactiveEmployeeServer(ApplicationContext applicationContext, int port) {
+        this.applicationContext = applicationContext;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        context = new AnnotationConfigApplicationContext();
+        context.registerBean(ReactiveEmployeeService.class, () -> applicationContext.getBean(ReactiveEmployeeService.class));
+        context.registerBean(ObjectMapper.class, () -> applicationContext.getBean(ObjectMapper.class));
+        context.register(ReactiveWebConfiguration.class);
+        context.refresh();
+        HttpHandler httpHandler = WebHttpHandlerBuilder.applicationContext(context).build();
+        server = HttpServer.create()
+                .port(port)
+                .handle(new ReactorHttpHandlerAdapter(httpHandler))
+                .bindNow();
+    }
+
+    @Override
+    public void stop() {
+        if (server != null) {
+            server.disposeNow();
+            server = null;
+        }
+        if (context != null) {
+            context.close();
+            context = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * The bound port, which differs from the configured one when that is 0.
+     */
+    public int getPort() {
+        return server.port();
+    }
+}
@@ -0,0 +1,37 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.controller.ReactiveEmployeeController;
+import com.testing.udemy.project.testingproject.demo.service.ReactiveEmployeeService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.config.EnableWebFlux;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Contents of the reactive server's own context. Not a {@code @Configuration} on purpose, so the
+ * servlet application never scans it; ReactiveEmployeeServer registers it explicitly.
+ */
+@EnableWebFlux
+class ReactiveWebConfiguration implements WebFluxConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    ReactiveWebConfiguration(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Bean
+    public ReactiveEmployeeController reactiveEmployeeController(ReactiveEmployeeService reactiveEmployeeService) {
+        return new ReactiveEmployeeController(reactiveEmployeeService);
+    }
+
+    // Same Jackson setup as the servlet API, so both stacks render employees identically
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        configurer.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+        configurer.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+    }
+}
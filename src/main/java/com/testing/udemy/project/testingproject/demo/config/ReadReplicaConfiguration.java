@@ -0,0 +1,76 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.testing.udemy.project.testingproject.demo.datasource.ReadReplica;
+import com.testing.udemy.project.testingproject.demo.datasource.ReadWriteRoutingDataSource;
+import com.testing.udemy.project.testingproject.demo.datasource.ReadYourWritesFilter;
+import com.testing.udemy.project.testingproject.demo.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read/write splitting, switched on with {@code employee.routing.enabled=true}: read-only transactions
+ * go to the {@code employee.routing.replicas} pools, everything else to {@code spring.datasource}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.routing", name = "enabled", havingValue = "true")
+public class ReadReplicaConfiguration {
+
+    // Replaces Boot's pool, so spring.datasource.hikari.* is bound onto the primary here. The pools are
+    // not beans of their own: several DataSource beans would leave JPA and the SQL initializer guessing
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, EmployeeProperties employeeProperties,
+                                 Environment environment) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        EmployeeProperties.Routing routing = employeeProperties.getRouting();
+        List<ReadReplica> replicas = new ArrayList<>();
+        for (int i = 0; i < routing.getReplicas().size(); i++) {
+            EmployeeProperties.Replica replica = routing.getReplicas().get(i);
+            HikariDataSource pool = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(replica.getUrl())
+                    .username(replica.getUsername())
+                    .password(replica.getPassword())
+                    .build();
+            pool.setPoolName("replica-" + i);
+            pool.setMaximumPoolSize(replica.getPoolSize());
+            pool.setReadOnly(true);
+            replicas.add(new ReadReplica("replica-" + i, pool));
+        }
+        return new LazyConnectionDataSourceProxy(new ReadWriteRoutingDataSource(primary, replicas, routing.getSelection()));
+    }
+
+    @Bean
+    public DisposableBean readReplicaPoolsDisposer(DataSource dataSource) {
+        return DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class)::close;
+    }
+
+    // The heartbeat table comes from the migrations where Flyway runs them
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(DataSource dataSource, EmployeeProperties employeeProperties,
+                                               Environment environment) {
+        EmployeeProperties.Routing routing = employeeProperties.getRouting();
+        boolean flywayEnabled = environment.getProperty("spring.flyway.enabled", Boolean.class, false);
+        return new ReplicaLagMonitor(DataSourceUnwrapper.unwrap(dataSource, ReadWriteRoutingDataSource.class),
+                routing.getMaxLag(), routing.getCheckInterval(), !flywayEnabled);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(EmployeeProperties employeeProperties) {
+        return new ReadYourWritesFilter(employeeProperties.getRouting().getReadYourWritesWindow());
+    }
+}
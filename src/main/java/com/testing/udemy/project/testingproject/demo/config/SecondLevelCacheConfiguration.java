@@ -0,0 +1,88 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.testing.udemy.project.testingproject.demo.cache.SecondLevelCacheEvictor;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Hibernate's second-level and query cache on Caffeine, switched on with
+ * {@code employee.second-level-cache.enabled=true}. Region sizes and expiry come from
+ * {@code employee.second-level-cache.regions.*}; hit, miss and put counts per region are
+ * published as {@code hibernate.second.level.cache.*} metrics.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.second-level-cache", name = "enabled", havingValue = "true")
+public class SecondLevelCacheConfiguration {
+
+    // A manager of this context's own: the provider's default one is shared by the whole JVM, so two
+    // contexts on different databases would read each other's entities out of it
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(EmployeeProperties employeeProperties) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+        employeeProperties.getSecondLevelCache().getRegions().forEach((name, region) ->
+                cacheManager.createCache(name, regionConfiguration(region.getMaximumSize(),
+                        region.getExpireAfterWrite() == null ? null : region.getExpireAfterWrite().toNanos())));
+        // Unbounded on purpose: an evicted table timestamp would let stale query results through
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(null, null));
+        // Created by Hibernate whenever the query cache is on; every employee query names its own region
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                regionConfiguration(1_000L, null));
+        return cacheManager;
+    }
+
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(Long maximumSize, Long expireAfterWriteNanos) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        if (maximumSize != null) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (expireAfterWriteNanos != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWriteNanos));
+        }
+        return configuration;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheHibernateProperties(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // A region missing from the configuration is a mistake, not something to paper over with an unbounded cache
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    // Boot only binds these for Hibernate 6, whose metrics module replaced this binder
+    @Bean
+    @SuppressWarnings("deprecation")
+    public MeterBinder secondLevelCacheMetrics(EntityManagerFactory entityManagerFactory) {
+        return new HibernateMetrics(entityManagerFactory.unwrap(SessionFactory.class), "entityManagerFactory", Tags.empty());
+    }
+
+    @Bean
+    public SecondLevelCacheEvictor secondLevelCacheEvictor(EntityManagerFactory entityManagerFactory) {
+        return new SecondLevelCacheEvictor(entityManagerFactory);
+    }
+}
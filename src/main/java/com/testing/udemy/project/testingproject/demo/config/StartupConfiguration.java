@@ -0,0 +1,23 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.Repository;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+
+/**
+ * With {@code spring.main.lazy-initialization=true} (the prod profile) everything else is created on
+ * first use, but building the Hibernate metamodel and the repository proxies takes long enough that
+ * it belongs to start-up rather than to the first request.
+ */
+@Configuration
+public class StartupConfiguration {
+
+    @Bean
+    static LazyInitializationExcludeFilter eagerPersistenceBeans() {
+        return LazyInitializationExcludeFilter.forBeanTypes(DataSource.class, EntityManagerFactory.class, Repository.class);
+    }
+}
@@ -0,0 +1,64 @@
+package com.testing.udemy.project.testingproject.demo.config;
+
+import com.testing.udemy.project.testingproject.demo.cache.UnsynchronizedCacheManager;
+import com.testing.udemy.project.testingproject.demo.concurrency.BoundedDataSource;
+import com.testing.udemy.project.testingproject.demo.concurrency.VirtualThreads;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Request execution on virtual threads, switched on with {@code employee.virtual-threads.enabled=true}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "employee.virtual-threads", name = "enabled", havingValue = "true")
+public class VirtualThreadConfiguration {
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService virtualThreadRequestExecutor() {
+        return VirtualThreads.newThreadPerTaskExecutor("http-vt-");
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer(ExecutorService virtualThreadRequestExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(virtualThreadRequestExecutor);
+    }
+
+    // Static so the post-processor does not force this configuration to be created early
+    @Bean
+    public static BeanPostProcessor boundedDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource) || bean instanceof BoundedDataSource) {
+                    return bean;
+                }
+                HikariDataSource pool = DataSourceUnwrapper.unwrap((DataSource) bean, HikariDataSource.class);
+                if (pool == null) {
+                    return bean;
+                }
+                return new BoundedDataSource((DataSource) bean, pool.getMaximumPoolSize(), pool.getConnectionTimeout());
+            }
+        };
+    }
+
+    @Bean
+    public static BeanPostProcessor unsynchronizedCacheManagerPostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof CaffeineCacheManager
+                        ? new UnsynchronizedCacheManager((CaffeineCacheManager) bean)
+                        : bean;
+            }
+        };
+    }
+}
@@ -1,22 +1,75 @@
 package com.testing.udemy.project.testingproject.demo.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.batch.BatchResult;
+import com.testing.udemy.project.testingproject.demo.batch.BulkDeleteRequest;
+import com.testing.udemy.project.testingproject.demo.batch.BulkDeleteResult;
+import com.testing.udemy.project.testingproject.demo.changefeed.ChangeFeed;
+import com.testing.udemy.project.testingproject.demo.config.BinaryFormatConfiguration;
+import com.testing.udemy.project.testingproject.demo.exception.PreconditionFailedException;
+import com.testing.udemy.project.testingproject.demo.export.EmployeeExportWriter;
+import com.testing.udemy.project.testingproject.demo.export.ExportFormat;
 import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
 import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    // In the order Spring MVC registers their converters, which decides a tie such as "Accept: */*"
+    private static final Map<MediaType, String> ENCODINGS = new LinkedHashMap<>();
+
+    static {
+        ENCODINGS.put(MediaType.APPLICATION_JSON, "json");
+        ENCODINGS.put(MediaType.parseMediaType(BinaryFormatConfiguration.SMILE_VALUE), "smile");
+        ENCODINGS.put(MediaType.APPLICATION_CBOR, "cbor");
+    }
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private ObjectMapper objectMapper;
+
+    private ChangeFeed changeFeed;
+
+    private ContentNegotiationManager contentNegotiationManager;
+
+    // Spring MVC's manager where there is one, so ETags follow its negotiation; Accept-based otherwise
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper, ChangeFeed changeFeed,
+                              ObjectProvider<ContentNegotiationManager> contentNegotiationManager) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.changeFeed = changeFeed;
+        this.contentNegotiationManager = contentNegotiationManager.getIfAvailable(ContentNegotiationManager::new);
     }
 
     @PostMapping
@@ -25,16 +78,122 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
+    @PostMapping(value = "batch", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_CBOR_VALUE,
+            BinaryFormatConfiguration.SMILE_VALUE})
+    public BatchResult createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees.iterator());
+    }
+
+    // NDJSON bodies are parsed lazily, so an import never has to fit in memory as a whole
+    @PostMapping(value = "batch", consumes = "application/x-ndjson")
+    public BatchResult createEmployeesFromNdjson(HttpServletRequest request) throws IOException {
+        try (MappingIterator<Employee> employees = objectMapper.readerFor(Employee.class)
+                .readValues(request.getInputStream())) {
+            return employeeService.saveEmployees(employees);
+        }
+    }
+
+    // Ordered by id so that a page, and with it its ETag, stays the same until one of its rows changes
     @GetMapping
-    public List<Employee> getEmployees() {
-        PageRequest pageRequest = PageRequest.of(0, 10);
-        return employeeService.getAllEmployees(pageRequest);
+    public ResponseEntity<List<Employee>> getEmployees(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                       @RequestParam(value = "size", defaultValue = "10") int size,
+                                                       @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch,
+                                                       HttpServletRequest request) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), clampPageSize(size), EmployeeSortKey.ID.getSort());
+        if (ifNoneMatch != null) {
+            String eTag = eTag(EmployeeVersion.eTag(employeeService.getEmployeeVersions(pageRequest)), request);
+            if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
+        List<Employee> employees = employeeService.getAllEmployees(pageRequest);
+        String eTag = EmployeeVersion.eTag(employees.stream().map(EmployeeVersion::of).collect(Collectors.toList()));
+        return ResponseEntity.ok().eTag(eTag(eTag, request)).body(employees);
+    }
+
+    // Passing "total" (EXACT or APPROXIMATE) wraps the page in an envelope with the total and hasNext.
+    // No ETag: the total moves with every write to the table, not only to the rows on the page
+    @GetMapping(params = {"total", "!limit"})
+    public CountedPage<Employee> getEmployeePage(@RequestParam(value = "page", defaultValue = "0") int page,
+                                                 @RequestParam(value = "size", defaultValue = "10") int size,
+                                                 @RequestParam("total") TotalCount total) {
+        PageRequest pageRequest = PageRequest.of(Math.max(page, 0), clampPageSize(size), EmployeeSortKey.ID.getSort());
+        return employeeService.getEmployeePage(pageRequest, total);
+    }
+
+    // Passing "limit" switches the listing to keyset mode: every page costs the same regardless of depth
+    @GetMapping(params = "limit")
+    public CursorPage<Employee> getEmployeesAfter(@RequestParam(value = "after", required = false) String after,
+                                                  @RequestParam("limit") int limit,
+                                                  @RequestParam(value = "sort", defaultValue = "ID") EmployeeSortKey sort) {
+        return employeeService.getEmployeesAfter(sort, after, clampPageSize(limit));
+    }
+
+    // Case-insensitive prefix search on last name and optionally first name, paged like the keyset listing
+    @GetMapping("search")
+    public CursorPage<Employee> searchEmployees(@RequestParam("lastName") String lastName,
+                                                @RequestParam(value = "firstName", required = false) String firstName,
+                                                @RequestParam(value = "after", required = false) String after,
+                                                @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return employeeService.searchEmployeesByName(lastName, firstName, after, clampPageSize(limit));
+    }
+
+    // Type-ahead over first name, last name and email, answered from the in-memory search index
+    @GetMapping(value = "search", params = "q")
+    public List<Employee> searchEmployeesByText(@RequestParam("q") String query,
+                                                @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return employeeService.searchEmployees(query, clampPageSize(limit));
+    }
+
+    // Streams the whole directory in one response; rows are written as they are read from the database
+    @GetMapping("export")
+    public void exportEmployees(@RequestParam(value = "format", defaultValue = "NDJSON") ExportFormat format,
+                                HttpServletResponse response) throws IOException {
+        response.setContentType(format.getMediaType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"employees." + format.getExtension() + "\"");
+        try (EmployeeExportWriter writer = EmployeeExportWriter.open(format, response.getOutputStream(), objectMapper)) {
+            employeeService.exportEmployees(writer::write);
+        }
     }
 
+    // Server-sent events of every change; a reconnecting client resumes after the Last-Event-ID it saw
+    @GetMapping(value = "changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+                                    @RequestParam(value = "after", required = false) Long after) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : after);
+    }
+
+    // The version is the ETag; a client that still has it gets a 304 without the employee being loaded
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long id) {
+    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long id,
+                                                    @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch,
+                                                    HttpServletRequest request) {
+        if (ifNoneMatch != null) {
+            Optional<Long> version = employeeService.getEmployeeVersion(id);
+            if (version.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            String eTag = eTag(Long.toString(version.get()), request);
+            if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+        }
         return employeeService.getEmployeeById(id)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(Long.toString(employee.getVersion()), request)).body(employee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // Existence and ETag from the version lookup alone; GET's handler would load and serialize the employee
+    @RequestMapping(value = "{id}", method = RequestMethod.HEAD)
+    public ResponseEntity<Void> headEmployeeById(@PathVariable("id") long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) List<String> ifNoneMatch,
+                                                 HttpServletRequest request) {
+        return employeeService.getEmployeeVersion(id)
+                .map(version -> eTag(Long.toString(version), request))
+                .map(eTag -> ResponseEntity.status(ifNoneMatch != null && matchesIfNoneMatch(ifNoneMatch, eTag)
+                        ? HttpStatus.NOT_MODIFIED : HttpStatus.OK).eTag(eTag).<Void>build())
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -44,19 +203,119 @@ public class EmployeeController {
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
 
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
+                    // The looked-up instance may be shared through the cache, so it is never modified in place
+                    Employee changedEmployee = Employee.builder()
+                            .id(savedEmployee.getId())
+                            .version(savedEmployee.getVersion())
+                            .firstName(employee.getFirstName())
+                            .lastName(employee.getLastName())
+                            .email(employee.getEmail())
+                            .build();
 
-                    Employee updateEmployee = employeeService.updateEmployee(savedEmployee);
+                    Employee updateEmployee = employeeService.updateEmployee(changedEmployee);
                     return new ResponseEntity<>(updateEmployee, HttpStatus.OK);
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // Applies only the fields present in the body; with If-Match the write succeeds only at that version
+    @PatchMapping("{id}")
+    public ResponseEntity<Employee> patchEmployee(@PathVariable("id") long employeeId,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @Valid @RequestBody EmployeePatch patch,
+                                                  HttpServletRequest request) {
+        return employeeService.patchEmployee(employeeId, patch, parseIfMatch(ifMatch))
+                .map(patchedEmployee -> ResponseEntity.ok()
+                        .eTag(eTag(Long.toString(patchedEmployee.getVersion()), request))
+                        .body(patchedEmployee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
         employeeService.deleteEmployeeById(employeeId);
         return new ResponseEntity<String>("The Employee was deleted successfully!", HttpStatus.OK);
     }
+
+    // Accepts "*" (no condition) or a single strong tag whose version comes first, such as "3" or "3-cbor".
+    // If-Match compares strongly, so a weak tag never matches. Every encoding of a version stands for the
+    // same row, so the version alone is checked against the database
+    static Long parseIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            throw new PreconditionFailedException("If-Match needs a strong ETag, not " + ifMatch);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int suffix = tag.indexOf('-');
+        try {
+            return Long.parseLong(suffix < 0 ? tag : tag.substring(0, suffix));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("If-Match does not name an employee version: " + ifMatch, e);
+        }
+    }
+
+    // Strong and specific to the encoding, e.g. "3-json" and "3-cbor": the same version in another
+    // encoding is other bytes. CompressionFilter appends "-gzip" to the tag of a compressed body
+    private String eTag(String tag, HttpServletRequest request) {
+        return "\"" + tag + "-" + encoding(request) + "\"";
+    }
+
+    // The encoding content negotiation is going to pick, known before the body is there for a 304 or a HEAD
+    private String encoding(HttpServletRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = contentNegotiationManager.resolveMediaTypes(new ServletWebRequest(request));
+        } catch (HttpMediaTypeNotAcceptableException e) {
+            return ENCODINGS.get(MediaType.APPLICATION_JSON);
+        }
+        for (MediaType mediaType : accepted) {
+            for (Map.Entry<MediaType, String> encoding : ENCODINGS.entrySet()) {
+                if (mediaType.isCompatibleWith(encoding.getKey())) {
+                    return encoding.getValue();
+                }
+            }
+        }
+        return ENCODINGS.get(MediaType.APPLICATION_JSON);
+    }
+
+    // Weak comparison, as If-None-Match calls for: W/"3-json" matches the current "3-json", and "*"
+    // matches anything that exists
+    static boolean matchesIfNoneMatch(List<String> ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Deletes by a list of ids or by email domain in one call; the count covers rows that actually existed
+    @PostMapping("bulk-delete")
+    public ResponseEntity<BulkDeleteResult> deleteEmployees(@RequestBody BulkDeleteRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byDomain = request.getEmailDomain() != null && !request.getEmailDomain().isBlank();
+        if (byIds == byDomain) {
+            return ResponseEntity.badRequest().build();
+        }
+        long deleted = byIds
+                ? employeeService.deleteEmployees(request.getIds())
+                : employeeService.deleteEmployeesByEmailDomain(request.getEmailDomain().trim());
+        return ResponseEntity.ok(new BulkDeleteResult(deleted));
+    }
+
+    static int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
 }
@@ -0,0 +1,97 @@
+package com.testing.udemy.project.testingproject.demo.controller;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.service.ReactiveEmployeeService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+/**
+ * WebFlux variant of {@link EmployeeController} with the same routes under {@code /reactive}.
+ * It is deliberately not a {@code @RestController}: component scanning would also map it into the
+ * servlet stack. ReactiveWebConfiguration registers it in the reactive server's own context.
+ */
+@ResponseBody
+@RequestMapping("/reactive/api/employees")
+public class ReactiveEmployeeController {
+
+    private final ReactiveEmployeeService employeeService;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee) {
+        return employeeService.saveEmployee(employee);
+    }
+
+    @GetMapping
+    public Flux<Employee> getEmployees(@RequestParam(value = "page", defaultValue = "0") int page,
+                                       @RequestParam(value = "size", defaultValue = "10") int size) {
+        return employeeService.getAllEmployees(Math.max(page, 0), EmployeeController.clampPageSize(size));
+    }
+
+    // Asking for NDJSON streams the whole directory; each row is written as soon as the client can take it
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> streamEmployees() {
+        return employeeService.streamEmployees();
+    }
+
+    @GetMapping(params = "limit")
+    public Mono<CursorPage<Employee>> getEmployeesAfter(@RequestParam(value = "after", required = false) String after,
+                                                        @RequestParam("limit") int limit,
+                                                        @RequestParam(value = "sort", defaultValue = "ID") EmployeeSortKey sort) {
+        return employeeService.getEmployeesAfter(sort, after, EmployeeController.clampPageSize(limit));
+    }
+
+    @GetMapping("search")
+    public Mono<CursorPage<Employee>> searchEmployees(@RequestParam("lastName") String lastName,
+                                                      @RequestParam(value = "firstName", required = false) String firstName,
+                                                      @RequestParam(value = "after", required = false) String after,
+                                                      @RequestParam(value = "limit", defaultValue = "20") int limit) {
+        return employeeService.searchEmployeesByName(lastName, firstName, after, EmployeeController.clampPageSize(limit));
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long id) {
+        return employeeService.getEmployeeById(id)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId,
+                                                         @RequestBody Employee employee) {
+        return employeeService.updateEmployee(employeeId, employee)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Employee>> patchEmployee(@PathVariable("id") long employeeId,
+                                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                        @Valid @RequestBody EmployeePatch patch) {
+        return employeeService.patchEmployee(employeeId, patch, EmployeeController.parseIfMatch(ifMatch))
+                .map(patchedEmployee -> ResponseEntity.ok()
+                        .eTag(Long.toString(patchedEmployee.getVersion()))
+                        .body(patchedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId) {
+        return employeeService.deleteEmployeeById(employeeId)
+                .thenReturn(new ResponseEntity<>("The Employee was deleted successfully!", HttpStatus.OK));
+    }
+}
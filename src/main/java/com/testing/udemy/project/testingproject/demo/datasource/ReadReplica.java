@@ -0,0 +1,39 @@
+package com.testing.udemy.project.testingproject.demo.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import lombok.Getter;
+import org.springframework.boot.jdbc.DataSourceUnwrapper;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * One replica pool and what the lag monitor last learned about it. A replica starts out of
+ * rotation and only takes reads once a heartbeat check has found it current.
+ */
+@Getter
+public class ReadReplica {
+
+    private final String name;
+    private final DataSource dataSource;
+    private volatile boolean inRotation;
+    // Null until a heartbeat has been read from the replica
+    private volatile Duration lag;
+
+    public ReadReplica(String name, DataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    void update(Duration lag, boolean inRotation) {
+        this.lag = lag;
+        this.inRotation = inRotation;
+    }
+
+    int activeConnections() {
+        HikariDataSource pool = DataSourceUnwrapper.unwrap(dataSource, HikariDataSource.class);
+        HikariPoolMXBean poolBean = pool == null ? null : pool.getHikariPoolMXBean();
+        return poolBean == null ? 0 : poolBean.getActiveConnections();
+    }
+}
@@ -0,0 +1,50 @@
+package com.testing.udemy.project.testingproject.demo.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Pins the current thread to the primary until a point in time, so that reads following a write
+ * see it even while the replicas have not caught up. Times are epoch millis because they travel
+ * to clients and back in a cookie.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Long> PRIMARY_UNTIL = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static void pinPrimaryUntil(long epochMillis) {
+        Long until = PRIMARY_UNTIL.get();
+        if (until == null || until < epochMillis) {
+            PRIMARY_UNTIL.set(epochMillis);
+        }
+    }
+
+    public static boolean isPinnedToPrimary() {
+        Long until = PRIMARY_UNTIL.get();
+        return until != null && until > System.currentTimeMillis();
+    }
+
+    /**
+     * Runs {@code action} pinned to the primary, for reads whose result is handed to other callers and
+     * therefore must not be older than any write, whichever thread happens to run them.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Long until = PRIMARY_UNTIL.get();
+        PRIMARY_UNTIL.set(Long.MAX_VALUE);
+        try {
+            return action.get();
+        } finally {
+            if (until == null) {
+                PRIMARY_UNTIL.remove();
+            } else {
+                PRIMARY_UNTIL.set(until);
+            }
+        }
+    }
+
+    public static void clear() {
+        PRIMARY_UNTIL.remove();
+    }
+}
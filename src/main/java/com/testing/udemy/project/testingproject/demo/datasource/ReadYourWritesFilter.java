@@ -0,0 +1,85 @@
+package com.testing.udemy.project.testingproject.demo.datasource;
+
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Keeps a client on the primary for a while after it writes. Every write stamps a cookie with the
+ * end of the window; later requests that bring the cookie back pin their thread to the primary
+ * until then, so a GET right after a POST sees the new employee even on a lagging replica.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String COOKIE = "employee-primary-until";
+
+    private final Duration window;
+
+    public ReadYourWritesFilter(Duration window) {
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Long until = primaryUntil(request);
+        if (until != null) {
+            // Never longer than the window, whatever the client sends
+            ReadYourWrites.pinPrimaryUntil(Math.min(until, System.currentTimeMillis() + window.toMillis()));
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.clear();
+        }
+    }
+
+    // Published synchronously by the service, so this runs on the thread that wrote
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        long until = System.currentTimeMillis() + window.toMillis();
+        ReadYourWrites.pinPrimaryUntil(until);
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        HttpServletResponse response = attributes instanceof ServletRequestAttributes
+                ? ((ServletRequestAttributes) attributes).getResponse()
+                : null;
+        // Bulk writes publish an event per row but need only one cookie
+        if (response != null && !response.isCommitted()
+                && attributes.getAttribute(COOKIE, RequestAttributes.SCOPE_REQUEST) == null) {
+            attributes.setAttribute(COOKIE, until, RequestAttributes.SCOPE_REQUEST);
+            Cookie cookie = new Cookie(COOKIE, Long.toString(until));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(window.toSeconds() + 1, 1));
+            response.addCookie(cookie);
+        }
+    }
+
+    private static Long primaryUntil(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,141 @@
+package com.testing.udemy.project.testingproject.demo.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures replication lag with a heartbeat row: every check stamps the current time into
+ * {@value #HEARTBEAT_TABLE} on the primary and reads it back from each replica. A replica whose
+ * copy is older than {@code maxLag}, or that cannot be read at all, leaves the rotation until a
+ * later check finds it current again. This works the same on any database that replicates the
+ * table, and the stamps all come from application clocks, never from a database's.
+ * <p>
+ * Where Flyway manages the schema, {@code V4__create_replica_heartbeat.sql} creates the table. Without
+ * it, as for the rest of the schema under {@code ddl-auto=update}, the monitor creates it on start.
+ */
+@Slf4j
+public class ReplicaLagMonitor implements SmartLifecycle, MeterBinder {
+
+    static final String HEARTBEAT_TABLE = "replica_heartbeat";
+
+    private final JdbcTemplate primary;
+    private final List<ReadReplica> replicas;
+    private final Duration maxLag;
+    private final Duration checkInterval;
+    private final boolean createHeartbeatTable;
+
+    private ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(ReadWriteRoutingDataSource routingDataSource, Duration maxLag, Duration checkInterval,
+                             boolean createHeartbeatTable) {
+        this.primary = new JdbcTemplate(routingDataSource.getPrimary());
+        this.replicas = routingDataSource.getReplicas();
+        this.maxLag = maxLag;
+        this.checkInterval = checkInterval;
+        this.createHeartbeatTable = createHeartbeatTable;
+    }
+
+    /**
+     * Writes a heartbeat and re-evaluates every replica; runs every {@code checkInterval} once started.
+     */
+    public synchronized void check() {
+        long now = System.currentTimeMillis();
+        try {
+            beat(now);
+        } catch (DataAccessException e) {
+            log.warn("Could not write the replication heartbeat to the primary", e);
+        }
+        for (ReadReplica replica : replicas) {
+            Duration lag = readLag(replica, now);
+            boolean inRotation = lag != null && lag.compareTo(maxLag) <= 0;
+            if (inRotation != replica.isInRotation()) {
+                log.info("Replica {} {} rotation, lag {}", replica.getName(), inRotation ? "joins" : "leaves", lag);
+            }
+            replica.update(lag, inRotation);
+        }
+    }
+
+    private void beat(long now) {
+        if (primary.update("update " + HEARTBEAT_TABLE + " set beat_millis = ? where id = 1", now) == 0) {
+            try {
+                primary.update("insert into " + HEARTBEAT_TABLE + " (id, beat_millis) values (1, ?)", now);
+            } catch (DuplicateKeyException e) {
+                // Another instance inserted the row first; its stamp is just as good
+            }
+        }
+    }
+
+    private Duration readLag(ReadReplica replica, long now) {
+        try {
+            List<Long> beats = new JdbcTemplate(replica.getDataSource())
+                    .queryForList("select beat_millis from " + HEARTBEAT_TABLE + " where id = 1", Long.class);
+            return beats.isEmpty() ? null : Duration.ofMillis(Math.max(now - beats.get(0), 0));
+        } catch (DataAccessException e) {
+            log.debug("Could not read the replication heartbeat from replica {}", replica.getName(), e);
+            return null;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (ReadReplica replica : replicas) {
+            Gauge.builder("employee.db.replica.lag", replica, r -> r.getLag() == null ? Double.NaN : r.getLag().toMillis() / 1000.0)
+                    .description("Age of the replication heartbeat last read from the replica")
+                    .baseUnit("seconds")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+            Gauge.builder("employee.db.replica.in.rotation", replica, r -> r.isInRotation() ? 1 : 0)
+                    .description("Whether the replica currently takes reads")
+                    .tag("replica", replica.getName())
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (createHeartbeatTable) {
+            primary.execute("create table if not exists " + HEARTBEAT_TABLE
+                    + " (id int not null primary key, beat_millis bigint not null)");
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkQuietly, 0, checkInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    // An exception would cancel the schedule for good
+    private void checkQuietly() {
+        try {
+            check();
+        } catch (RuntimeException e) {
+            log.warn("Replica lag check failed", e);
+        }
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
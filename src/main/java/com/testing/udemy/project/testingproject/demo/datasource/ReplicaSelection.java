@@ -0,0 +1,12 @@
+package com.testing.udemy.project.testingproject.demo.datasource;
+
+public enum ReplicaSelection {
+    /**
+     * Take the replicas in turn.
+     */
+    ROUND_ROBIN,
+    /**
+     * Take the replica whose pool has the fewest connections in use.
+     */
+    LEAST_LOADED
+}
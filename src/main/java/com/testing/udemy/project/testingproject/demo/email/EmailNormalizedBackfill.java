@@ -0,0 +1,85 @@
+package com.testing.udemy.project.testingproject.demo.email;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Fills in {@code email_normalized} for rows written before the column existed. Under
+ * {@code ddl-auto=update} Hibernate adds the column empty, and rows left NULL would escape the
+ * unique index and every lookup by normalized email. Where Flyway manages the schema,
+ * {@code V3__backfill_email_normalized.sql} does this instead.
+ * <p>
+ * Runs before the application reports ready, so the email filter is built from a complete column.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "spring.flyway", name = "enabled", havingValue = "false", matchIfMissing = true)
+public class EmailNormalizedBackfill implements ApplicationRunner {
+
+    private static final String NORMALIZE =
+            "update employees set email_normalized = lower(trim(email)) where email_normalized is null";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int chunkSize;
+
+    public EmailNormalizedBackfill(JdbcTemplate jdbcTemplate, EmployeeProperties employeeProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.chunkSize = Math.max(employeeProperties.getBatch().getChunkSize(), 1);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        backfill();
+    }
+
+    /**
+     * Normalizes the emails of every row that has none yet and returns how many were filled in.
+     */
+    public long backfill() {
+        long filled = 0;
+        long skipped = 0;
+        long lastId = 0;
+        // Chunks are walked by id, so rows a chunk had to skip are not picked up again by the next one
+        List<Long> ids;
+        while (!(ids = nextChunk(lastId)).isEmpty()) {
+            lastId = ids.get(ids.size() - 1);
+            try {
+                // Each chunk is its own statement and commit, so no update holds row locks for the whole table
+                filled += jdbcTemplate.update(NORMALIZE + " and id between ? and ?", ids.get(0), lastId);
+            } catch (DataIntegrityViolationException e) {
+                // Some row of the chunk shares an email with another one; the statement was rolled back,
+                // so the chunk is retried row by row and only the conflicting rows are left behind
+                for (Long id : ids) {
+                    try {
+                        filled += jdbcTemplate.update(NORMALIZE + " and id = ?", id);
+                    } catch (DataIntegrityViolationException conflict) {
+                        skipped++;
+                        log.warn("Could not normalize the email of employee {}, another employee has it: {}",
+                                id, conflict.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        if (filled > 0) {
+            log.info("Normalized the email of {} existing employees", filled);
+        }
+        if (skipped > 0) {
+            // The database cannot pick the row to keep, so the duplicates are left for an operator
+            log.error("Left the email of {} employees unnormalized, they share an email with another employee", skipped);
+        }
+        return filled;
+    }
+
+    private List<Long> nextChunk(long afterId) {
+        return jdbcTemplate.queryForList("select id from employees where email_normalized is null and id > ?"
+                + " order by id limit ?", Long.class, afterId, chunkSize);
+    }
+}
@@ -0,0 +1,141 @@
+package com.testing.udemy.project.testingproject.demo.email;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * In-process Bloom filter of every email in the table. When it says an email is
+ * definitely absent, a create can skip the duplicate-check SELECT and rely on the unique
+ * index alone. The filter is only an optimisation: a stale answer costs at most one
+ * extra SELECT or one rejected INSERT, never a duplicate row.
+ */
+@Slf4j
+@Component
+public class KnownEmailFilter {
+
+    private final EmployeeProperties.EmailFilter properties;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile EmailBloomFilter active;
+    private volatile EmailBloomFilter building;
+    private final AtomicLong insertions = new AtomicLong();
+    // Bloom filters cannot forget, so deletes and updates leave bits that only a rebuild clears
+    private final AtomicLong staleEntries = new AtomicLong();
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor;
+
+    public KnownEmailFilter(EmployeeProperties employeeProperties,
+                            EmployeeRepository employeeRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.properties = employeeProperties.getEmailFilter();
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildExecutor = properties.isEnabled()
+                ? Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "email-filter-rebuild");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    public boolean definitelyAbsent(String email) {
+        EmailBloomFilter filter = active;
+        return filter != null && email != null && !filter.mightContain(Employee.normalizeEmail(email));
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (rebuildExecutor == null) {
+            return;
+        }
+        if (event.getType() != EmployeeChangedEvent.Type.CREATED) {
+            long stale = staleEntries.incrementAndGet();
+            if (stale > properties.getRebuildStaleRatio() * Math.max(insertions.get(), 1)) {
+                scheduleRebuild();
+            }
+        }
+        if (event.getType() != EmployeeChangedEvent.Type.DELETED) {
+            add(event.getEmployee().getEmail());
+        }
+    }
+
+    private void add(String email) {
+        String normalized = Employee.normalizeEmail(email);
+        EmailBloomFilter filter = active;
+        if (filter != null) {
+            filter.put(normalized);
+        }
+        // Writes that race with a rebuild land in both filters, so the swap loses nothing
+        EmailBloomFilter next = building;
+        if (next != null) {
+            next.put(normalized);
+        }
+        insertions.incrementAndGet();
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildExecutor != null && rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    void rebuild() {
+        try {
+            EmailBloomFilter next = new EmailBloomFilter(properties.getExpectedInsertions(),
+                    properties.getFalsePositiveProbability());
+            building = next;
+            AtomicLong count = new AtomicLong();
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = employeeRepository.streamAllEmails()) {
+                    emails.forEach(email -> {
+                        next.put(Employee.normalizeEmail(email));
+                        count.incrementAndGet();
+                    });
+                }
+            });
+            active = next;
+            insertions.set(count.get());
+            staleEntries.set(0);
+            log.info("Email filter rebuilt with {} emails", count.get());
+        } catch (RuntimeException e) {
+            log.warn("Email filter rebuild failed, creates keep checking duplicates with a query", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.testing.udemy.project.testingproject.demo.event;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import lombok.Getter;
+
+/**
+ * Published by the employee service after every write, so that in-process views of the
+ * table (filters, caches, indexes) can follow it without the service knowing about them.
+ */
+@Getter
+public class EmployeeChangedEvent {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final Type type;
+    private final long employeeId;
+    // The written state; null for deletes where only the id was known
+    private final Employee employee;
+    // Written over plain JDBC or R2DBC, so Hibernate's caches did not see it
+    private final boolean outsideHibernate;
+
+    private EmployeeChangedEvent(Type type, long employeeId, Employee employee, boolean outsideHibernate) {
+        this.type = type;
+        this.employeeId = employeeId;
+        this.employee = employee;
+        this.outsideHibernate = outsideHibernate;
+    }
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(Type.CREATED, employee.getId(), employee, false);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(Type.UPDATED, employee.getId(), employee, false);
+    }
+
+    public static EmployeeChangedEvent deleted(Employee employee) {
+        return new EmployeeChangedEvent(Type.DELETED, employee.getId(), employee, false);
+    }
+
+    public static EmployeeChangedEvent deleted(long employeeId) {
+        return new EmployeeChangedEvent(Type.DELETED, employeeId, null, false);
+    }
+
+    public EmployeeChangedEvent outsideHibernate() {
+        return new EmployeeChangedEvent(type, employeeId, employee, true);
+    }
+}
@@ -0,0 +1,18 @@
+package com.testing.udemy.project.testingproject.demo.event;
+
+import lombok.Getter;
+
+/**
+ * Published by the employee services with the number of rows a committed write added (positive)
+ * or removed (negative). Unlike {@link EmployeeChangedEvent} it is only published for rows that
+ * really changed, so a delete of an id that does not exist leaves the count alone.
+ */
+@Getter
+public class EmployeeCountChangedEvent {
+
+    private final long delta;
+
+    public EmployeeCountChangedEvent(long delta) {
+        this.delta = delta;
+    }
+}
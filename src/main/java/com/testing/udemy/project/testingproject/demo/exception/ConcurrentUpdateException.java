@@ -0,0 +1,16 @@
+package com.testing.udemy.project.testingproject.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(String massage) {
+        super(massage);
+    }
+
+    public ConcurrentUpdateException(String massage, Throwable throwable) {
+        super(massage, throwable);
+    }
+}
@@ -0,0 +1,16 @@
+package com.testing.udemy.project.testingproject.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String massage) {
+        super(massage);
+    }
+
+    public InvalidCursorException(String massage, Throwable throwable) {
+        super(massage, throwable);
+    }
+}
@@ -0,0 +1,16 @@
+package com.testing.udemy.project.testingproject.demo.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.PRECONDITION_FAILED)
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String massage) {
+        super(massage);
+    }
+
+    public PreconditionFailedException(String massage, Throwable throwable) {
+        super(massage, throwable);
+    }
+}
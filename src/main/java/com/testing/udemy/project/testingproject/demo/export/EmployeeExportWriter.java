@@ -0,0 +1,134 @@
+package com.testing.udemy.project.testingproject.demo.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes employees one row at a time to an output stream. Rows go through a fixed-size
+ * buffer and are never collected, so memory use does not depend on the number of rows.
+ */
+public abstract class EmployeeExportWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final CBORFactory CBOR_FACTORY = new CBORFactory();
+
+    public static EmployeeExportWriter open(ExportFormat format, OutputStream out, ObjectMapper objectMapper) {
+        try {
+            switch (format) {
+                case CSV:
+                    return new Csv(out);
+                case CBOR:
+                    return new CborSequence(out, objectMapper);
+                default:
+                    return new Ndjson(out, objectMapper);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public void write(Employee employee) {
+        try {
+            writeRow(employee);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void writeRow(Employee employee) throws IOException;
+
+    private static final class Ndjson extends EmployeeExportWriter {
+        private final ObjectWriter objectWriter;
+        private final JsonGenerator generator;
+
+        private Ndjson(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            // Flushing after every value would turn each row into its own socket write
+            this.objectWriter = objectMapper.writerFor(Employee.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.generator = objectMapper.getFactory()
+                    .createGenerator(new BufferedOutputStream(out, BUFFER_SIZE))
+                    .setRootValueSeparator(null);
+        }
+
+        @Override
+        protected void writeRow(Employee employee) throws IOException {
+            objectWriter.writeValue(generator, employee);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    // Serializers do not depend on the format, so the JSON mapper's writer drives a CBOR generator as well
+    private static final class CborSequence extends EmployeeExportWriter {
+        private final ObjectWriter objectWriter;
+        private final JsonGenerator generator;
+
+        private CborSequence(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.objectWriter = objectMapper.writerFor(Employee.class)
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+            this.generator = CBOR_FACTORY.createGenerator(new BufferedOutputStream(out, BUFFER_SIZE));
+        }
+
+        @Override
+        protected void writeRow(Employee employee) throws IOException {
+            objectWriter.writeValue(generator, employee);
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+    }
+
+    private static final class Csv extends EmployeeExportWriter {
+        private final Writer writer;
+
+        private Csv(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            writer.write("id,firstName,lastName,email\n");
+        }
+
+        @Override
+        protected void writeRow(Employee employee) throws IOException {
+            writer.write(Long.toString(employee.getId()));
+            writer.write(',');
+            writeField(employee.getFirstName());
+            writer.write(',');
+            writeField(employee.getLastName());
+            writer.write(',');
+            writeField(employee.getEmail());
+            writer.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            boolean quoted = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quoted) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
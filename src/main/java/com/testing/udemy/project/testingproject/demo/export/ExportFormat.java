@@ -0,0 +1,24 @@
+package com.testing.udemy.project.testingproject.demo.export;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv"),
+    // RFC 8742 CBOR sequence: one CBOR item per employee, back to back
+    CBOR("application/cbor-seq", "cbor");
+
+    private final String mediaType;
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
@@ -1,9 +1,14 @@
 package com.testing.udemy.project.testingproject.demo.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import javax.validation.constraints.Email;
+import java.util.Locale;
 
 @Getter
 @Setter
@@ -11,8 +16,17 @@ import javax.validation.constraints.Email;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Employee.CACHE_REGION)
+@Table(name = "employees",
+        indexes = @Index(name = "idx_employees_last_first", columnList = "last_name, first_name, id"),
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email_normalized"))
 public class Employee {
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email_normalized";
+    // Second-level cache regions of the entity and of the cacheable employee queries
+    public static final String CACHE_REGION = "employee-entities";
+    public static final String QUERY_CACHE_REGION = "employee-queries";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -26,4 +40,24 @@ public class Employee {
     @Email
     @Column(nullable = false)
     private String email;
+
+    // Lower-cased copy of email; the unique index on it makes the database the single judge of duplicates
+    @JsonIgnore
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
+    // Bumped by every write; clients echo it back in If-Match instead of sending it in the body
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long version;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeEmail() {
+        emailNormalized = normalizeEmail(email);
+    }
+
+    public static String normalizeEmail(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
 }
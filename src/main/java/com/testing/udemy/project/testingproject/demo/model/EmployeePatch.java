@@ -0,0 +1,32 @@
+package com.testing.udemy.project.testingproject.demo.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import javax.validation.constraints.AssertTrue;
+import javax.validation.constraints.Email;
+
+/**
+ * Body of a partial update: fields left null keep their current value. A body that sets no field at
+ * all is rejected, rather than writing a new version and a change event for a row that did not change.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeePatch {
+
+    private String firstName;
+
+    private String lastName;
+
+    @Email
+    private String email;
+
+    @JsonIgnore
+    @AssertTrue(message = "The patch must set at least one field")
+    public boolean isSettingAnyField() {
+        return firstName != null || lastName != null || email != null;
+    }
+}
@@ -0,0 +1,32 @@
+package com.testing.udemy.project.testingproject.demo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.util.DigestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+
+/**
+ * Id and version of an employee without the rest of the row: enough to tell whether a client's
+ * copy of an employee or of a page is still current.
+ */
+@Getter
+@AllArgsConstructor
+public class EmployeeVersion {
+    private final long id;
+    private final long version;
+
+    public static EmployeeVersion of(Employee employee) {
+        return new EmployeeVersion(employee.getId(), employee.getVersion());
+    }
+
+    // Changes whenever a row of the page is updated, added, removed or moved, since every write bumps the version
+    public static String eTag(List<EmployeeVersion> versions) {
+        ByteBuffer buffer = ByteBuffer.allocate(versions.size() * 2 * Long.BYTES);
+        for (EmployeeVersion version : versions) {
+            buffer.putLong(version.getId()).putLong(version.getVersion());
+        }
+        return DigestUtils.md5DigestAsHex(buffer.array());
+    }
+}
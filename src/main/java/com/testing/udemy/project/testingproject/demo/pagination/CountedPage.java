@@ -0,0 +1,21 @@
+package com.testing.udemy.project.testingproject.demo.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * One page of an offset listing with the total number of rows. {@code total} is {@code null} while
+ * the requested count is not known yet; {@code hasNext} never depends on it.
+ */
+@Getter
+@AllArgsConstructor
+public class CountedPage<T> {
+    private final List<T> items;
+    private final int page;
+    private final int size;
+    private final Long total;
+    private final TotalCount totalCount;
+    private final boolean hasNext;
+}
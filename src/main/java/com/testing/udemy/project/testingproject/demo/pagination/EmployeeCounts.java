@@ -0,0 +1,148 @@
+package com.testing.udemy.project.testingproject.demo.pagination;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeCountChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The totals behind {@link CountedPage}, kept so that listings never run a COUNT of their own.
+ * <p>
+ * The exact total is a running count: every {@link EmployeeCountChangedEvent} is added to it, and
+ * every {@code resync-interval} a COUNT of the table replaces what it has drifted from, which
+ * covers writes by other instances or outside the service. The approximate total is refreshed
+ * every {@code estimate-interval} from the table statistics on MySQL and from a COUNT elsewhere.
+ * Both are null until the first resync or refresh, and stay null with {@code employee.counts.enabled=false}.
+ */
+@Slf4j
+@Component
+public class EmployeeCounts implements SmartLifecycle, MeterBinder {
+
+    static final String TABLE = "employees";
+
+    private final EmployeeProperties.Counts properties;
+    private final JdbcTemplate jdbcTemplate;
+    // Every delta published since start; the exact total is this plus the offset of the last resync
+    private final LongAdder changes = new LongAdder();
+
+    private volatile Long offset;
+    private volatile Long estimate;
+    private volatile Boolean tableStatistics;
+    private ScheduledExecutorService executor;
+
+    public EmployeeCounts(EmployeeProperties employeeProperties, JdbcTemplate jdbcTemplate) {
+        this.properties = employeeProperties.getCounts();
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener
+    public void onEmployeeCountChanged(EmployeeCountChangedEvent event) {
+        changes.add(event.getDelta());
+    }
+
+    public Long get(TotalCount totalCount) {
+        if (totalCount == TotalCount.APPROXIMATE) {
+            return estimate;
+        }
+        Long current = offset;
+        return current == null ? null : Math.max(current + changes.sum(), 0);
+    }
+
+    /**
+     * Replaces the running count with a COUNT of the table; runs every {@code resync-interval} once started.
+     */
+    public void resync() {
+        // Read before the COUNT, so only a write whose event lands between this read and the COUNT's
+        // snapshot is counted twice; read after it, every write during the scan would be missed
+        long before = changes.sum();
+        Long count = jdbcTemplate.queryForObject("select count(*) from " + TABLE, Long.class);
+        offset = (count == null ? 0 : count) - before;
+    }
+
+    /**
+     * Re-reads the approximate total; runs every {@code estimate-interval} once started.
+     */
+    public void refreshEstimate() {
+        if (tableStatistics == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            tableStatistics = product != null && product.toLowerCase(Locale.ROOT).contains("mysql");
+        }
+        if (tableStatistics) {
+            // InnoDB's sampled row estimate; reading it touches no rows of the table
+            List<Long> rows = jdbcTemplate.queryForList("select table_rows from information_schema.tables"
+                    + " where table_schema = database() and table_name = ?", Long.class, TABLE);
+            if (!rows.isEmpty() && rows.get(0) != null) {
+                estimate = rows.get(0);
+                return;
+            }
+        }
+        estimate = jdbcTemplate.queryForObject("select count(*) from " + TABLE, Long.class);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (TotalCount totalCount : TotalCount.values()) {
+            Gauge.builder("employee.count", this, counts -> {
+                        Long total = counts.get(totalCount);
+                        return total == null ? Double.NaN : total;
+                    })
+                    .description("Employees as reported in page envelopes")
+                    .tag("kind", totalCount.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "employee-counts");
+            thread.setDaemon(true);
+            return thread;
+        });
+        schedule(this::resync, "Resync of the employee count", properties.getResyncInterval());
+        schedule(this::refreshEstimate, "Refresh of the employee count estimate", properties.getEstimateInterval());
+    }
+
+    // An exception would cancel the schedule for good
+    private void schedule(Runnable task, String name, Duration interval) {
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                log.warn("{} failed", name, e);
+            }
+        }, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+}
@@ -0,0 +1,63 @@
+package com.testing.udemy.project.testingproject.demo.pagination;
+
+import com.testing.udemy.project.testingproject.demo.exception.InvalidCursorException;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import lombok.Getter;
+
+import java.io.*;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a keyset page. Clients only ever see the opaque
+ * Base64 form produced by {@link #encode()}.
+ */
+@Getter
+public class EmployeeCursor {
+    private final EmployeeSortKey sortKey;
+    private final long id;
+    private final String lastName;
+    private final String firstName;
+
+    private EmployeeCursor(EmployeeSortKey sortKey, long id, String lastName, String firstName) {
+        this.sortKey = sortKey;
+        this.id = id;
+        this.lastName = lastName;
+        this.firstName = firstName;
+    }
+
+    public static EmployeeCursor after(EmployeeSortKey sortKey, Employee employee) {
+        return new EmployeeCursor(sortKey, employee.getId(), employee.getLastName(), employee.getFirstName());
+    }
+
+    public String encode() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(sortKey.ordinal());
+            out.writeLong(id);
+            if (sortKey == EmployeeSortKey.NAME) {
+                out.writeUTF(lastName);
+                out.writeUTF(firstName);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    public static EmployeeCursor decode(String cursor, EmployeeSortKey expectedSortKey) {
+        try (DataInputStream in = new DataInputStream(
+                new ByteArrayInputStream(Base64.getUrlDecoder().decode(cursor)))) {
+            int ordinal = in.readUnsignedByte();
+            if (ordinal != expectedSortKey.ordinal()) {
+                throw new InvalidCursorException("The cursor was not issued for sort: " + expectedSortKey);
+            }
+            long id = in.readLong();
+            if (expectedSortKey == EmployeeSortKey.NAME) {
+                return new EmployeeCursor(expectedSortKey, id, in.readUTF(), in.readUTF());
+            }
+            return new EmployeeCursor(expectedSortKey, id, null, null);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new InvalidCursorException("Malformed cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.testing.udemy.project.testingproject.demo.pagination;
+
+import org.springframework.data.domain.Sort;
+
+/**
+ * Sort orders supported by keyset pagination. Every key ends with the primary key,
+ * so the order is total and a cursor always points at exactly one row.
+ */
+public enum EmployeeSortKey {
+    ID(Sort.by("id")),
+    NAME(Sort.by("lastName", "firstName", "id"));
+
+    private final Sort sort;
+
+    EmployeeSortKey(Sort sort) {
+        this.sort = sort;
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+}
@@ -0,0 +1,16 @@
+package com.testing.udemy.project.testingproject.demo.pagination;
+
+/**
+ * Which total a page envelope carries. Neither runs a COUNT per request.
+ */
+public enum TotalCount {
+    /**
+     * The running count this instance keeps of the rows it inserts and deletes, resynchronized
+     * with the table now and then to pick up writes made elsewhere.
+     */
+    EXACT,
+    /**
+     * An estimate refreshed in the background; from the table statistics where the database keeps them.
+     */
+    APPROXIMATE
+}
@@ -0,0 +1,49 @@
+package com.testing.udemy.project.testingproject.demo.querylog;
+
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Hands out connections whose statements report to a {@link QueryExecutionListener}. The proxying
+ * is datasource-proxy's; wrapping it in a {@link DelegatingDataSource} keeps the pool and the
+ * routing data source reachable for {@code DataSourceUnwrapper}, which cannot see through
+ * datasource-proxy's own data source class.
+ */
+public class QueryLoggingDataSource extends DelegatingDataSource implements Closeable {
+
+    private final ProxyDataSource proxy;
+
+    public QueryLoggingDataSource(DataSource targetDataSource, String name, QueryExecutionListener listener) {
+        super(targetDataSource);
+        this.proxy = ProxyDataSourceBuilder.create(name, targetDataSource)
+                .listener(listener)
+                .build();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return proxy.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return proxy.getConnection(username, password);
+    }
+
+    // Shutdown infers the destroy method from this wrapper, so the pool behind it is closed from here
+    @Override
+    public void close() throws IOException {
+        DataSource target = getTargetDataSource();
+        if (target instanceof Closeable) {
+            ((Closeable) target).close();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.testing.udemy.project.testingproject.demo.querylog;
+
+/**
+ * Statements run and time spent in them by the request on the current thread. Only the owning
+ * thread touches an instance, so the counters are plain fields.
+ * <p>
+ * Work done on behalf of other requests on this thread counts here too: a coalesced read or a
+ * group commit runs its one query on the thread of the request that leads the batch.
+ */
+public final class QueryStats {
+
+    private static final ThreadLocal<QueryStats> CURRENT = new ThreadLocal<>();
+
+    private final String request;
+    private int queries;
+    private long nanos;
+
+    private QueryStats(String request) {
+        this.request = request;
+    }
+
+    static QueryStats begin(String request) {
+        QueryStats stats = new QueryStats(request);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static QueryStats current() {
+        return CURRENT.get();
+    }
+
+    void record(long elapsedNanos) {
+        queries++;
+        nanos += elapsedNanos;
+    }
+
+    String getRequest() {
+        return request;
+    }
+
+    public int getQueries() {
+        return queries;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,100 @@
+package com.testing.udemy.project.testingproject.demo.querylog;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Locale;
+
+/**
+ * Counts the statements each request runs and the time spent in them, and reports both in the
+ * {@code X-DB-Queries} and {@code X-DB-Time} (milliseconds) response headers.
+ * <p>
+ * Headers have to go out before the body, so they are set when the body is first asked for, which
+ * for a JSON response is after the handler has returned. A response that streams its body, like an
+ * export, reports only the statements run before it started. An asynchronous response, like the
+ * change feed, belongs to the thread that writes it once the handler has returned, so only that
+ * thread sets them.
+ */
+public class QueryStatsFilter extends OncePerRequestFilter {
+
+    public static final String QUERIES_HEADER = "X-DB-Queries";
+    public static final String TIME_HEADER = "X-DB-Time";
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStats stats = QueryStats.begin(request.getMethod() + " " + request.getRequestURI());
+        StatsResponse statsResponse = new StatsResponse(response, stats);
+        try {
+            filterChain.doFilter(request, statsResponse);
+        } finally {
+            if (!request.isAsyncStarted()) {
+                statsResponse.writeHeaders();
+            }
+            QueryStats.end();
+        }
+    }
+
+    private static class StatsResponse extends HttpServletResponseWrapper {
+
+        private final QueryStats stats;
+        private boolean written;
+
+        StatsResponse(HttpServletResponse response, QueryStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(QUERIES_HEADER, Integer.toString(stats.getQueries()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getNanos() / 1_000_000.0));
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.testing.udemy.project.testingproject.demo.querylog;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Advice on the repository proxies that remembers which repository method the current thread is
+ * in, so a logged statement can name the call that issued it.
+ */
+public class RepositoryMethodTracker implements MethodInterceptor {
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final String repository;
+
+    public RepositoryMethodTracker(Class<?> repositoryInterface) {
+        this.repository = repositoryInterface.getSimpleName();
+    }
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        String outer = CURRENT.get();
+        // A repository method calling another keeps the outer name: that is the call the service made
+        if (outer != null) {
+            return invocation.proceed();
+        }
+        CURRENT.set(repository + "." + invocation.getMethod().getName());
+        try {
+            return invocation.proceed();
+        } finally {
+            CURRENT.remove();
+        }
+    }
+}
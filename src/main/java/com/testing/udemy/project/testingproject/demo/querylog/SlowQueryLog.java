@@ -0,0 +1,233 @@
+package com.testing.udemy.project.testingproject.demo.querylog;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.AllArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every statement that goes through the proxied data source, adds it to the request's
+ * {@link QueryStats}, and logs those slower than the threshold plus a sample of the rest, with
+ * their bound parameters and the repository method that issued them.
+ * <p>
+ * The request thread only copies what an entry needs into a bounded queue; formatting and writing
+ * happen on a writer thread of their own. When the queue is full the entry is dropped and counted
+ * rather than holding up the query.
+ */
+@Slf4j
+public class SlowQueryLog implements QueryExecutionListener, SmartLifecycle, MeterBinder {
+
+    private static final String STARTED_AT = SlowQueryLog.class.getName() + ".startedAt";
+    private static final int MAX_LOGGED_PARAMETER_SETS = 10;
+    private static final int MAX_LOGGED_VALUE_LENGTH = 200;
+
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final BlockingQueue<Entry> pending;
+    private final LongAdder slow = new LongAdder();
+    private final LongAdder sampled = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile boolean running;
+    private Thread writer;
+
+    public SlowQueryLog(Duration threshold, double sampleRate, int queueCapacity) {
+        this.thresholdNanos = threshold.toNanos();
+        this.sampleRate = sampleRate;
+        this.pending = new ArrayBlockingQueue<>(Math.max(queueCapacity, 1));
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(STARTED_AT, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long startedAt = execInfo.getCustomValue(STARTED_AT, Long.class);
+        long elapsed = startedAt == null
+                ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+                : System.nanoTime() - startedAt;
+        QueryStats stats = QueryStats.current();
+        if (stats != null) {
+            stats.record(elapsed);
+        }
+
+        boolean isSlow = elapsed >= thresholdNanos;
+        if (!isSlow && (sampleRate <= 0 || ThreadLocalRandom.current().nextDouble() >= sampleRate)) {
+            return;
+        }
+        (isSlow ? slow : sampled).increment();
+        Entry entry = new Entry(isSlow, elapsed, execInfo.isSuccess(), RepositoryMethodTracker.current(),
+                stats == null ? null : stats.getRequest(), statements(queryInfoList));
+        if (!pending.offer(entry)) {
+            dropped.increment();
+        }
+    }
+
+    // Parameter values are copied now: the statement may be reused and rebound before the writer gets to them
+    private static List<Statement> statements(List<QueryInfo> queryInfoList) {
+        List<Statement> statements = new ArrayList<>(queryInfoList.size());
+        for (QueryInfo queryInfo : queryInfoList) {
+            List<List<ParameterSetOperation>> parametersList = queryInfo.getParametersList();
+            List<Object[]> parameterSets = new ArrayList<>(Math.min(parametersList.size(), MAX_LOGGED_PARAMETER_SETS));
+            for (List<ParameterSetOperation> parameters : parametersList) {
+                if (parameterSets.size() == MAX_LOGGED_PARAMETER_SETS) {
+                    break;
+                }
+                Object[] values = new Object[parameters.size()];
+                for (int i = 0; i < values.length; i++) {
+                    ParameterSetOperation parameter = parameters.get(i);
+                    Object[] args = parameter.getArgs();
+                    values[i] = ParameterSetOperation.isSetNullParameterOperation(parameter) || args.length < 2
+                            ? null : args[1];
+                }
+                parameterSets.add(values);
+            }
+            statements.add(new Statement(queryInfo.getQuery(), parameterSets, parametersList.size()));
+        }
+        return statements;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeEntries, "slow-query-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        writer.interrupt();
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("employee.queries.logged", slow, LongAdder::sum)
+                .description("Statements written to the slow-query log")
+                .tag("kind", "slow")
+                .register(registry);
+        FunctionCounter.builder("employee.queries.logged", sampled, LongAdder::sum)
+                .description("Statements written to the slow-query log")
+                .tag("kind", "sampled")
+                .register(registry);
+        FunctionCounter.builder("employee.queries.log.dropped", dropped, LongAdder::sum)
+                .description("Slow-query log entries dropped because the writer had fallen behind")
+                .register(registry);
+    }
+
+    private void writeEntries() {
+        while (running) {
+            try {
+                write(pending.take());
+            } catch (InterruptedException e) {
+                List<Entry> remaining = new ArrayList<>();
+                pending.drainTo(remaining);
+                remaining.forEach(this::write);
+                return;
+            }
+        }
+    }
+
+    private void write(Entry entry) {
+        String message = format(entry);
+        if (entry.slow) {
+            log.warn(message);
+        } else {
+            log.info(message);
+        }
+    }
+
+    static String format(Entry entry) {
+        StringBuilder message = new StringBuilder(entry.slow ? "Slow query " : "Sampled query ")
+                .append(String.format(Locale.ROOT, "%.2f ms", entry.nanos / 1_000_000.0));
+        if (!entry.success) {
+            message.append(", failed,");
+        }
+        message.append(" in ").append(entry.repositoryMethod == null ? "no repository method" : entry.repositoryMethod);
+        if (entry.request != null) {
+            message.append(" for ").append(entry.request);
+        }
+        for (Statement statement : entry.statements) {
+            message.append(": ").append(statement.sql);
+            if (statement.parameterSets.isEmpty()) {
+                continue;
+            }
+            message.append(" with ");
+            for (int set = 0; set < statement.parameterSets.size(); set++) {
+                message.append(set == 0 ? "" : ", ").append('(');
+                Object[] values = statement.parameterSets.get(set);
+                for (int i = 0; i < values.length; i++) {
+                    message.append(i == 0 ? "" : ", ").append(formatValue(values[i]));
+                }
+                message.append(')');
+            }
+            if (statement.parameterSetCount > statement.parameterSets.size()) {
+                message.append(" and ").append(statement.parameterSetCount - statement.parameterSets.size()).append(" more");
+            }
+        }
+        return message.toString();
+    }
+
+    private static String formatValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value instanceof byte[]) {
+            return "byte[" + ((byte[]) value).length + "]";
+        }
+        String text = String.valueOf(value);
+        if (text.length() > MAX_LOGGED_VALUE_LENGTH) {
+            text = text.substring(0, MAX_LOGGED_VALUE_LENGTH) + "...";
+        }
+        return value instanceof CharSequence ? "'" + text + "'" : text;
+    }
+
+    @AllArgsConstructor
+    static class Entry {
+        private final boolean slow;
+        private final long nanos;
+        private final boolean success;
+        private final String repositoryMethod;
+        private final String request;
+        private final List<Statement> statements;
+    }
+
+    @AllArgsConstructor
+    static class Statement {
+        private final String sql;
+        private final List<Object[]> parameterSets;
+        private final int parameterSetCount;
+    }
+}
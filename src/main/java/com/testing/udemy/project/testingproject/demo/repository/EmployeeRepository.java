@@ -1,41 +1,152 @@
 package com.testing.udemy.project.testingproject.demo.repository;
 
 import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.Repository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends Repository<Employee, Long> {
+import static org.hibernate.jpa.QueryHints.HINT_CACHEABLE;
+import static org.hibernate.jpa.QueryHints.HINT_CACHE_REGION;
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_NATIVE_SPACES;
+
+public interface EmployeeRepository extends Repository<Employee, Long>, EmployeeRepositoryCustom {
     Employee save(Employee employee);
 
+    Employee saveAndFlush(Employee employee);
+
     List<Employee> findAllBy(PageRequest pageRequest);
 
-    Optional<Employee> getEmployeeById(long id);
+    // Keyset pagination: seek past the last row of the previous page instead of skipping OFFSET rows
+    @Query("select e from Employee e where e.id > :afterId order by e.id")
+    List<Employee> findPageAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    // Keyset pagination over idx_employees_last_first; id breaks ties between equal names
+    @Query("select e from Employee e where e.lastName > :lastName"
+            + " or (e.lastName = :lastName and e.firstName > :firstName)"
+            + " or (e.lastName = :lastName and e.firstName = :firstName and e.id > :afterId)"
+            + " order by e.lastName, e.firstName, e.id")
+    List<Employee> findPageAfterName(@Param("lastName") String lastName,
+                                     @Param("firstName") String firstName,
+                                     @Param("afterId") long afterId,
+                                     Pageable pageable);
+
+    // Prefix search over idx_employees_last_first; the default _ci collation makes it case-insensitive
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
+    @Query("select e from Employee e where e.lastName like :lastName escape '!' and e.firstName like :firstName escape '!'"
+            + " order by e.lastName, e.firstName, e.id")
+    List<Employee> findByNamePrefix(@Param("lastName") String lastNamePattern,
+                                    @Param("firstName") String firstNamePattern,
+                                    Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
+    @Query("select e from Employee e where e.lastName like :lastName escape '!' and e.firstName like :firstName escape '!'"
+            + " and (e.lastName > :afterLastName"
+            + " or (e.lastName = :afterLastName and e.firstName > :afterFirstName)"
+            + " or (e.lastName = :afterLastName and e.firstName = :afterFirstName and e.id > :afterId))"
+            + " order by e.lastName, e.firstName, e.id")
+    List<Employee> findByNamePrefixAfter(@Param("lastName") String lastNamePattern,
+                                         @Param("firstName") String firstNamePattern,
+                                         @Param("afterLastName") String afterLastName,
+                                         @Param("afterFirstName") String afterFirstName,
+                                         @Param("afterId") long afterId,
+                                         Pageable pageable);
+
+    boolean existsById(Long id);
+
+    // Conditional GETs and HEAD only need the version to answer, so the row is never hydrated or serialized
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
+    @Query("select e.version from Employee e where e.id = :id")
+    Optional<Long> findVersionById(@Param("id") long id);
 
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
+    @Query("select new com.testing.udemy.project.testingproject.demo.model.EmployeeVersion(e.id, e.version)"
+            + " from Employee e")
+    List<EmployeeVersion> findVersionsBy(Pageable pageable);
+
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
     Optional<Employee> findEmployeeByEmail(String email);
 
+    // One round trip to check a whole batch chunk for emails that are already taken; expects normalized emails
+    @Query("select e.emailNormalized from Employee e where e.emailNormalized in :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    // Raw emails rather than email_normalized, so rows written before that column existed are included
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("select e.email from Employee e")
+    Stream<String> streamAllEmails();
+
     void delete(Employee employee);
 
-    void deleteEmployeeById(Long id);
+    // Loads the row and removes it as an entity, so that Hibernate drops only this id from the second-level
+    // cache; a JPQL delete empties the whole entity region. Returns the number of rows removed
+    @Transactional
+    int deleteEmployeeById(Long id);
+
+    // Locks the rows of a delete chunk, so that the ids it returns are exactly the rows the delete then removes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> lockExistingIds(@Param("ids") Collection<Long> ids);
+
+    // Set-based for bulk deletes, at the price of Hibernate dropping the whole entity region
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Transactional
+    @Query("delete from Employee e where e.id in :ids")
+    int deleteAllByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Walks the primary key in id order, so every call resumes where the previous chunk ended
+    @Query("select e.id from Employee e where e.emailNormalized like :pattern escape '!'"
+            + " and e.id > :afterId order by e.id")
+    List<Long> findIdsByEmailLike(@Param("pattern") String pattern, @Param("afterId") long afterId, Pageable pageable);
 
     // Define custom query using JPQL with index parameters
+    /** Names are not unique; {@link #findByNamePrefix} pages through every match. */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
     @Query("select e from Employee e where e.firstName=?1 and e.lastName=?2")
     Optional<Employee> findEmployeeByFirstNameAndLastName(String firstName, String lastName);
 
     // Define custom query using JPQL with named parameters
+    /** Names are not unique; {@link #findByNamePrefix} pages through every match. */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION)})
     @Query("select e from Employee e where e.firstName=:firstName and e.lastName=:lastName")
     Optional<Employee> findEmployeeByNamedParameters(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
     // Define custom query using native SQL with index parameters
+    // Native queries name the table they read, or Hibernate could not tell when a cached result is stale
+    /** Names are not unique; {@link #findByNamePrefix} pages through every match. */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION),
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "employees")})
     @Query(value = "select * from employees e where e.first_name=?1 and e.last_name=?2", nativeQuery = true)
     Optional<Employee> findEmployeeByFirstAndLastNameUsingNativeSQL(String fistName, String lastName);
 
     // Define custom query using native SQL with named parameters
+    /** Names are not unique; {@link #findByNamePrefix} pages through every match. */
+    @QueryHints({@QueryHint(name = HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HINT_CACHE_REGION, value = Employee.QUERY_CACHE_REGION),
+            @QueryHint(name = HINT_NATIVE_SPACES, value = "employees")})
     @Query(value = "select * from employees e where e.first_name=:firstName and e.last_name=:lastName", nativeQuery = true)
     Optional<Employee> findEmployeeUsingNativeSQLNamedParameters(@Param("firstName") String fistName, @Param("lastName") String lastName);
 
@@ -0,0 +1,28 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface EmployeeRepositoryCustom {
+
+    // A primary key lookup through the persistence context, so it is answered from the second-level cache when it can
+    Optional<Employee> getEmployeeById(long id);
+
+    // The employees that exist among the ids, in no particular order; ids the second-level cache
+    // does not hold are read with one IN query
+    List<Employee> getEmployeesByIds(Collection<Long> ids);
+
+    // Forward-only scan of the whole table in id order; must be consumed inside a transaction and closed
+    Stream<Employee> streamAll();
+
+    // Employees matching every token on first name, last name or email: anywhere for tokens of three or
+    // more characters, at the start for shorter ones. A full scan; the search index is the fast path
+    List<Employee> searchByTokens(List<String> tokens, int limit);
+
+    // Inserts all rows in one JDBC batch and assigns the generated ids back to the given objects
+    void insertAll(List<Employee> employees);
+}
@@ -0,0 +1,139 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.jpa.QueryHints;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "insert into employees (first_name, last_name, email, email_normalized, version) values (?, ?, ?, ?, 0)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Rows per round trip while streaming; on MySQL, Integer.MIN_VALUE streams this query alone row by row
+    @Value("${employee.export.fetch-size:1000}")
+    private int exportFetchSize;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EmployeeRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Employee> getEmployeeById(long id) {
+        return Optional.ofNullable(entityManager.find(Employee.class, id));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesByIds(Collection<Long> ids) {
+        List<Employee> employees = entityManager.unwrap(Session.class)
+                .byMultipleIds(Employee.class)
+                // Without a cache mode the second-level cache is not consulted at all
+                .with(CacheMode.NORMAL)
+                .enableOrderedReturn(false)
+                .multiLoad(new ArrayList<>(ids));
+        // Unordered multi-loads still leave a null for every missing id
+        employees.removeIf(Objects::isNull);
+        return employees;
+    }
+
+    @Override
+    public Stream<Employee> streamAll() {
+        // A pass over the whole table would otherwise push the hot entries out of the bounded entity
+        // region. Streamed rows are loaded after the query has returned, under the session's cache mode
+        // rather than the query's, so it is the session's that is switched until the stream is closed
+        Session session = entityManager.unwrap(Session.class);
+        CacheMode cacheMode = session.getCacheMode();
+        session.setCacheMode(CacheMode.IGNORE);
+        return entityManager.createQuery("select e from Employee e order by e.id", Employee.class)
+                .setHint(QueryHints.HINT_FETCH_SIZE, exportFetchSize)
+                .setHint(QueryHints.HINT_READONLY, true)
+                .setHint(QueryHints.HINT_CACHEABLE, false)
+                .getResultStream()
+                // Detach every row as it is read so the persistence context never grows with the table
+                .peek(entityManager::detach)
+                .onClose(() -> session.setCacheMode(cacheMode));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> searchByTokens(List<String> tokens, int limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Employee> query = builder.createQuery(Employee.class);
+        Root<Employee> employee = query.from(Employee.class);
+        List<Predicate> predicates = new ArrayList<>(tokens.size());
+        for (String token : tokens) {
+            String pattern = token.length() < 3 ? LikePatterns.startingWith(token) : LikePatterns.containing(token);
+            predicates.add(builder.or(
+                    builder.like(builder.lower(employee.get("firstName")), pattern, LikePatterns.ESCAPE),
+                    builder.like(builder.lower(employee.get("lastName")), pattern, LikePatterns.ESCAPE),
+                    builder.like(employee.get("emailNormalized"), pattern, LikePatterns.ESCAPE)));
+        }
+        query.where(predicates.toArray(new Predicate[0])).orderBy(builder.asc(employee.get("id")));
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .setHint(QueryHints.HINT_READONLY, true)
+                // Scans touch rows regardless of how hot they are, so they neither read nor fill the entity region
+                .setHint(QueryHints.HINT_CACHE_MODE, CacheMode.IGNORE)
+                .getResultList();
+    }
+
+    @Override
+    public void insertAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return;
+        }
+        // IDENTITY ids stop Hibernate from batching, so the rows go straight to JDBC. With
+        // rewriteBatchedStatements=true Connector/J sends them as multi-row INSERTs.
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS)) {
+                for (Employee employee : employees) {
+                    statement.setString(1, employee.getFirstName());
+                    statement.setString(2, employee.getLastName());
+                    statement.setString(3, employee.getEmail());
+                    statement.setString(4, Employee.normalizeEmail(employee.getEmail()));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    int i = 0;
+                    while (keys.next() && i < employees.size()) {
+                        employees.get(i++).setId(keys.getLong(1));
+                    }
+                    if (i != employees.size()) {
+                        throw new IncorrectResultSizeDataAccessException(
+                                "Generated keys were not returned for every inserted employee", employees.size(), i);
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
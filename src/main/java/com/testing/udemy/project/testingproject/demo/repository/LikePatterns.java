@@ -0,0 +1,37 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+/**
+ * Builds LIKE patterns from user input. Queries using them declare {@code escape '!'}; a backslash
+ * would need escaping itself in MySQL string literals.
+ */
+public final class LikePatterns {
+
+    public static final char ESCAPE = '!';
+
+    private LikePatterns() {
+    }
+
+    public static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    public static String startingWith(String prefix) {
+        return escape(prefix) + '%';
+    }
+
+    public static String containing(String value) {
+        return '%' + escape(value) + '%';
+    }
+
+    public static String endingWith(String suffix) {
+        return '%' + escape(suffix);
+    }
+}
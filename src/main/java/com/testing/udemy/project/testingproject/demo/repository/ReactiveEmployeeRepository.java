@@ -0,0 +1,178 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import io.r2dbc.spi.Row;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link EmployeeRepository} on R2DBC. It runs the same statements
+ * against the same table, so both stacks can serve the data side by side.
+ */
+@Repository
+@ConditionalOnProperty(prefix = "employee.reactive", name = "enabled", havingValue = "true")
+public class ReactiveEmployeeRepository {
+
+    private static final String SELECT = "select id, first_name, last_name, email, version from employees";
+
+    private static final String INSERT = "insert into employees (first_name, last_name, email, email_normalized, version)"
+            + " values (:firstName, :lastName, :email, :emailNormalized, 0)";
+
+    private final DatabaseClient databaseClient;
+
+    public ReactiveEmployeeRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    public Mono<Long> insert(Employee employee) {
+        return databaseClient.sql(INSERT)
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("emailNormalized", Employee.normalizeEmail(employee.getEmail()))
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one();
+    }
+
+    public Mono<Employee> findById(long id) {
+        return databaseClient.sql(SELECT + " where id = :id")
+                .bind("id", id)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .one();
+    }
+
+    public Flux<Employee> findAll(long offset, int limit) {
+        return databaseClient.sql(SELECT + " order by id limit :limit offset :offset")
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    // The whole table in primary key order; rows are pulled from the driver as the subscriber asks for them
+    public Flux<Employee> streamAll() {
+        return databaseClient.sql(SELECT + " order by id")
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<Employee> findPageAfterId(long afterId, int limit) {
+        return databaseClient.sql(SELECT + " where id > :afterId order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<Employee> findPageAfterName(String lastName, String firstName, long afterId, int limit) {
+        return databaseClient.sql(SELECT + " where last_name > :lastName"
+                        + " or (last_name = :lastName and first_name > :firstName)"
+                        + " or (last_name = :lastName and first_name = :firstName and id > :afterId)"
+                        + " order by last_name, first_name, id limit :limit")
+                .bind("lastName", lastName)
+                .bind("firstName", firstName)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<Employee> findAllByName(int limit) {
+        return databaseClient.sql(SELECT + " order by last_name, first_name, id limit :limit")
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    // Same LIKE patterns (escaped with '!') and index as EmployeeRepository#findByNamePrefix
+    public Flux<Employee> findByNamePrefix(String lastNamePattern, String firstNamePattern, int limit) {
+        return databaseClient.sql(SELECT + " where last_name like :lastName escape '!' and first_name like :firstName escape '!'"
+                        + " order by last_name, first_name, id limit :limit")
+                .bind("lastName", lastNamePattern)
+                .bind("firstName", firstNamePattern)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Flux<Employee> findByNamePrefixAfter(String lastNamePattern, String firstNamePattern,
+                                                String afterLastName, String afterFirstName, long afterId, int limit) {
+        return databaseClient.sql(SELECT + " where last_name like :lastName escape '!' and first_name like :firstName escape '!'"
+                        + " and (last_name > :afterLastName"
+                        + " or (last_name = :afterLastName and first_name > :afterFirstName)"
+                        + " or (last_name = :afterLastName and first_name = :afterFirstName and id > :afterId))"
+                        + " order by last_name, first_name, id limit :limit")
+                .bind("lastName", lastNamePattern)
+                .bind("firstName", firstNamePattern)
+                .bind("afterLastName", afterLastName)
+                .bind("afterFirstName", afterFirstName)
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveEmployeeRepository::toEmployee)
+                .all();
+    }
+
+    public Mono<Integer> update(Employee employee) {
+        return databaseClient.sql("update employees set first_name = :firstName, last_name = :lastName,"
+                        + " email = :email, email_normalized = :emailNormalized, version = version + 1 where id = :id")
+                .bind("firstName", employee.getFirstName())
+                .bind("lastName", employee.getLastName())
+                .bind("email", employee.getEmail())
+                .bind("emailNormalized", Employee.normalizeEmail(employee.getEmail()))
+                .bind("id", employee.getId())
+                .fetch()
+                .rowsUpdated();
+    }
+
+    // Absent fields keep their value; with a version the update only applies to that version
+    public Mono<Integer> patch(long id, String firstName, String lastName, String email, Long version) {
+        String sql = "update employees set first_name = coalesce(:firstName, first_name),"
+                + " last_name = coalesce(:lastName, last_name), email = coalesce(:email, email),"
+                + " email_normalized = coalesce(:emailNormalized, email_normalized), version = version + 1"
+                + " where id = :id" + (version == null ? "" : " and version = :version");
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("id", id);
+        spec = bindNullable(spec, "firstName", firstName);
+        spec = bindNullable(spec, "lastName", lastName);
+        spec = bindNullable(spec, "email", email);
+        spec = bindNullable(spec, "emailNormalized", Employee.normalizeEmail(email));
+        if (version != null) {
+            spec = spec.bind("version", version);
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    public Mono<Boolean> existsById(long id) {
+        return databaseClient.sql("select 1 from employees where id = :id")
+                .bind("id", id)
+                .map(row -> Boolean.TRUE)
+                .first()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    public Mono<Integer> deleteById(long id) {
+        return databaseClient.sql("delete from employees where id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec,
+                                                                  String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static Employee toEmployee(Row row) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+}
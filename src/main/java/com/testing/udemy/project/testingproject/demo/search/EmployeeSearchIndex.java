@@ -0,0 +1,158 @@
+package com.testing.udemy.project.testingproject.demo.search;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Type-ahead search served from memory. The index is built from a streaming scan once the
+ * application is ready and follows every write through {@link EmployeeChangedEvent}; until the
+ * first build completes {@link #isReady()} is false and callers have to ask the database.
+ */
+@Slf4j
+@Component
+public class EmployeeSearchIndex {
+
+    // Bounds the work a single query can ask for
+    private static final int MAX_TOKENS = 8;
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private final EmployeeProperties.SearchIndex properties;
+    private final EmployeeRepository employeeRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile NgramIndex active;
+    private volatile NgramIndex building;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private final ExecutorService rebuildExecutor;
+
+    public EmployeeSearchIndex(EmployeeProperties employeeProperties,
+                               EmployeeRepository employeeRepository,
+                               PlatformTransactionManager transactionManager) {
+        this.properties = employeeProperties.getSearchIndex();
+        this.employeeRepository = employeeRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rebuildExecutor = properties.isEnabled()
+                ? Executors.newSingleThreadExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "search-index-rebuild");
+                    thread.setDaemon(true);
+                    return thread;
+                })
+                : null;
+    }
+
+    /**
+     * Splits a query into lower-cased, distinct whitespace-separated tokens.
+     */
+    public static List<String> tokenize(String query) {
+        List<String> tokens = new ArrayList<>();
+        if (query == null) {
+            return tokens;
+        }
+        for (String part : query.trim().split("\\s+")) {
+            if (part.isEmpty() || tokens.size() == MAX_TOKENS) {
+                continue;
+            }
+            StringBuilder token = new StringBuilder(Math.min(part.length(), MAX_TOKEN_LENGTH));
+            for (int i = 0; i < part.length() && i < MAX_TOKEN_LENGTH; i++) {
+                token.append(Character.toLowerCase(part.charAt(i)));
+            }
+            if (!tokens.contains(token.toString())) {
+                tokens.add(token.toString());
+            }
+        }
+        return tokens;
+    }
+
+    public boolean isReady() {
+        return active != null;
+    }
+
+    public List<Employee> search(List<String> tokens, int limit) {
+        NgramIndex index = active;
+        if (index == null || tokens.isEmpty()) {
+            return List.of();
+        }
+        return index.search(tokens, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (rebuildExecutor == null) {
+            return;
+        }
+        // Writes that race with a rebuild land in both indexes, so the swap loses nothing
+        apply(active, event);
+        apply(building, event);
+        NgramIndex index = active;
+        if (index != null && index.retired() > properties.getRebuildStaleRatio() * Math.max(index.size(), 1)) {
+            scheduleRebuild();
+        }
+    }
+
+    private static void apply(NgramIndex index, EmployeeChangedEvent event) {
+        if (index == null) {
+            return;
+        }
+        if (event.getType() == EmployeeChangedEvent.Type.DELETED) {
+            index.remove(event.getEmployeeId());
+        } else {
+            index.put(event.getEmployee());
+        }
+    }
+
+    private void scheduleRebuild() {
+        if (rebuildExecutor != null && rebuilding.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+
+    void rebuild() {
+        try {
+            NgramIndex current = active;
+            NgramIndex next = new NgramIndex(current == null ? 1024 : current.size());
+            building = next;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<Employee> employees = employeeRepository.streamAll()) {
+                    employees.forEach(next::put);
+                }
+            });
+            next.trim();
+            active = next;
+            log.info("Search index rebuilt with {} employees", next.size());
+        } catch (RuntimeException e) {
+            log.warn("Search index rebuild failed, searches keep going to the database", e);
+        } finally {
+            building = null;
+            rebuilding.set(false);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (rebuildExecutor != null) {
+            rebuildExecutor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.testing.udemy.project.testingproject.demo.search;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Case-insensitive index over first name, last name and email. Every field contributes its trigrams
+ * and its one- and two-character prefixes; each gram maps to an ascending posting list of int
+ * document numbers. A query token of three or more characters matches anywhere in a field, a
+ * shorter one only at its start, and an employee matches when every token does.
+ * <p>
+ * Documents are numbered in insertion order and never reused: a write retires the old number and
+ * appends a new one, so posting lists stay sorted and only ever grow at the end. Retired numbers
+ * are skipped at query time until the owner rebuilds the index.
+ */
+public class NgramIndex {
+
+    private static final int DELETED = -1;
+    private static final long PREFIX_1 = 1L << 48;
+    private static final long PREFIX_2 = 2L << 48;
+    private static final long TRIGRAM = 3L << 48;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Employee id to document; DELETED stays behind so an older copy of the row cannot come back
+    private final LongIntHashMap documentsById;
+    private final LongIntHashMap postingsByGram;
+    private int[][] postings = new int[1024][];
+    private int[] postingSizes = new int[1024];
+    private int postingCount;
+    private Employee[] documents;
+    private int documentCount;
+    private int retiredCount;
+
+    public NgramIndex(int expectedEmployees) {
+        documentsById = new LongIntHashMap(expectedEmployees);
+        postingsByGram = new LongIntHashMap(4096);
+        documents = new Employee[Math.max(expectedEmployees, 16)];
+    }
+
+    /**
+     * Adds the employee or replaces an older version of it; a copy at the same or a newer version wins.
+     */
+    public void put(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            int existing = documentsById.get(employee.getId());
+            if (existing == DELETED) {
+                return;
+            }
+            if (existing != LongIntHashMap.MISSING) {
+                if (documents[existing].getVersion() >= employee.getVersion()) {
+                    return;
+                }
+                retire(existing);
+            }
+            int document = documentCount++;
+            if (document == documents.length) {
+                documents = Arrays.copyOf(documents, documents.length + (documents.length >> 1));
+            }
+            documents[document] = copy(employee);
+            documentsById.put(employee.getId(), document);
+            index(employee.getFirstName(), document);
+            index(employee.getLastName(), document);
+            index(employee.getEmail(), document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long employeeId) {
+        lock.writeLock().lock();
+        try {
+            int existing = documentsById.get(employeeId);
+            if (existing >= 0) {
+                retire(existing);
+            }
+            documentsById.put(employeeId, DELETED);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} matches in insertion order, which is id order for an index built by a scan.
+     * Tokens are expected lower-cased and non-empty.
+     */
+    public List<Employee> search(List<String> tokens, int limit) {
+        lock.readLock().lock();
+        try {
+            List<int[]> lists = new ArrayList<>();
+            List<Integer> sizes = new ArrayList<>();
+            for (String token : tokens) {
+                for (long gram : grams(token)) {
+                    int posting = postingsByGram.get(gram);
+                    if (posting == LongIntHashMap.MISSING) {
+                        return List.of();
+                    }
+                    lists.add(postings[posting]);
+                    sizes.add(postingSizes[posting]);
+                }
+            }
+            return intersect(lists, sizes, tokens, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Walks the shortest list and gallops through the others, stopping as soon as the page is full
+    private List<Employee> intersect(List<int[]> lists, List<Integer> sizes, List<String> tokens, int limit) {
+        Integer[] order = new Integer[lists.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Integer.compare(sizes.get(a), sizes.get(b)));
+        int[] shortest = lists.get(order[0]);
+        int shortestSize = sizes.get(order[0]);
+        int[] cursors = new int[order.length];
+        List<Employee> matches = new ArrayList<>(Math.min(limit, 64));
+        candidates:
+        for (int p = 0; p < shortestSize && matches.size() < limit; p++) {
+            int document = shortest[p];
+            for (int i = 1; i < order.length; i++) {
+                int[] list = lists.get(order[i]);
+                int size = sizes.get(order[i]);
+                int cursor = advance(list, size, cursors[i], document);
+                cursors[i] = cursor;
+                if (cursor == size) {
+                    break candidates;
+                }
+                if (list[cursor] != document) {
+                    continue candidates;
+                }
+            }
+            Employee employee = documents[document];
+            // Grams of a token may come from different fields or positions, so confirm the match itself
+            if (employee != null && matchesAll(employee, tokens)) {
+                matches.add(copy(employee));
+            }
+        }
+        return matches;
+    }
+
+    // First position at or after from holding a value >= target
+    private static int advance(int[] list, int size, int from, int target) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < size && list[high] < target) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, size);
+        int position = Arrays.binarySearch(list, low, high, target);
+        return position >= 0 ? position : -position - 1;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentCount - retiredCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Documents that still occupy posting lists after being replaced or removed.
+     */
+    public int retired() {
+        lock.readLock().lock();
+        try {
+            return retiredCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Releases the spare capacity left by growth; meant for a freshly built index.
+     */
+    public void trim() {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < postingCount; i++) {
+                postings[i] = Arrays.copyOf(postings[i], postingSizes[i]);
+            }
+            documents = Arrays.copyOf(documents, Math.max(documentCount, 16));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void retire(int document) {
+        documents[document] = null;
+        retiredCount++;
+    }
+
+    private void index(String field, int document) {
+        if (field == null || field.isEmpty()) {
+            return;
+        }
+        addPosting(PREFIX_1 | (long) lower(field, 0) << 32, document);
+        if (field.length() < 2) {
+            return;
+        }
+        addPosting(PREFIX_2 | (long) lower(field, 0) << 32 | (long) lower(field, 1) << 16, document);
+        for (int i = 0; i + 3 <= field.length(); i++) {
+            addPosting(trigram(field, i), document);
+        }
+    }
+
+    private void addPosting(long gram, int document) {
+        int posting = postingsByGram.get(gram);
+        if (posting == LongIntHashMap.MISSING) {
+            posting = postingCount++;
+            if (posting == postings.length) {
+                postings = Arrays.copyOf(postings, postings.length * 2);
+                postingSizes = Arrays.copyOf(postingSizes, postingSizes.length * 2);
+            }
+            postings[posting] = new int[4];
+            postingsByGram.put(gram, posting);
+        }
+        int size = postingSizes[posting];
+        int[] list = postings[posting];
+        // A field repeating a gram, or two fields sharing one, must not list the document twice
+        if (size > 0 && list[size - 1] == document) {
+            return;
+        }
+        if (size == list.length) {
+            list = Arrays.copyOf(list, size + (size >> 1) + 4);
+            postings[posting] = list;
+        }
+        list[size] = document;
+        postingSizes[posting] = size + 1;
+    }
+
+    private static long[] grams(String token) {
+        if (token.length() == 1) {
+            return new long[]{PREFIX_1 | (long) token.charAt(0) << 32};
+        }
+        if (token.length() == 2) {
+            return new long[]{PREFIX_2 | (long) token.charAt(0) << 32 | (long) token.charAt(1) << 16};
+        }
+        long[] grams = new long[token.length() - 2];
+        for (int i = 0; i < grams.length; i++) {
+            grams[i] = trigram(token, i);
+        }
+        return grams;
+    }
+
+    private static long trigram(String value, int from) {
+        return TRIGRAM | (long) lower(value, from) << 32 | (long) lower(value, from + 1) << 16 | lower(value, from + 2);
+    }
+
+    private static char lower(String value, int index) {
+        return Character.toLowerCase(value.charAt(index));
+    }
+
+    private static boolean matchesAll(Employee employee, List<String> tokens) {
+        for (String token : tokens) {
+            if (!matches(employee.getFirstName(), token)
+                    && !matches(employee.getLastName(), token)
+                    && !matches(employee.getEmail(), token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean matches(String field, String token) {
+        if (field == null || field.length() < token.length()) {
+            return false;
+        }
+        if (token.length() < 3) {
+            return field.regionMatches(true, 0, token, 0, token.length());
+        }
+        for (int i = 0; i + token.length() <= field.length(); i++) {
+            if (field.regionMatches(true, i, token, 0, token.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Callers get their own instances, so nothing they do to a result reaches the index
+    private static Employee copy(Employee employee) {
+        return Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .build();
+    }
+}
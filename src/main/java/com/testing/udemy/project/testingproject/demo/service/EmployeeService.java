@@ -1,22 +1,54 @@
 package com.testing.udemy.project.testingproject.demo.service;
 
+import com.testing.udemy.project.testingproject.demo.batch.BatchResult;
 import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 @Service
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
 
+    BatchResult saveEmployees(Iterator<Employee> employees);
+
     List<Employee> getAllEmployees(PageRequest pageRequest);
 
+    CountedPage<Employee> getEmployeePage(PageRequest pageRequest, TotalCount totalCount);
+
+    CursorPage<Employee> getEmployeesAfter(EmployeeSortKey sortKey, String after, int limit);
+
+    CursorPage<Employee> searchEmployeesByName(String lastNamePrefix, String firstNamePrefix, String after, int limit);
+
+    List<Employee> searchEmployees(String query, int limit);
+
+    long exportEmployees(Consumer<Employee> consumer);
+
     Optional<Employee> getEmployeeById(long id);
 
+    Optional<Long> getEmployeeVersion(long id);
+
+    List<EmployeeVersion> getEmployeeVersions(PageRequest pageRequest);
+
     Employee updateEmployee(Employee employee);
 
+    Optional<Employee> patchEmployee(long id, EmployeePatch patch, Long expectedVersion);
+
     void deleteEmployee(Employee employee);
 
     void deleteEmployeeById(long id);
+
+    long deleteEmployees(Collection<Long> ids);
+
+    long deleteEmployeesByEmailDomain(String emailDomain);
 }
@@ -0,0 +1,28 @@
+package com.testing.udemy.project.testingproject.demo.service;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Flux<Employee> getAllEmployees(int page, int size);
+
+    Flux<Employee> streamEmployees();
+
+    Mono<CursorPage<Employee>> getEmployeesAfter(EmployeeSortKey sortKey, String after, int limit);
+
+    Mono<CursorPage<Employee>> searchEmployeesByName(String lastNamePrefix, String firstNamePrefix, String after, int limit);
+
+    Mono<Employee> getEmployeeById(long id);
+
+    Mono<Employee> updateEmployee(long id, Employee employee);
+
+    Mono<Employee> patchEmployee(long id, EmployeePatch patch, Long expectedVersion);
+
+    Mono<Void> deleteEmployeeById(long id);
+}
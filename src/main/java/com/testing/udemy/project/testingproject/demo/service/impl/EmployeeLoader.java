@@ -0,0 +1,80 @@
+package com.testing.udemy.project.testingproject.demo.service.impl;
+
+import com.testing.udemy.project.testingproject.demo.concurrency.CoalescingLoader;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.datasource.ReadYourWrites;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Point reads of employees that reach the database. With {@code employee.coalescing.enabled}
+ * concurrent reads of one id share a query, and reads of different ids arriving within
+ * {@code batch-window} of each other are merged into one {@code where id in (...)}.
+ * <p>
+ * Loads always read the primary, even with read replicas configured: what they return is shared
+ * through the employee cache, the second-level cache and the batches, so a replica still behind a
+ * write would serve the pre-write row to every caller, pinned or not, right after the write evicted it.
+ */
+@Component
+public class EmployeeLoader implements MeterBinder {
+
+    private final EmployeeRepository employeeRepository;
+    private final CoalescingLoader<Long, Employee> loader;
+
+    public EmployeeLoader(EmployeeProperties employeeProperties, EmployeeRepository employeeRepository) {
+        EmployeeProperties.Coalescing properties = employeeProperties.getCoalescing();
+        this.employeeRepository = employeeRepository;
+        this.loader = properties.isEnabled()
+                ? new CoalescingLoader<>("employee-by-id", this::loadAll,
+                        properties.getBatchWindow().toNanos(), properties.getMaxBatchSize())
+                : null;
+    }
+
+    public Optional<Employee> getEmployeeById(long id) {
+        return loader == null
+                ? ReadYourWrites.onPrimary(() -> employeeRepository.getEmployeeById(id))
+                : Optional.ofNullable(loader.load(id));
+    }
+
+    // Runs on whichever caller opened the batch, for all callers in it
+    private Map<Long, Employee> loadAll(Set<Long> ids) {
+        return ReadYourWrites.onPrimary(() -> loadAllFromPrimary(ids));
+    }
+
+    private Map<Long, Employee> loadAllFromPrimary(Set<Long> ids) {
+        if (ids.size() == 1) {
+            long id = ids.iterator().next();
+            return employeeRepository.getEmployeeById(id)
+                    .map(employee -> Map.of(id, employee))
+                    .orElse(Map.of());
+        }
+        return employeeRepository.getEmployeesByIds(ids).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+    }
+
+    // A read already under way may have seen the row before this write; later readers start their own
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (loader != null) {
+            loader.forget(event.getEmployeeId());
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        if (loader != null) {
+            loader.bindTo(registry);
+        }
+    }
+}
@@ -1,56 +1,477 @@
 package com.testing.udemy.project.testingproject.demo.service.impl;
 
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemResult;
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemStatus;
+import com.testing.udemy.project.testingproject.demo.batch.BatchResult;
+import com.testing.udemy.project.testingproject.demo.cache.EmployeeCacheEvictor;
+import com.testing.udemy.project.testingproject.demo.concurrency.MicroBatcher;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.email.KnownEmailFilter;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeCountChangedEvent;
+import com.testing.udemy.project.testingproject.demo.exception.ConcurrentUpdateException;
+import com.testing.udemy.project.testingproject.demo.exception.PreconditionFailedException;
 import com.testing.udemy.project.testingproject.demo.exception.ResourceNotFoundException;
 import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCounts;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCursor;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
 import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import com.testing.udemy.project.testingproject.demo.repository.LikePatterns;
+import com.testing.udemy.project.testingproject.demo.search.EmployeeSearchIndex;
 import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionOperations;
 
-import java.util.List;
-import java.util.Optional;
+import javax.validation.Validator;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
+    private static final int PATCH_ATTEMPTS = 3;
+
     private final EmployeeRepository employeeRepository;
+    private final EmployeeProperties employeeProperties;
+    private final TransactionOperations transactionOperations;
+    private final Validator validator;
+    private final KnownEmailFilter knownEmailFilter;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EmployeeSearchIndex employeeSearchIndex;
+    private final EmployeeLoader employeeLoader;
+    private final EmployeeCounts employeeCounts;
+    private final MicroBatcher<Employee, BatchItemResult> groupCommit;
 
     @Autowired
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository,
+                               EmployeeProperties employeeProperties,
+                               TransactionOperations transactionOperations,
+                               Validator validator,
+                               KnownEmailFilter knownEmailFilter,
+                               ApplicationEventPublisher eventPublisher,
+                               EmployeeSearchIndex employeeSearchIndex,
+                               EmployeeLoader employeeLoader,
+                               EmployeeCounts employeeCounts) {
         this.employeeRepository = employeeRepository;
+        this.employeeProperties = employeeProperties;
+        this.transactionOperations = transactionOperations;
+        this.validator = validator;
+        this.knownEmailFilter = knownEmailFilter;
+        this.eventPublisher = eventPublisher;
+        this.employeeSearchIndex = employeeSearchIndex;
+        this.employeeLoader = employeeLoader;
+        this.employeeCounts = employeeCounts;
+        EmployeeProperties.GroupCommit groupCommitProperties = employeeProperties.getGroupCommit();
+        this.groupCommit = groupCommitProperties.isEnabled()
+                ? new MicroBatcher<>(this::saveGroup, groupCommitProperties.getLinger().toNanos(),
+                        groupCommitProperties.getMaxBatchSize())
+                : null;
     }
 
     @Override
     public Employee saveEmployee(Employee employee) {
-        Optional<Employee> findEmployeeByEmail = employeeRepository.findEmployeeByEmail(employee.getEmail());
-        if(findEmployeeByEmail.isPresent()){
-            throw new ResourceNotFoundException("The employee is presents with email: " + employee.getEmail());
+        // An employee with an id is merged onto that row, which only the regular path does
+        if (groupCommit != null && employee.getId() == 0) {
+            BatchItemResult item = groupCommit.submit(employee);
+            if (item.getStatus() == BatchItemStatus.CREATED) {
+                // Published here rather than by the group, so listeners such as the read-your-writes
+                // cookie see the thread and the request of the caller that created the employee
+                eventPublisher.publishEvent(EmployeeChangedEvent.created(employee).outsideHibernate());
+                return employee;
+            }
+            if (item.getStatus() == BatchItemStatus.DUPLICATE) {
+                throw new ResourceNotFoundException(item.getMessage());
+            }
+            // Invalid, or in a group whose insert failed: on its own it either succeeds or fails with its own error
+        }
+        return saveSingle(employee);
+    }
+
+    // Concurrent creates share one duplicate check, one multi-row insert and one commit
+    private List<BatchItemResult> saveGroup(List<Employee> employees) {
+        BatchResult result = new BatchResult();
+        saveChunk(employees, 0, result, false);
+        return result.getItems();
+    }
+
+    private Employee saveSingle(Employee employee) {
+        // The unique index rejects duplicates anyway; the lookup only runs when the filter cannot rule them out
+        if (!knownEmailFilter.definitelyAbsent(employee.getEmail())) {
+            Optional<Employee> findEmployeeByEmail = employeeRepository.findEmployeeByEmail(employee.getEmail());
+            if(findEmployeeByEmail.isPresent()){
+                throw new ResourceNotFoundException("The employee is presents with email: " + employee.getEmail());
+            }
         }
-        return employeeRepository.save(employee);
+        boolean isNew = employee.getId() == 0;
+        Employee savedEmployee = saveUnique(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee));
+        publishCountChange(isNew ? 1 : 0);
+        return savedEmployee;
+    }
+
+    private Employee saveUnique(Employee employee) {
+        try {
+            return employeeRepository.save(employee);
+        } catch (OptimisticLockingFailureException e) {
+            throw new ConcurrentUpdateException("The employee was changed concurrently: " + employee.getId(), e);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new ResourceNotFoundException("The employee is presents with email: " + employee.getEmail(), e);
+            }
+            throw e;
+        }
+    }
+
+    private static boolean isEmailConflict(DataAccessException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
     }
 
     @Override
+    public BatchResult saveEmployees(Iterator<Employee> employees) {
+        int chunkSize = Math.max(employeeProperties.getBatch().getChunkSize(), 1);
+        BatchResult result = new BatchResult();
+        List<Employee> chunk = new ArrayList<>(chunkSize);
+        int index = 0;
+        while (employees.hasNext()) {
+            chunk.add(employees.next());
+            if (chunk.size() == chunkSize) {
+                saveChunk(chunk, index, result, true);
+                index += chunk.size();
+                chunk.clear();
+            }
+        }
+        saveChunk(chunk, index, result, true);
+        return result;
+    }
+
+    // One duplicate check, one JDBC batch and one commit per chunk instead of per row. The change
+    // events of created rows are left to the caller when it is not the thread that asked for them
+    private void saveChunk(List<Employee> chunk, int firstIndex, BatchResult result, boolean publishChanges) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        BatchItemResult[] items = new BatchItemResult[chunk.size()];
+        Map<String, Integer> candidates = new LinkedHashMap<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            String invalid = validate(employee);
+            if (invalid != null) {
+                items[i] = BatchItemResult.rejected(firstIndex + i, BatchItemStatus.INVALID, invalid);
+            } else if (candidates.putIfAbsent(Employee.normalizeEmail(employee.getEmail()), i) != null) {
+                items[i] = duplicate(firstIndex + i, employee);
+            }
+        }
+        // A concurrent create can take an email between the check and the insert; the retry then sees it as a duplicate
+        for (int attempt = 0; ; attempt++) {
+            try {
+                insertChunk(chunk, firstIndex, items, candidates);
+                candidates.values().forEach(i -> items[i] = BatchItemResult.created(firstIndex + i, chunk.get(i).getId()));
+                if (publishChanges) {
+                    candidates.values().forEach(i -> eventPublisher.publishEvent(
+                            EmployeeChangedEvent.created(chunk.get(i)).outsideHibernate()));
+                }
+                publishCountChange(candidates.size());
+                break;
+            } catch (DataAccessException e) {
+                if (attempt == 0 && isEmailConflict(e)) {
+                    continue;
+                }
+                candidates.values().forEach(i -> items[i] = BatchItemResult.rejected(firstIndex + i,
+                        BatchItemStatus.FAILED, e.getMostSpecificCause().getMessage()));
+                break;
+            }
+        }
+        for (BatchItemResult item : items) {
+            result.add(item);
+        }
+    }
+
+    private void insertChunk(List<Employee> chunk, int firstIndex, BatchItemResult[] items,
+                             Map<String, Integer> candidates) {
+        transactionOperations.executeWithoutResult(status -> {
+            if (candidates.isEmpty()) {
+                return;
+            }
+            for (String email : employeeRepository.findExistingEmails(candidates.keySet())) {
+                Integer i = candidates.remove(email);
+                if (i != null) {
+                    items[i] = duplicate(firstIndex + i, chunk.get(i));
+                }
+            }
+            List<Employee> inserts = new ArrayList<>(candidates.size());
+            candidates.values().forEach(i -> inserts.add(chunk.get(i)));
+            employeeRepository.insertAll(inserts);
+        });
+    }
+
+    private String validate(Employee employee) {
+        if (isBlank(employee.getFirstName()) || isBlank(employee.getLastName()) || isBlank(employee.getEmail())) {
+            return "The employee requires firstName, lastName and email";
+        }
+        if (!validator.validate(employee).isEmpty()) {
+            return "The employee has invalid email: " + employee.getEmail();
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static BatchItemResult duplicate(int index, Employee employee) {
+        return BatchItemResult.rejected(index, BatchItemStatus.DUPLICATE,
+                "The employee is presents with email: " + employee.getEmail());
+    }
+
+    // Read-only transactions are what sends a read to a replica when employee.routing is enabled
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees(PageRequest pageRequest) {
         return employeeRepository.findAllBy(pageRequest);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Employee> getEmployeesAfter(EmployeeSortKey sortKey, String after, int limit) {
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Employee> employees;
+        if (after == null) {
+            employees = employeeRepository.findAllBy(pageRequest.withSort(sortKey.getSort()));
+        } else {
+            EmployeeCursor cursor = EmployeeCursor.decode(after, sortKey);
+            employees = sortKey == EmployeeSortKey.NAME
+                    ? employeeRepository.findPageAfterName(cursor.getLastName(), cursor.getFirstName(),
+                    cursor.getId(), pageRequest)
+                    : employeeRepository.findPageAfterId(cursor.getId(), pageRequest);
+        }
+        return toPage(employees, sortKey, limit);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<Employee> searchEmployeesByName(String lastNamePrefix, String firstNamePrefix,
+                                                      String after, int limit) {
+        String lastNamePattern = LikePatterns.startingWith(lastNamePrefix);
+        String firstNamePattern = firstNamePrefix == null ? "%" : LikePatterns.startingWith(firstNamePrefix);
+        PageRequest pageRequest = PageRequest.of(0, limit + 1);
+        List<Employee> employees;
+        if (after == null) {
+            employees = employeeRepository.findByNamePrefix(lastNamePattern, firstNamePattern, pageRequest);
+        } else {
+            EmployeeCursor cursor = EmployeeCursor.decode(after, EmployeeSortKey.NAME);
+            employees = employeeRepository.findByNamePrefixAfter(lastNamePattern, firstNamePattern,
+                    cursor.getLastName(), cursor.getFirstName(), cursor.getId(), pageRequest);
+        }
+        return toPage(employees, EmployeeSortKey.NAME, limit);
+    }
+
+    // No transaction here: the index answers from memory, and the fallback scan opens its own
+    @Override
+    public List<Employee> searchEmployees(String query, int limit) {
+        List<String> tokens = EmployeeSearchIndex.tokenize(query);
+        if (tokens.isEmpty()) {
+            return List.of();
+        }
+        if (employeeSearchIndex.isReady()) {
+            return employeeSearchIndex.search(tokens, limit);
+        }
+        return employeeRepository.searchByTokens(tokens, limit);
+    }
+
+    // Expects a page sorted by id. A full page may or may not be the last one; a primary key seek
+    // past its last row tells which without a COUNT
+    @Override
+    @Transactional(readOnly = true)
+    public CountedPage<Employee> getEmployeePage(PageRequest pageRequest, TotalCount totalCount) {
+        List<Employee> employees = employeeRepository.findAllBy(pageRequest);
+        boolean hasNext = employees.size() == pageRequest.getPageSize()
+                && !employeeRepository.findPageAfterId(employees.get(employees.size() - 1).getId(),
+                PageRequest.of(0, 1)).isEmpty();
+        return new CountedPage<>(employees, pageRequest.getPageNumber(), pageRequest.getPageSize(),
+                employeeCounts.get(totalCount), totalCount, hasNext);
+    }
+
+    // Expects limit + 1 rows at most; the extra row only signals that there is a next page
+    private static CursorPage<Employee> toPage(List<Employee> employees, EmployeeSortKey sortKey, int limit) {
+        if (employees.size() <= limit) {
+            return new CursorPage<>(employees, null);
+        }
+        List<Employee> page = employees.subList(0, limit);
+        return new CursorPage<>(page, EmployeeCursor.after(sortKey, page.get(limit - 1)).encode());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportEmployees(Consumer<Employee> consumer) {
+        long count = 0;
+        try (Stream<Employee> employees = employeeRepository.streamAll()) {
+            for (Employee employee : (Iterable<Employee>) employees::iterator) {
+                consumer.accept(employee);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Empty results are cached too; EmployeeCacheEvictor drops the entry on every write of the id.
+    // Concurrent misses of one id wait for a single load; with virtual threads, where that wait would
+    // pin carriers, UnsynchronizedCacheManager leaves the merging to EmployeeLoader. No transaction
+    // here, or callers waiting on another caller's query would each hold a connection meanwhile.
+    @Override
+    @Cacheable(cacheNames = EmployeeCacheEvictor.EMPLOYEES, sync = true)
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.getEmployeeById(id);
+        return employeeLoader.getEmployeeById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Long> getEmployeeVersion(long id) {
+        return employeeRepository.findVersionById(id);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeVersion> getEmployeeVersions(PageRequest pageRequest) {
+        return employeeRepository.findVersionsBy(pageRequest);
     }
 
     @Override
     public Employee updateEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+        Employee updatedEmployee = saveUnique(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(updatedEmployee));
+        return updatedEmployee;
     }
 
+    // An entity update rather than a bulk UPDATE statement: Hibernate then refreshes only this id in the
+    // second-level cache, where any bulk statement would empty the whole entity region. The update and the
+    // read-back share one read-write transaction, so with routing on both run on the primary.
+    @Override
+    public Optional<Employee> patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        Optional<Employee> patchedEmployee;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                patchedEmployee = transactionOperations.execute(status -> patchAndRead(id, patch, expectedVersion));
+                break;
+            } catch (OptimisticLockingFailureException e) {
+                // Changed between the read and the update; without If-Match the patch applies to the newer row
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException("The employee " + id + " is no longer at version " + expectedVersion, e);
+                }
+                if (attempt == PATCH_ATTEMPTS) {
+                    throw new ConcurrentUpdateException("The employee was changed concurrently: " + id, e);
+                }
+            } catch (DataIntegrityViolationException e) {
+                if (isEmailConflict(e)) {
+                    throw new ResourceNotFoundException("The employee is presents with email: " + patch.getEmail(), e);
+                }
+                throw e;
+            }
+        }
+        patchedEmployee.ifPresent(employee -> eventPublisher.publishEvent(EmployeeChangedEvent.updated(employee)));
+        return patchedEmployee;
+    }
+
+    private Optional<Employee> patchAndRead(long id, EmployeePatch patch, Long expectedVersion) {
+        Optional<Employee> found = employeeRepository.getEmployeeById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Employee employee = found.get();
+        if (expectedVersion != null && employee.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("The employee " + id + " is no longer at version " + expectedVersion);
+        }
+        if (patch.getFirstName() != null) {
+            employee.setFirstName(patch.getFirstName());
+        }
+        if (patch.getLastName() != null) {
+            employee.setLastName(patch.getLastName());
+        }
+        if (patch.getEmail() != null) {
+            employee.setEmail(patch.getEmail());
+        }
+        // Flushed here, so that the returned row carries the new version and conflicts surface inside the call
+        return Optional.of(employeeRepository.saveAndFlush(employee));
+    }
+
+    // Entity deletes, which drop only this id from the second-level cache. Events go out only when a row
+    // was actually removed, so listeners never see a delete that did not happen
     @Override
     public void deleteEmployee(Employee employee) {
-        employeeRepository.delete(employee);
+        if (employeeRepository.deleteEmployeeById(employee.getId()) > 0) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.deleted(employee));
+            publishCountChange(-1);
+        }
     }
 
     @Override
     public void deleteEmployeeById(long id) {
-        employeeRepository.deleteEmployeeById(id);
+        if (employeeRepository.deleteEmployeeById(id) > 0) {
+            eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
+            publishCountChange(-1);
+        }
+    }
+
+    // Each chunk is its own DELETE and transaction, so no statement holds row locks for the whole request
+    @Override
+    public long deleteEmployees(Collection<Long> ids) {
+        List<Long> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinctIds.removeIf(Objects::isNull);
+        int chunkSize = Math.max(employeeProperties.getBulkDelete().getChunkSize(), 1);
+        long deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += chunkSize) {
+            deleted += deleteChunk(distinctIds.subList(from, Math.min(from + chunkSize, distinctIds.size())));
+        }
+        return deleted;
+    }
+
+    @Override
+    public long deleteEmployeesByEmailDomain(String emailDomain) {
+        String domain = Employee.normalizeEmail(emailDomain);
+        String pattern = LikePatterns.endingWith(domain.startsWith("@") ? domain : "@" + domain);
+        PageRequest chunk = PageRequest.of(0, Math.max(employeeProperties.getBulkDelete().getChunkSize(), 1));
+        long deleted = 0;
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = employeeRepository.findIdsByEmailLike(pattern, afterId, chunk)).isEmpty()) {
+            deleted += deleteChunk(ids);
+            afterId = ids.get(ids.size() - 1);
+        }
+        return deleted;
+    }
+
+    // The ids are locked in the transaction of the delete, so events go out only for the rows it removed
+    private int deleteChunk(List<Long> ids) {
+        List<Long> deletedIds = transactionOperations.execute(status -> {
+            List<Long> existingIds = employeeRepository.lockExistingIds(ids);
+            if (!existingIds.isEmpty()) {
+                employeeRepository.deleteAllByIdIn(existingIds);
+            }
+            return existingIds;
+        });
+        deletedIds.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+        publishCountChange(-deletedIds.size());
+        return deletedIds.size();
+    }
+
+    private void publishCountChange(long delta) {
+        if (delta != 0) {
+            eventPublisher.publishEvent(new EmployeeCountChangedEvent(delta));
+        }
     }
 }
@@ -0,0 +1,185 @@
+package com.testing.udemy.project.testingproject.demo.service.impl;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeCountChangedEvent;
+import com.testing.udemy.project.testingproject.demo.exception.PreconditionFailedException;
+import com.testing.udemy.project.testingproject.demo.exception.ResourceNotFoundException;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCursor;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.repository.LikePatterns;
+import com.testing.udemy.project.testingproject.demo.repository.ReactiveEmployeeRepository;
+import com.testing.udemy.project.testingproject.demo.service.ReactiveEmployeeService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Same rules as {@link EmployeeServiceImpl}, without ever blocking the calling thread. Writes publish
+ * the same {@link EmployeeChangedEvent}s, so caches and filters stay in step with both stacks. The
+ * listeners were written for the servlet stack and may block on locks or the database, so events are
+ * published from the bounded elastic scheduler rather than the event loop.
+ */
+@Service
+@ConditionalOnProperty(prefix = "employee.reactive", name = "enabled", havingValue = "true")
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+    private final ReactiveEmployeeRepository employeeRepository;
+    private final EmployeeProperties employeeProperties;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository employeeRepository,
+                                       EmployeeProperties employeeProperties,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.employeeRepository = employeeRepository;
+        this.employeeProperties = employeeProperties;
+        this.eventPublisher = eventPublisher;
+    }
+
+    // The unique index is the only duplicate check; there is no extra lookup round trip
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return employeeRepository.insert(employee)
+                .onErrorMap(DataIntegrityViolationException.class, e -> isEmailConflict(e)
+                        ? new ResourceNotFoundException("The employee is presents with email: " + employee.getEmail(), e)
+                        : e)
+                .map(id -> Employee.builder()
+                        .id(id)
+                        .firstName(employee.getFirstName())
+                        .lastName(employee.getLastName())
+                        .email(employee.getEmail())
+                        .build())
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(savedEmployee -> {
+                    eventPublisher.publishEvent(EmployeeChangedEvent.created(savedEmployee).outsideHibernate());
+                    eventPublisher.publishEvent(new EmployeeCountChangedEvent(1));
+                });
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees(int page, int size) {
+        return employeeRepository.findAll((long) page * size, size);
+    }
+
+    // limitRate bounds how far the database read runs ahead of a slow client
+    @Override
+    public Flux<Employee> streamEmployees() {
+        return employeeRepository.streamAll()
+                .limitRate(Math.max(employeeProperties.getReactive().getFetchSize(), 1));
+    }
+
+    @Override
+    public Mono<CursorPage<Employee>> getEmployeesAfter(EmployeeSortKey sortKey, String after, int limit) {
+        Flux<Employee> employees;
+        if (after == null) {
+            employees = sortKey == EmployeeSortKey.NAME
+                    ? employeeRepository.findAllByName(limit + 1)
+                    : employeeRepository.findPageAfterId(0, limit + 1);
+        } else {
+            EmployeeCursor cursor = EmployeeCursor.decode(after, sortKey);
+            employees = sortKey == EmployeeSortKey.NAME
+                    ? employeeRepository.findPageAfterName(cursor.getLastName(), cursor.getFirstName(),
+                    cursor.getId(), limit + 1)
+                    : employeeRepository.findPageAfterId(cursor.getId(), limit + 1);
+        }
+        return employees.collectList().map(list -> toPage(list, sortKey, limit));
+    }
+
+    @Override
+    public Mono<CursorPage<Employee>> searchEmployeesByName(String lastNamePrefix, String firstNamePrefix,
+                                                            String after, int limit) {
+        String lastNamePattern = LikePatterns.startingWith(lastNamePrefix);
+        String firstNamePattern = firstNamePrefix == null ? "%" : LikePatterns.startingWith(firstNamePrefix);
+        Flux<Employee> employees;
+        if (after == null) {
+            employees = employeeRepository.findByNamePrefix(lastNamePattern, firstNamePattern, limit + 1);
+        } else {
+            EmployeeCursor cursor = EmployeeCursor.decode(after, EmployeeSortKey.NAME);
+            employees = employeeRepository.findByNamePrefixAfter(lastNamePattern, firstNamePattern,
+                    cursor.getLastName(), cursor.getFirstName(), cursor.getId(), limit + 1);
+        }
+        return employees.collectList().map(list -> toPage(list, EmployeeSortKey.NAME, limit));
+    }
+
+    private static CursorPage<Employee> toPage(List<Employee> employees, EmployeeSortKey sortKey, int limit) {
+        if (employees.size() <= limit) {
+            return new CursorPage<>(employees, null);
+        }
+        List<Employee> page = employees.subList(0, limit);
+        return new CursorPage<>(page, EmployeeCursor.after(sortKey, page.get(limit - 1)).encode());
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(long id, Employee employee) {
+        Employee changedEmployee = Employee.builder()
+                .id(id)
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .build();
+        return employeeRepository.update(changedEmployee)
+                .onErrorMap(DataIntegrityViolationException.class, e -> isEmailConflict(e)
+                        ? new ResourceNotFoundException("The employee is presents with email: " + employee.getEmail(), e)
+                        : e)
+                .filter(updated -> updated > 0)
+                .flatMap(updated -> employeeRepository.findById(id))
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(updatedEmployee -> eventPublisher.publishEvent(EmployeeChangedEvent.updated(updatedEmployee).outsideHibernate()));
+    }
+
+    @Override
+    public Mono<Employee> patchEmployee(long id, EmployeePatch patch, Long expectedVersion) {
+        return employeeRepository.patch(id, patch.getFirstName(), patch.getLastName(), patch.getEmail(), expectedVersion)
+                .onErrorMap(DataIntegrityViolationException.class, e -> isEmailConflict(e)
+                        ? new ResourceNotFoundException("The employee is presents with email: " + patch.getEmail(), e)
+                        : e)
+                .flatMap(updated -> {
+                    if (updated > 0) {
+                        return employeeRepository.findById(id);
+                    }
+                    // Only the failure path pays for telling a stale version apart from a missing employee
+                    if (expectedVersion == null) {
+                        return Mono.empty();
+                    }
+                    return employeeRepository.existsById(id)
+                            .flatMap(exists -> exists
+                                    ? Mono.error(new PreconditionFailedException(
+                                    "The employee " + id + " is no longer at version " + expectedVersion))
+                                    : Mono.empty());
+                })
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(patchedEmployee -> eventPublisher.publishEvent(EmployeeChangedEvent.updated(patchedEmployee).outsideHibernate()));
+    }
+
+    @Override
+    public Mono<Void> deleteEmployeeById(long id) {
+        return employeeRepository.deleteById(id)
+                .publishOn(Schedulers.boundedElastic())
+                // Only a row that was there to delete is announced, as on the servlet stack
+                .filter(deleted -> deleted > 0)
+                .doOnNext(deleted -> {
+                    eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id).outsideHibernate());
+                    eventPublisher.publishEvent(new EmployeeCountChangedEvent(-deleted));
+                })
+                .then();
+    }
+
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        String message = e.getMostSpecificCause().getMessage();
+        return message != null && message.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT);
+    }
+}
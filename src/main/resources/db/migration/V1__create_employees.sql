@@ -0,0 +1,14 @@
+-- Matches what spring.jpa.hibernate.ddl-auto=update created, so existing schemas are baselined at this version
+create table employees (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    email_normalized varchar(255),
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_employees_last_first on employees (last_name, first_name, id);
+
+alter table employees add constraint uk_employees_email_normalized unique (email_normalized);
@@ -0,0 +1,8 @@
+-- Change feed history; ChangeLog creates the same table on databases that were never migrated
+create table if not exists employee_changes (
+    sequence bigint not null primary key,
+    type varchar(16) not null,
+    employee_id bigint not null,
+    employee text,
+    changed_at bigint not null
+);
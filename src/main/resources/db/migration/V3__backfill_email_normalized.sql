@@ -0,0 +1,3 @@
+-- Rows written before email_normalized existed; EmailNormalizedBackfill does the same where Flyway is off.
+-- Two rows sharing an email fail the unique key and stop the migration until one of them is resolved
+update employees set email_normalized = lower(trim(email)) where email_normalized is null;
@@ -0,0 +1,6 @@
+-- Replication heartbeat written by ReplicaLagMonitor; instances that ran the monitor before this
+-- migration existed created the table themselves
+create table if not exists replica_heartbeat (
+    id int not null primary key,
+    beat_millis bigint not null
+);
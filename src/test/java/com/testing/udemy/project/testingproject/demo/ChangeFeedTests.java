@@ -0,0 +1,162 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.changefeed.ChangeFeed;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The change feed is a long-lived response written from another thread, so these requests go
+ * over a real socket. The ring holds two changes, so anything further back comes from the table.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "database=changefeed",
+        "employee.change-feed.ring-capacity=2",
+        "employee.change-feed.heartbeat-interval=1s"})
+@ActiveProfiles("h2")
+public class ChangeFeedTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ChangeFeed changeFeed;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private Employee employee(String name) {
+        return Employee.builder()
+                .firstName(name)
+                .lastName("Bolik")
+                .email(name.toLowerCase() + "@changefeed.net")
+                .build();
+    }
+
+    private void awaitSequence(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (changeFeed.lastSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(changeFeed.lastSequence()).isGreaterThanOrEqualTo(sequence);
+    }
+
+    // Reads events until count of them arrived; each is a map of its id, event and data fields
+    private List<Map<String, String>> readEvents(HttpRequest request, int count) throws Exception {
+        CompletableFuture<HttpResponse<Stream<String>>> response = httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofLines());
+        HttpResponse<Stream<String>> stream = response.get(5, TimeUnit.SECONDS);
+        assertThat(stream.statusCode()).isEqualTo(200);
+        assertThat(stream.headers().firstValue(HttpHeaders.CONTENT_TYPE)).hasValueSatisfying(
+                contentType -> assertThat(contentType).startsWith(MediaType.TEXT_EVENT_STREAM_VALUE));
+        return CompletableFuture.supplyAsync(() -> {
+            List<Map<String, String>> events = new ArrayList<>();
+            Map<String, String> event = new LinkedHashMap<>();
+            Iterator<String> lines = stream.body().iterator();
+            while (events.size() < count && lines.hasNext()) {
+                String line = lines.next();
+                if (line.isEmpty()) {
+                    if (event.containsKey("event")) {
+                        events.add(event);
+                    }
+                    event = new LinkedHashMap<>();
+                } else if (!line.startsWith(":")) {
+                    event.put(line.substring(0, line.indexOf(':')), line.substring(line.indexOf(':') + 1));
+                }
+            }
+            stream.body().close();
+            return events;
+        }).get(10, TimeUnit.SECONDS);
+    }
+
+    @DisplayName("Junit test for a subscriber receiving a new employee")
+    @Test
+    public void givenSubscriber_whenCreateEmployee_thenCreatedEventArrives() throws Exception {
+        // given - precondition or setup
+        long start = changeFeed.lastSequence();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes?after=" + start))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        // when - action or behavior that we are going to test
+        CompletableFuture<List<Map<String, String>>> events = CompletableFuture.supplyAsync(() -> {
+            try {
+                return readEvents(request, 1);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        employeeService.saveEmployee(employee("Created"));
+
+        // then - verify the output
+        Map<String, String> event = events.get(10, TimeUnit.SECONDS).get(0);
+        assertThat(event.get("id")).isEqualTo(Long.toString(start + 1));
+        assertThat(event.get("event")).isEqualTo("created");
+        assertThat(event.get("data")).contains("\"sequence\":" + (start + 1)).contains("created@changefeed.net");
+    }
+
+    @DisplayName("Junit test for resuming from Last-Event-ID further back than the ring")
+    @Test
+    public void givenLastEventIdOlderThanRing_whenSubscribe_thenMissedChangesComeFromTable() throws Exception {
+        // given - precondition or setup
+        long start = changeFeed.lastSequence();
+        Employee first = employeeService.saveEmployee(employee("First"));
+        employeeService.saveEmployee(employee("Second"));
+        employeeService.saveEmployee(employee("Third"));
+        employeeService.deleteEmployeeById(first.getId());
+        awaitSequence(start + 4);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes"))
+                .header("Last-Event-ID", Long.toString(start))
+                .build();
+
+        // when - action or behavior that we are going to test
+        List<Map<String, String>> events = readEvents(request, 4);
+
+        // then - verify the output
+        assertThat(events).extracting(event -> event.get("id")).containsExactly(
+                Long.toString(start + 1), Long.toString(start + 2), Long.toString(start + 3), Long.toString(start + 4));
+        assertThat(events).extracting(event -> event.get("event")).containsExactly("created", "created", "created", "deleted");
+        assertThat(events.get(0).get("data")).contains("first@changefeed.net");
+    }
+
+    @DisplayName("Junit test for a reset when the position cannot be resumed")
+    @Test
+    public void givenUnknownLastEventId_whenSubscribe_thenResetEventArrives() throws Exception {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("Reset"));
+        awaitSequence(1);
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/changes"))
+                .header("Last-Event-ID", "1000000")
+                .build();
+
+        // when - action or behavior that we are going to test
+        List<Map<String, String>> events = readEvents(request, 1);
+
+        // then - verify the output
+        assertThat(events.get(0).get("event")).isEqualTo("reset");
+        assertThat(Long.parseLong(events.get(0).get("id"))).isLessThanOrEqualTo(changeFeed.lastSequence());
+    }
+}
@@ -0,0 +1,83 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.email.EmailNormalizedBackfill;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Rows inserted over JDBC without email_normalized stand in for rows written before the column existed;
+// a chunk size of two makes the backfill take more than one statement
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "database=email_backfill",
+        "employee.batch.chunk-size=2"})
+@ActiveProfiles("h2")
+public class EmailNormalizedBackfillTests {
+
+    @Autowired
+    private EmailNormalizedBackfill emailNormalizedBackfill;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+    }
+
+    private void insertLegacyEmployee(String email) {
+        jdbcTemplate.update("insert into employees (first_name, last_name, email, version) values ('Lolik', 'Bolik', ?, 0)", email);
+    }
+
+    @DisplayName("Junit test for the backfill of emails written before email_normalized existed")
+    @Test
+    public void givenLegacyRows_whenBackfill_thenEmailsAreNormalizedAndFoundByNormalizedLookups() {
+        // given - precondition or setup
+        insertLegacyEmployee(" Lolik@Legacy.net");
+        insertLegacyEmployee("bolik@legacy.net");
+        insertLegacyEmployee("TOLA@legacy.net ");
+
+        // when - action or behavior that we are going to test
+        long filled = emailNormalizedBackfill.backfill();
+
+        // then - verify the output
+        assertThat(filled).isEqualTo(3);
+        assertThat(jdbcTemplate.queryForList("select email_normalized from employees order by id", String.class))
+                .containsExactly("lolik@legacy.net", "bolik@legacy.net", "tola@legacy.net");
+        assertThat(employeeRepository.findExistingEmails(List.of("lolik@legacy.net", "tola@legacy.net")))
+                .containsExactlyInAnyOrder("lolik@legacy.net", "tola@legacy.net");
+    }
+
+    @DisplayName("Junit test for the backfill skipping only the legacy rows that share an email")
+    @Test
+    public void givenLegacyRowsSharingEmail_whenBackfill_thenOnlyTheDuplicateIsLeftAndLaterChunksAreFilled() {
+        // given - precondition or setup
+        insertLegacyEmployee("Lolik@legacy.net");
+        insertLegacyEmployee("lolik@legacy.net");
+        insertLegacyEmployee("bolik@legacy.net");
+        insertLegacyEmployee("tola@legacy.net");
+        insertLegacyEmployee("Kasia@legacy.net");
+
+        // when - action or behavior that we are going to test
+        long filled = emailNormalizedBackfill.backfill();
+
+        // then - verify the output
+        assertThat(filled).isEqualTo(4);
+        assertThat(jdbcTemplate.queryForList("select email from employees where email_normalized is null", String.class))
+                .containsExactly("lolik@legacy.net");
+        assertThat(jdbcTemplate.queryForList("select email_normalized from employees where email_normalized is not null"
+                + " order by id", String.class))
+                .containsExactly("lolik@legacy.net", "bolik@legacy.net", "tola@legacy.net", "kasia@legacy.net");
+    }
+}
@@ -0,0 +1,128 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCounts;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The background schedules stay off and the tests resync and refresh by hand, so the totals only
+// move with the writes and calls of each test
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "database=employee_counts",
+        "employee.counts.enabled=false"})
+@ActiveProfiles("h2")
+public class EmployeeCountsTests {
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeCounts employeeCounts;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        employeeCounts.resync();
+    }
+
+    private static Employee employee(String name) {
+        return Employee.builder()
+                .firstName(name)
+                .lastName("Bolik")
+                .email(name.toLowerCase() + "@counts.net")
+                .build();
+    }
+
+    private long countRows() {
+        return jdbcTemplate.queryForObject("select count(*) from employees", Long.class);
+    }
+
+    @DisplayName("Junit test for the exact total following creates and deletes through the service")
+    @Test
+    public void givenWritesThroughService_whenGetExactTotal_thenMatchesTableWithoutResync() {
+        // given - precondition or setup
+        Employee lolik = employeeService.saveEmployee(employee("Lolik"));
+        employeeService.saveEmployee(employee("Bolik"));
+        employeeService.saveEmployees(List.of(employee("Tola"), employee("Lolik"), employee("Reksio")).iterator());
+
+        // when - action or behavior that we are going to test
+        employeeService.deleteEmployeeById(lolik.getId());
+        employeeService.deleteEmployeeById(lolik.getId());
+        employeeService.deleteEmployees(List.of(lolik.getId(), Long.MAX_VALUE));
+
+        // then - verify the output
+        assertThat(countRows()).isEqualTo(3);
+        assertThat(employeeCounts.get(TotalCount.EXACT)).isEqualTo(3L);
+    }
+
+    @DisplayName("Junit test for the resync picking up writes made outside the service")
+    @Test
+    public void givenRowsWrittenOutsideService_whenResync_thenExactTotalMatchesTable() {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("Lolik"));
+        jdbcTemplate.update("insert into employees (first_name, last_name, email, email_normalized, version)"
+                + " values ('Bolik', 'Bolik', 'bolik@counts.net', 'bolik@counts.net', 0)");
+        long beforeResync = employeeCounts.get(TotalCount.EXACT);
+
+        // when - action or behavior that we are going to test
+        employeeCounts.resync();
+
+        // then - verify the output
+        assertThat(beforeResync).isEqualTo(1L);
+        assertThat(employeeCounts.get(TotalCount.EXACT)).isEqualTo(2L);
+    }
+
+    @DisplayName("Junit test for the approximate total being cached between refreshes")
+    @Test
+    public void givenRefreshedEstimate_whenEmployeeCreated_thenApproximateTotalMovesOnlyOnRefresh() {
+        // given - precondition or setup
+        employeeService.saveEmployee(employee("Lolik"));
+        employeeCounts.refreshEstimate();
+
+        // when - action or behavior that we are going to test
+        employeeService.saveEmployee(employee("Bolik"));
+        Long cached = employeeCounts.get(TotalCount.APPROXIMATE);
+        employeeCounts.refreshEstimate();
+
+        // then - verify the output
+        assertThat(cached).isEqualTo(1L);
+        assertThat(employeeCounts.get(TotalCount.APPROXIMATE)).isEqualTo(2L);
+    }
+
+    @DisplayName("Junit test for hasNext on the pages of a counted listing")
+    @Test
+    public void givenThreeEmployees_whenGetEmployeePages_thenOnlyLastPageHasNoNext() {
+        // given - precondition or setup
+        employeeService.saveEmployees(List.of(employee("Lolik"), employee("Bolik"), employee("Tola")).iterator());
+
+        // when - action or behavior that we are going to test
+        CountedPage<Employee> first = employeeService.getEmployeePage(
+                PageRequest.of(0, 2, EmployeeSortKey.ID.getSort()), TotalCount.EXACT);
+        CountedPage<Employee> last = employeeService.getEmployeePage(
+                PageRequest.of(1, 2, EmployeeSortKey.ID.getSort()), TotalCount.EXACT);
+
+        // then - verify the output
+        assertThat(first.getItems()).hasSize(2);
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getTotal()).isEqualTo(3L);
+        assertThat(last.getItems()).hasSize(1);
+        assertThat(last.isHasNext()).isFalse();
+    }
+}
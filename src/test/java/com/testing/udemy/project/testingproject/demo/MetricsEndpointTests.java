@@ -0,0 +1,49 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "database=metrics")
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+@ActiveProfiles("h2")
+public class MetricsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @DisplayName("Junit test for repository, connection pool, second-level cache and concurrency limit metrics on the prometheus endpoint")
+    @Test
+    public void givenRepositoryCall_whenScrapePrometheus_thenRepositoryTimerPoolCacheAndLimitMetricsArePublished() throws Exception {
+        // given - precondition or setup
+        mockMvc.perform(get("/api/employees/{id}", 42L));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/actuator/prometheus"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(content().string(containsString("spring_data_repository_invocations_seconds_bucket{")))
+                .andExpect(content().string(containsString("method=\"getEmployeeById\"")))
+                .andExpect(content().string(containsString("state=\"SUCCESS\"")))
+                .andExpect(content().string(containsString("hikaricp_connections_acquire_seconds_bucket{")))
+                .andExpect(content().string(containsString("hikaricp_connections_timeout_total{")))
+                .andExpect(content().string(containsString("hibernate_second_level_cache_requests_total{")))
+                .andExpect(content().string(containsString("region=\"" + Employee.CACHE_REGION + "\"")))
+                .andExpect(content().string(containsString("employee_concurrency_limit{")))
+                .andExpect(content().string(containsString("employee_concurrency_rejected_total{")));
+    }
+}
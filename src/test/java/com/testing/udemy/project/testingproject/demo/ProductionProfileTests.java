@@ -0,0 +1,133 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.callback.Callback;
+import org.flywaydb.core.api.callback.Context;
+import org.flywaydb.core.api.callback.Event;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// The prod profile against H2 in MySQL mode: the schema has to come from the migrations alone
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "database=prod_profile")
+@ActiveProfiles({"prod", "h2"})
+public class ProductionProfileTests {
+
+    private static final String LEGACY_EMAIL = " Legacy.Lolik@Deneg.net";
+
+    // Inserts a row the way it was written before email_normalized existed, between V2 and the V3 backfill
+    @TestConfiguration
+    static class LegacyRowConfiguration {
+        @Bean
+        public FlywayConfigurationCustomizer legacyRowCallback() {
+            return configuration -> configuration.callbacks(new Callback() {
+                @Override
+                public boolean supports(Event event, Context context) {
+                    return event == Event.AFTER_EACH_MIGRATE
+                            && MigrationVersion.fromVersion("2").equals(context.getMigrationInfo().getVersion());
+                }
+
+                @Override
+                public boolean canHandleInTransaction(Event event, Context context) {
+                    return true;
+                }
+
+                @Override
+                public void handle(Event event, Context context) {
+                    try (PreparedStatement statement = context.getConnection().prepareStatement(
+                            "insert into employees (first_name, last_name, email, version) values ('Lolik', 'Bolik', ?, 0)")) {
+                        statement.setString(1, LEGACY_EMAIL);
+                        statement.executeUpdate();
+                    } catch (SQLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                }
+
+                @Override
+                public String getCallbackName() {
+                    return "legacyRow";
+                }
+            });
+        }
+    }
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @DisplayName("Junit test for the schema the prod profile migrates to")
+    @Test
+    public void givenProdProfile_whenStarted_thenSchemaComesFromMigrations() {
+
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Sebastian")
+                .lastName("Paseka")
+                .email("Paseka@deneg.net")
+                .build();
+
+        // when - action or behavior that we are going to test
+        List<String> versions = jdbcTemplate.queryForList("select version from flyway_schema_history"
+                + " where success and version is not null order by installed_rank", String.class);
+        Employee savedEmployee = employeeRepository.save(employee);
+
+        // then - verify the output
+        assertThat(versions).containsExactly("1", "2", "3", "4");
+        assertThat(savedEmployee.getId()).isPositive();
+        assertThat(employeeRepository.getEmployeeById(savedEmployee.getId())).get()
+                .extracting(Employee::getEmailNormalized).isEqualTo("paseka@deneg.net");
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employee_changes", Long.class)).isNotNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from replica_heartbeat", Long.class)).isZero();
+    }
+
+    @DisplayName("Junit test for the migration backfilling emails of legacy rows")
+    @Test
+    public void givenLegacyRowBeforeV3_whenMigrated_thenEmailIsNormalized() {
+
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+        String emailNormalized = jdbcTemplate.queryForObject("select email_normalized from employees where email = ?",
+                String.class, LEGACY_EMAIL);
+
+        // then - verify the output
+        assertThat(emailNormalized).isEqualTo("legacy.lolik@deneg.net");
+        assertThat(employeeRepository.findExistingEmails(List.of("legacy.lolik@deneg.net")))
+                .containsExactly("legacy.lolik@deneg.net");
+    }
+
+    @DisplayName("Junit test for the beans the prod profile initializes lazily")
+    @Test
+    public void givenProdProfile_whenStarted_thenOnlyPersistenceIsEager() {
+
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+        boolean controllerLazy = context.getBeanFactory().getBeanDefinition("employeeController").isLazyInit();
+        boolean entityManagerFactoryLazy = context.getBeanFactory().getBeanDefinition("entityManagerFactory").isLazyInit();
+        boolean repositoryLazy = context.getBeanFactory().getBeanDefinition("employeeRepository").isLazyInit();
+
+        // then - verify the output
+        assertThat(controllerLazy).isTrue();
+        assertThat(entityManagerFactoryLazy).isFalse();
+        assertThat(repositoryLazy).isFalse();
+    }
+}
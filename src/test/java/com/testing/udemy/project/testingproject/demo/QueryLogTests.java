@@ -0,0 +1,98 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.querylog.QueryStatsFilter;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// A zero threshold logs every statement, so the log lines of a single request can be checked; with
+// the caches off every read reaches the database
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "database=query_log",
+        "employee.query-log.threshold=0ms",
+        "spring.cache.type=none",
+        "employee.second-level-cache.enabled=false"})
+@ActiveProfiles("h2")
+@ExtendWith(OutputCaptureExtension.class)
+public class QueryLogTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    private long employeeId;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        employeeRepository.insertAll(List.of(Employee.builder()
+                .firstName("Sebastian")
+                .lastName("Paseka")
+                .email("paseka@querylog.net")
+                .build()));
+        employeeId = employeeRepository.findPageAfterId(0, PageRequest.of(0, 1)).get(0).getId();
+    }
+
+    @DisplayName("Junit test for the statement count and time headers")
+    @Test
+    public void givenQueryLog_whenGetEmployees_thenResponseCarriesDbHeaders() throws Exception {
+        // given - precondition or setup
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=5")).build();
+
+        // when - action or behavior that we are going to test
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(QueryStatsFilter.QUERIES_HEADER))
+                .hasValueSatisfying(queries -> assertThat(Integer.parseInt(queries)).isPositive());
+        assertThat(response.headers().firstValue(QueryStatsFilter.TIME_HEADER))
+                .hasValueSatisfying(time -> assertThat(Double.parseDouble(time)).isPositive());
+    }
+
+    @DisplayName("Junit test for the slow-query log entry of a repository call")
+    @Test
+    public void givenZeroThreshold_whenGetEmployeeById_thenStatementIsLoggedWithMethodAndParameters(CapturedOutput output)
+            throws Exception {
+        // given - precondition or setup
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/" + employeeId)).build();
+        String expected = "in EmployeeRepository.getEmployeeById for GET /api/employees/" + employeeId;
+
+        // when - action or behavior that we are going to test
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!output.getOut().contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(output.getOut()).containsPattern("Slow query [0-9.]+ ms " + expected + ": select .* with \\(" + employeeId + "\\)");
+    }
+}
@@ -0,0 +1,196 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.testing.udemy.project.testingproject.demo.config.ReactiveEmployeeServer;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"database=reactive", "employee.reactive.enabled=true", "employee.reactive.port=0"})
+@ActiveProfiles("h2")
+public class ReactiveEmployeeApiTests {
+
+    @Autowired
+    private ReactiveEmployeeServer reactiveEmployeeServer;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    public void setup() {
+        webTestClient = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + reactiveEmployeeServer.getPort() + "/reactive/api/employees")
+                .build();
+    }
+
+    @DisplayName("Junit test for create and get Employee on the reactive stack")
+    @Test
+    public void givenEmployeeObject_whenCreateAndGetById_thenReturnSavedEmployee() {
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Lolik")
+                .lastName("Bolik")
+                .email("lolikbolik@reactive.net")
+                .build();
+
+        // when - action or behavior that we are going to test
+        Employee created = webTestClient.post()
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+
+        // then - verify the output
+        assertThat(created.getId()).isPositive();
+        webTestClient.get().uri("/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.email").isEqualTo("lolikbolik@reactive.net")
+                .jsonPath("$.version").isEqualTo(0);
+        webTestClient.post()
+                .bodyValue(Employee.builder().firstName("Adam").lastName("Madam").email("LolikBolik@reactive.net").build())
+                .exchange()
+                .expectStatus().is5xxServerError();
+    }
+
+    @DisplayName("Junit test for get Employee by missing id on the reactive stack")
+    @Test
+    public void givenMissingId_whenGetById_thenReturnNotFound() {
+        // given - precondition or setup
+        long missingId = Long.MAX_VALUE;
+
+        // when - action or behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/{id}", missingId).exchange();
+
+        // then - verify the output
+        response.expectStatus().isNotFound();
+    }
+
+    @DisplayName("Junit test for patch Employee with a stale If-Match on the reactive stack")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenReturnPreconditionFailed() {
+        // given - precondition or setup
+        Employee created = webTestClient.post()
+                .bodyValue(Employee.builder().firstName("Sebastian").lastName("Paseka").email("paseka@reactive.net").build())
+                .exchange()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+        webTestClient.patch().uri("/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(EmployeePatch.builder().firstName("Seba").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1\"")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Seba")
+                .jsonPath("$.lastName").isEqualTo("Paseka");
+
+        // when - action or behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.patch().uri("/{id}", created.getId())
+                .header(HttpHeaders.IF_MATCH, "\"0\"")
+                .bodyValue(EmployeePatch.builder().firstName("Sebastian").build())
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @DisplayName("Junit test for patch Employee with an empty body on the reactive stack")
+    @Test
+    public void givenEmptyPatch_whenPatchEmployee_thenReturnBadRequestAndKeepVersion() {
+        // given - precondition or setup
+        Employee created = webTestClient.post()
+                .bodyValue(Employee.builder().firstName("Tola").lastName("Bolik").email("tola@reactive.net").build())
+                .exchange()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+
+        // when - action or behavior that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.patch().uri("/{id}", created.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{}")
+                .exchange();
+
+        // then - verify the output
+        response.expectStatus().isBadRequest();
+        webTestClient.get().uri("/{id}", created.getId())
+                .exchange()
+                .expectBody()
+                .jsonPath("$.version").isEqualTo(0);
+    }
+
+    @DisplayName("Junit test for streaming all employees as NDJSON on the reactive stack")
+    @Test
+    public void givenEmployees_whenStreamAsNdjson_thenEmitsEveryEmployeeInIdOrder() {
+        // given - precondition or setup
+        for (int i = 0; i < 5; i++) {
+            webTestClient.post()
+                    .bodyValue(Employee.builder().firstName("Anna").lastName("Stream" + i).email("stream" + i + "@reactive.net").build())
+                    .exchange()
+                    .expectStatus().isCreated();
+        }
+
+        // when - action or behavior that we are going to test
+        Flux<Employee> employees = webTestClient.get()
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Employee.class)
+                .getResponseBody()
+                .filter(employee -> employee.getLastName().startsWith("Stream"));
+
+        // then - verify the output
+        StepVerifier.create(employees.map(Employee::getLastName), 2)
+                .expectNext("Stream0", "Stream1")
+                .thenRequest(10)
+                .expectNext("Stream2", "Stream3", "Stream4")
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for search and delete Employee on the reactive stack")
+    @Test
+    public void givenEmployee_whenSearchThenDelete_thenNoLongerFound() {
+        // given - precondition or setup
+        Employee created = webTestClient.post()
+                .bodyValue(Employee.builder().firstName("Maria").lastName("Zielinski").email("zielinski@reactive.net").build())
+                .exchange()
+                .expectBody(Employee.class)
+                .returnResult().getResponseBody();
+        webTestClient.get().uri(uri -> uri.path("/search").queryParam("lastName", "zieli").build())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items[0].id").isEqualTo(created.getId())
+                .jsonPath("$.nextCursor").doesNotExist();
+
+        // when - action or behavior that we are going to test
+        webTestClient.delete().uri("/{id}", created.getId())
+                .exchange()
+                .expectStatus().isOk();
+
+        // then - verify the output
+        webTestClient.get().uri("/{id}", created.getId())
+                .exchange()
+                .expectStatus().isNotFound();
+        List<Employee> page = webTestClient.get().uri(uri -> uri.queryParam("page", 0).queryParam("size", 100).build())
+                .exchange()
+                .expectBodyList(Employee.class)
+                .returnResult().getResponseBody();
+        assertThat(page).noneMatch(employee -> employee.getId() == created.getId());
+    }
+}
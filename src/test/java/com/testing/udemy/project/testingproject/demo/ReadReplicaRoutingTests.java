@@ -0,0 +1,215 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.datasource.ReadYourWrites;
+import com.testing.udemy.project.testingproject.demo.datasource.ReadYourWritesFilter;
+import com.testing.udemy.project.testingproject.demo.datasource.ReplicaLagMonitor;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.servlet.http.Cookie;
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Primary and replica are two unrelated in-memory databases, so a row written to only one of
+ * them shows which database a read went to.
+ */
+@SpringBootTest(properties = {
+        "database=routing",
+        "spring.cache.type=none",
+        "employee.second-level-cache.enabled=false",
+        "employee.routing.enabled=true",
+        "employee.routing.replicas[0].url=" + ReadReplicaRoutingTests.REPLICA_URL,
+        "employee.routing.replicas[0].username=sa",
+        "employee.routing.check-interval=1h",
+        "employee.routing.max-lag=30s"})
+@AutoConfigureMockMvc
+@ActiveProfiles("h2")
+public class ReadReplicaRoutingTests {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;IGNORECASE=TRUE;DB_CLOSE_DELAY=-1";
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10, Sort.by("id"));
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup() {
+        ReadYourWrites.clear();
+        // The monitor created the heartbeat table on start, so the copied schema includes it
+        primary = new JdbcTemplate(dataSource);
+        replica = new JdbcTemplate(new DriverManagerDataSource(REPLICA_URL, "sa", ""));
+        primary.update("delete from employees");
+        replica.execute("drop all objects");
+        primary.queryForList("script nodata", String.class).forEach(replica::execute);
+        beatOnReplica(System.currentTimeMillis());
+        replicaLagMonitor.check();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        ReadYourWrites.clear();
+    }
+
+    @DisplayName("Junit test for get all Employees read from the replica")
+    @Test
+    public void givenEmployeeOnReplicaOnly_whenGetAllEmployees_thenReadFromReplica() {
+        // given - precondition or setup
+        insertOnReplica(1000L, "replica@routing.net");
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeService.getAllEmployees(PAGE);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getEmail).containsExactly("replica@routing.net");
+    }
+
+    @DisplayName("Junit test for get Employee by id read from the primary")
+    @Test
+    public void givenEmployeeOnReplicaOnly_whenGetEmployeeById_thenReadFromPrimary() {
+        // given - precondition or setup
+        insertOnReplica(1000L, "replica@routing.net");
+
+        // when - action or behavior that we are going to test
+        Optional<Employee> employee = employeeService.getEmployeeById(1000L);
+
+        // then - verify the output
+        assertThat(employee).isEmpty();
+    }
+
+    @DisplayName("Junit test for read your writes after save Employee")
+    @Test
+    public void givenSavedEmployee_whenGetAllEmployeesOnSameThread_thenReadFromPrimaryUntilUnpinned() {
+        // given - precondition or setup
+        employeeService.saveEmployee(Employee.builder()
+                .firstName("Lolik")
+                .lastName("Bolik")
+                .email("lolikbolik@routing.net")
+                .build());
+
+        // when - action or behavior that we are going to test
+        List<Employee> pinned = employeeService.getAllEmployees(PAGE);
+        ReadYourWrites.clear();
+        List<Employee> unpinned = employeeService.getAllEmployees(PAGE);
+
+        // then - verify the output
+        assertThat(pinned).hasSize(1);
+        assertThat(unpinned).isEmpty();
+        assertThat(replica.queryForObject("select count(*) from employees", Long.class)).isZero();
+    }
+
+    @DisplayName("Junit test for patch Employee read back from the primary")
+    @Test
+    public void givenReplicaBehindPrimary_whenPatchEmployee_thenReturnPatchedRow() {
+        // given - precondition or setup
+        primary.update("insert into employees (id, first_name, last_name, email, email_normalized, version)"
+                + " values (1000, 'Replica', 'Only', 'replica@routing.net', 'replica@routing.net', 0)");
+        insertOnReplica(1000L, "replica@routing.net");
+
+        // when - action or behavior that we are going to test
+        Optional<Employee> patched = employeeService.patchEmployee(1000L,
+                EmployeePatch.builder().firstName("Patched").build(), 0L);
+
+        // then - verify the output
+        assertThat(patched).hasValueSatisfying(employee -> {
+            assertThat(employee.getFirstName()).isEqualTo("Patched");
+            assertThat(employee.getVersion()).isEqualTo(1L);
+        });
+    }
+
+    @DisplayName("Junit test for lagging replica taken out of rotation")
+    @Test
+    public void givenLaggingReplica_whenCheck_thenReadsGoToPrimaryUntilItCatchesUp() {
+        // given - precondition or setup
+        insertOnReplica(1000L, "replica@routing.net");
+        beatOnReplica(System.currentTimeMillis() - 60_000);
+
+        // when - action or behavior that we are going to test
+        replicaLagMonitor.check();
+        List<Employee> whileLagging = employeeService.getAllEmployees(PAGE);
+        beatOnReplica(System.currentTimeMillis());
+        replicaLagMonitor.check();
+        List<Employee> caughtUp = employeeService.getAllEmployees(PAGE);
+
+        // then - verify the output
+        assertThat(whileLagging).isEmpty();
+        assertThat(caughtUp).hasSize(1);
+    }
+
+    @DisplayName("Junit test for read your writes across requests with the primary cookie")
+    @Test
+    public void givenCreateEmployeeRequest_whenGetWithAndWithoutCookie_thenOnlyCookieReadsThePrimary() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Adam")
+                .lastName("Madam")
+                .email("adammadam@routing.net")
+                .build();
+        MvcResult created = mockMvc.perform(post("/api/employees")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(employee)))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Cookie cookie = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+
+        // when - action or behavior that we are going to test
+        String withCookie = mockMvc.perform(get("/api/employees").cookie(cookie))
+                .andReturn().getResponse().getContentAsString();
+        String withoutCookie = mockMvc.perform(get("/api/employees"))
+                .andReturn().getResponse().getContentAsString();
+
+        // then - verify the output
+        assertThat(cookie).isNotNull();
+        assertThat(withCookie).contains("adammadam@routing.net");
+        assertThat(withoutCookie).isEqualTo("[]");
+    }
+
+    private void insertOnReplica(long id, String email) {
+        replica.update("insert into employees (id, first_name, last_name, email, email_normalized, version)"
+                + " values (?, 'Replica', 'Only', ?, ?, 0)", id, email, email);
+    }
+
+    private void beatOnReplica(long beatMillis) {
+        replica.update("delete from replica_heartbeat");
+        replica.update("insert into replica_heartbeat (id, beat_millis) values (1, ?)", beatMillis);
+    }
+}
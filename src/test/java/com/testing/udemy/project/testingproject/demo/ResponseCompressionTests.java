@@ -0,0 +1,139 @@
+package com.testing.udemy.project.testingproject.demo;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compression happens in Tomcat, below MockMvc, so these requests go over a real socket.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "database=compression")
+@ActiveProfiles("h2")
+public class ResponseCompressionTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate.update("delete from employees");
+        employeeRepository.insertAll(IntStream.range(0, 50)
+                .mapToObj(i -> Employee.builder()
+                        .firstName("Lolik" + i)
+                        .lastName("Bolik" + i)
+                        .email("lolikbolik" + i + "@compression.net")
+                        .build())
+                .collect(Collectors.toList()));
+    }
+
+    @DisplayName("Junit test for gzip of a large page carrying an ETag")
+    @Test
+    public void givenAcceptGzip_whenGetLargePage_thenResponseIsCompressed() throws Exception {
+        // given - precondition or setup
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=50"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        // when - action or behavior that we are going to test
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+        assertThat(response.headers().firstValue(HttpHeaders.ETAG)).hasValueSatisfying(eTag -> assertThat(eTag)
+                .startsWith("\"").endsWith("-json-gzip\""));
+        List<?> employees = objectMapper.readValue(new GZIPInputStream(new ByteArrayInputStream(response.body())), List.class);
+        assertThat(employees).hasSize(50);
+    }
+
+    @DisplayName("Junit test for revalidating a gzipped page with its ETag")
+    @Test
+    public void givenGzipETag_whenGetLargePageAgain_thenReturn304WithGzipETag() throws Exception {
+        // given - precondition or setup
+        HttpRequest first = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=50"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+        String eTag = httpClient.send(first, HttpResponse.BodyHandlers.discarding())
+                .headers().firstValue(HttpHeaders.ETAG).orElseThrow();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=50"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .build();
+
+        // when - action or behavior that we are going to test
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(304);
+        assertThat(response.headers().firstValue(HttpHeaders.ETAG)).contains(eTag);
+        assertThat(response.body()).isEmpty();
+    }
+
+    @DisplayName("Junit test for a small response left uncompressed")
+    @Test
+    public void givenAcceptGzip_whenGetSmallPage_thenResponseIsNotCompressed() throws Exception {
+        // given - precondition or setup
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees?size=1"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        // when - action or behavior that we are going to test
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // then - verify the output
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).isEmpty();
+        assertThat(response.body()).startsWith("[{");
+    }
+
+    @DisplayName("Junit test for gzip of a streamed export")
+    @Test
+    public void givenAcceptGzip_whenExportNdjson_thenEveryRowArrivesCompressed() throws Exception {
+        // given - precondition or setup
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/export"))
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+
+        // when - action or behavior that we are going to test
+        HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        // then - verify the output
+        assertThat(response.headers().firstValue(HttpHeaders.CONTENT_ENCODING)).contains("gzip");
+        String ndjson = new String(new GZIPInputStream(new ByteArrayInputStream(response.body())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertThat(ndjson.split("\n")).hasSize(50);
+    }
+}
@@ -0,0 +1,80 @@
+package com.testing.udemy.project.testingproject.demo.cache;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UnsynchronizedCacheManagerTest {
+
+    @DisplayName("Junit test for a sync load running outside the Caffeine map lock")
+    @Test
+    public void givenLoaderWritingSameKeyFromAnotherThread_whenGet_thenLoaderDoesNotBlockIt() {
+        // given - precondition or setup
+        Cache cache = new UnsynchronizedCacheManager(new CaffeineCacheManager("employees")).getCache("employees");
+
+        // when - action or behavior that we are going to test
+        // Caffeine's own get(key, loader) holds the key's bin while loading, so this put would wait for it
+        String value = cache.get(1L, () -> {
+            CompletableFuture.runAsync(() -> cache.put(1L, "other")).get(5, TimeUnit.SECONDS);
+            return "loaded";
+        });
+
+        // then - verify the output
+        assertThat(value).isEqualTo("loaded");
+        assertThat(cache.get(1L).get()).isEqualTo("loaded");
+    }
+
+    @DisplayName("Junit test for cached empty loads sharing the wrapped Caffeine cache")
+    @Test
+    public void givenEmptyLoad_whenGetAgain_thenLoaderRunsOnceAndNativeCacheIsShared() {
+        // given - precondition or setup
+        CaffeineCacheManager caffeineCacheManager = new CaffeineCacheManager("employees");
+        Cache cache = new UnsynchronizedCacheManager(caffeineCacheManager).getCache("employees");
+        AtomicInteger loads = new AtomicInteger();
+
+        // when - action or behavior that we are going to test
+        cache.get(2L, () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        Object second = cache.get(2L, () -> {
+            loads.incrementAndGet();
+            return "loaded";
+        });
+
+        // then - verify the output
+        assertThat(second).isNull();
+        assertThat(loads).hasValue(1);
+        assertThat(cache).isInstanceOf(CaffeineCache.class);
+        assertThat(((CaffeineCache) cache).getNativeCache())
+                .isSameAs(((CaffeineCache) caffeineCacheManager.getCache("employees")).getNativeCache());
+    }
+
+    @DisplayName("Junit test for a load overtaken by an eviction of its key")
+    @Test
+    public void givenKeyEvictedWhileLoading_whenGet_thenLoadedValueIsNotCached() {
+        // given - precondition or setup
+        Cache cache = new UnsynchronizedCacheManager(new CaffeineCacheManager("employees")).getCache("employees");
+
+        // when - action or behavior that we are going to test
+        // The write that evicts lands after the loader has read the row as it was before the write
+        String value = cache.get(3L, () -> {
+            cache.evict(3L);
+            return "before write";
+        });
+        String reloaded = cache.get(3L, () -> "after write");
+
+        // then - verify the output
+        assertThat(value).isEqualTo("before write");
+        assertThat(reloaded).isEqualTo("after write");
+        assertThat(cache.get(3L).get()).isEqualTo("after write");
+    }
+}
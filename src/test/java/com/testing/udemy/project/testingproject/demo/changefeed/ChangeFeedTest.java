@@ -0,0 +1,120 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+
+// The change log's table is a mock, so a test decides when, and whether, a batch gets stored
+public class ChangeFeedTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private ChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup() {
+        EmployeeProperties employeeProperties = new EmployeeProperties();
+        employeeProperties.getChangeFeed().setEnabled(true);
+        employeeProperties.getChangeFeed().setQueueCapacity(1);
+        changeFeed = new ChangeFeed(employeeProperties, jdbcTemplate, new ObjectMapper());
+        changeFeed.bindTo(registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        changeFeed.stop();
+    }
+
+    private void awaitSequence(long sequence) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (changeFeed.lastSequence() < sequence && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(changeFeed.lastSequence()).isEqualTo(sequence);
+    }
+
+    private double droppedCount() {
+        return registry.get("employee.changes.dropped").functionCounter().count();
+    }
+
+    @DisplayName("Junit test for publishing changes while the change log is stalled")
+    @Test
+    public void givenStalledChangeLog_whenQueueIsFull_thenPublisherIsNotBlockedAndGapIsLeft() throws Exception {
+        // given - precondition or setup
+        CountDownLatch stored = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            stored.countDown();
+            release.await();
+            return new int[0][];
+        }).given(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        changeFeed.start();
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        assertThat(stored.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or behavior that we are going to test
+        // The writer holds the first change, the queue takes the second, the others are dropped
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (long id = 2; id <= 5; id++) {
+                changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(id));
+            }
+        });
+        release.countDown();
+
+        // then - verify the output
+        // The gap goes ahead of the next batch: 1 is stored as 1, 2 is the gap and the queued change is 3
+        awaitSequence(3);
+        assertThat(changeFeed.changesAfter(1, 100)).isNull();
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(6L));
+        awaitSequence(4);
+        assertThat(droppedCount()).isEqualTo(3);
+        assertThat(changeFeed.changesAfter(4, 100)).isEmpty();
+    }
+
+    @DisplayName("Junit test for a batch the change log keeps refusing")
+    @Test
+    public void givenFailingChangeLog_whenStore_thenBatchIsDroppedAndItsNumbersSkipped() throws Exception {
+        // given - precondition or setup
+        willThrow(new DataAccessResourceFailureException("The database is down"))
+                .willThrow(new DataAccessResourceFailureException("The database is down"))
+                .willThrow(new DataAccessResourceFailureException("The database is down"))
+                .willAnswer(invocation -> new int[0][])
+                .given(jdbcTemplate).batchUpdate(anyString(), anyCollection(), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        changeFeed.start();
+
+        // when - action or behavior that we are going to test
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (droppedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        changeFeed.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+
+        // then - verify the output
+        awaitSequence(2);
+        assertThat(droppedCount()).isEqualTo(1);
+        assertThat(changeFeed.changesAfter(2, 100)).isEmpty();
+    }
+}
@@ -0,0 +1,114 @@
+package com.testing.udemy.project.testingproject.demo.changefeed;
+
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ChangeRingTest {
+
+    private static List<EmployeeChange> changes(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(sequence -> new EmployeeChange(sequence, EmployeeChangedEvent.Type.DELETED, sequence, null, Instant.now()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<Long> sequences(List<EmployeeChange> changes) {
+        return changes.stream().map(EmployeeChange::getSequence).collect(Collectors.toList());
+    }
+
+    @DisplayName("Junit test for reading the changes after a position")
+    @Test
+    public void givenAppendedChanges_whenAfter_thenReturnFollowingChangesInOrder() {
+        // given - precondition or setup
+        ChangeRing ring = new ChangeRing(4, 10);
+        ring.append(changes(11, 13));
+
+        // when - action or behavior that we are going to test
+        List<EmployeeChange> all = ring.after(10, 100);
+        List<EmployeeChange> limited = ring.after(11, 1);
+        List<EmployeeChange> none = ring.after(13, 100);
+
+        // then - verify the output
+        assertThat(sequences(all)).containsExactly(11L, 12L, 13L);
+        assertThat(sequences(limited)).containsExactly(12L);
+        assertThat(none).isEmpty();
+        assertThat(ring.last()).isEqualTo(13);
+    }
+
+    @DisplayName("Junit test for a position the ring has overwritten")
+    @Test
+    public void givenWrappedRing_whenAfterOverwrittenPosition_thenReturnNull() {
+        // given - precondition or setup
+        ChangeRing ring = new ChangeRing(4, 0);
+        ring.append(changes(1, 6));
+
+        // when - action or behavior that we are going to test
+        List<EmployeeChange> overwritten = ring.after(1, 100);
+        List<EmployeeChange> oldestKept = ring.after(2, 100);
+
+        // then - verify the output
+        assertThat(overwritten).isNull();
+        assertThat(sequences(oldestKept)).containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @DisplayName("Junit test for a ring that starts after changes it never saw")
+    @Test
+    public void givenRingStartedAtSequence_whenAfterEarlierPosition_thenReturnNull() {
+        // given - precondition or setup
+        ChangeRing ring = new ChangeRing(4, 100);
+
+        // when - action or behavior that we are going to test
+        List<EmployeeChange> earlier = ring.after(99, 100);
+
+        // then - verify the output
+        assertThat(earlier).isNull();
+        assertThat(ring.after(100, 100)).isEmpty();
+    }
+
+    @DisplayName("Junit test for a position behind a gap in the numbering")
+    @Test
+    public void givenChangesAfterGap_whenAfterPositionBeforeGap_thenReturnNull() {
+        // given - precondition or setup
+        ChangeRing ring = new ChangeRing(8, 0);
+        ring.append(changes(1, 2));
+
+        // when - action or behavior that we are going to test
+        ring.append(changes(4, 5));
+
+        // then - verify the output
+        assertThat(ring.after(1, 100)).isNull();
+        assertThat(ring.after(2, 100)).isNull();
+        assertThat(sequences(ring.after(3, 100))).containsExactly(4L, 5L);
+        assertThat(ring.last()).isEqualTo(5);
+    }
+
+    @DisplayName("Junit test for waking a reader waiting on the ring")
+    @Test
+    public void givenWaitingReader_whenAppend_thenReaderWakes() throws Exception {
+        // given - precondition or setup
+        ChangeRing ring = new ChangeRing(4, 0);
+        CompletableFuture<Boolean> woken = CompletableFuture.supplyAsync(() -> {
+            try {
+                return ring.awaitAfter(0, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // when - action or behavior that we are going to test
+        ring.append(changes(1, 1));
+
+        // then - verify the output
+        assertThat(woken.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(ring.awaitAfter(1, 10, TimeUnit.MILLISECONDS)).isFalse();
+    }
+}
@@ -0,0 +1,142 @@
+package com.testing.udemy.project.testingproject.demo.compression;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompressionFilterTest {
+
+    private GzipEncoder.Pool encoders;
+    private CompressionFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() {
+        encoders = new GzipEncoder.Pool(6, 512, 4);
+        filter = new CompressionFilter(1024, List.of("application/json"), List.of("/api/employees/changes"), encoders);
+        request = new MockHttpServletRequest("GET", "/api/employees");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate");
+        response = new MockHttpServletResponse();
+    }
+
+    @DisplayName("Junit test for a large response compressed with a pooled encoder")
+    @Test
+    public void givenLargeJsonBody_whenFilter_thenGzippedAndEncoderReturnedToPool() throws Exception {
+        // given - precondition or setup
+        String body = "[" + "{\"firstName\":\"Lolik\",\"lastName\":\"Bolik\"},".repeat(200) + "{}]";
+
+        // when - action or behavior that we are going to test
+        filter.doFilter(request, response, writing("application/json", body));
+
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(response.getHeaders(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT_ENCODING);
+        assertThat(response.getContentAsByteArray().length).isLessThan(body.length() / 10);
+        assertThat(new String(new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8)).isEqualTo(body);
+        assertThat(encoders.idle()).isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for a response below the threshold sent as it is")
+    @Test
+    public void givenSmallJsonBody_whenFilter_thenUncompressedWithContentLength() throws Exception {
+        // given - precondition or setup
+        String body = "{\"firstName\":\"Lolik\"}";
+
+        // when - action or behavior that we are going to test
+        filter.doFilter(request, response, writing("application/json", body));
+
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(body.length());
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @DisplayName("Junit test for a large response of a type not worth compressing")
+    @Test
+    public void givenLargeImageBody_whenFilter_thenPassedThrough() throws Exception {
+        // given - precondition or setup
+        String body = "x".repeat(4096);
+
+        // when - action or behavior that we are going to test
+        filter.doFilter(request, response, writing("image/png", body));
+
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+        assertThat(encoders.idle()).isZero();
+    }
+
+    @DisplayName("Junit test for an event stream kept out of the compressing wrapper")
+    @Test
+    public void givenAcceptEventStream_whenFilter_thenResponseIsNotWrapped() throws Exception {
+        // given - precondition or setup
+        request.addHeader(HttpHeaders.ACCEPT, "text/event-stream");
+        String body = "data:" + "x".repeat(4096) + "\n\n";
+
+        // when - action or behavior that we are going to test
+        filter.doFilter(request, response, (servletRequest, servletResponse) -> {
+            assertThat(servletResponse).isSameAs(response);
+            writing("application/json", body).doFilter(servletRequest, servletResponse);
+        });
+
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(body);
+    }
+
+    @DisplayName("Junit test for the change feed path kept out of the compressing wrapper")
+    @Test
+    public void givenStreamingPathWithoutAccept_whenFilter_thenResponseIsNotWrapped() throws Exception {
+        // given - precondition or setup
+        MockHttpServletRequest changes = new MockHttpServletRequest("GET", "/api/employees/changes");
+        changes.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+
+        // when - action or behavior that we are going to test
+        filter.doFilter(changes, response, (servletRequest, servletResponse) -> assertThat(servletResponse).isSameAs(response));
+
+        // then - verify the output
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(encoders.idle()).isZero();
+    }
+
+    @DisplayName("Junit test for a client refusing gzip with q=0")
+    @Test
+    public void givenGzipWithZeroQuality_whenAcceptsGzip_thenFalse() {
+        // given - precondition or setup
+        MockHttpServletRequest refusing = new MockHttpServletRequest();
+        refusing.addHeader(HttpHeaders.ACCEPT_ENCODING, "br, gzip;q=0");
+
+        // when - action or behavior that we are going to test
+        boolean accepts = CompressionFilter.acceptsGzip(refusing);
+
+        // then - verify the output
+        assertThat(accepts).isFalse();
+    }
+
+    // Writes in small pieces and flushes halfway, the way a streaming serializer does
+    private static FilterChain writing(String contentType, String body) {
+        return (request, response) -> {
+            response.setContentType(contentType);
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            for (int offset = 0; offset < bytes.length; offset += 100) {
+                response.getOutputStream().write(bytes, offset, Math.min(100, bytes.length - offset));
+                if (offset == 500) {
+                    response.getOutputStream().flush();
+                }
+            }
+        };
+    }
+}
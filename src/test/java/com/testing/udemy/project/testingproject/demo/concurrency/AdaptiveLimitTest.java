@@ -0,0 +1,108 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveLimitTest {
+
+    private static List<AdaptiveLimit.Permit> acquire(AdaptiveLimit limit, int count) {
+        List<AdaptiveLimit.Permit> permits = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            permits.add(limit.tryAcquire(1));
+        }
+        return permits;
+    }
+
+    @DisplayName("Junit test for rejecting calls over the limit")
+    @Test
+    public void givenLimitInUse_whenTryAcquire_thenRejectUntilPermitReleased() {
+        // given - precondition or setup
+        AdaptiveLimit limit = new AdaptiveLimit("read", 2, 1, 10, 2.0, 0.9);
+        List<AdaptiveLimit.Permit> permits = acquire(limit, 2);
+
+        // when - action or behavior that we are going to test
+        AdaptiveLimit.Permit rejected = limit.tryAcquire(1);
+        permits.get(0).ignored();
+        AdaptiveLimit.Permit admitted = limit.tryAcquire(1);
+
+        // then - verify the output
+        assertThat(permits).doesNotContainNull();
+        assertThat(rejected).isNull();
+        assertThat(admitted).isNotNull();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for keeping part of the limit from low priority calls")
+    @Test
+    public void givenLowPriorityShare_whenTryAcquire_thenOnlyHighPriorityUsesTheRest() {
+        // given - precondition or setup
+        AdaptiveLimit limit = new AdaptiveLimit("read", 4, 1, 10, 2.0, 0.9);
+        limit.tryAcquire(0.5);
+        limit.tryAcquire(0.5);
+
+        // when - action or behavior that we are going to test
+        AdaptiveLimit.Permit lowPriority = limit.tryAcquire(0.5);
+        AdaptiveLimit.Permit highPriority = limit.tryAcquire(1);
+
+        // then - verify the output
+        assertThat(lowPriority).isNull();
+        assertThat(highPriority).isNotNull();
+    }
+
+    @DisplayName("Junit test for growing a limit that is in use while latency holds")
+    @Test
+    public void givenSteadyLatencyAtFullUse_whenCallsSucceed_thenLimitGrows() {
+        // given - precondition or setup
+        AdaptiveLimit limit = new AdaptiveLimit("read", 4, 1, 10, 2.0, 0.9);
+
+        // when - action or behavior that we are going to test
+        for (int round = 0; round < 50; round++) {
+            acquire(limit, limit.getLimit()).forEach(AdaptiveLimit.Permit::succeeded);
+        }
+
+        // then - verify the output
+        assertThat(limit.getLimit()).isEqualTo(10);
+    }
+
+    @DisplayName("Junit test for cutting the limit when calls fail")
+    @Test
+    public void givenFailingCalls_whenReleased_thenLimitShrinksToMinimum() throws Exception {
+        // given - precondition or setup
+        AdaptiveLimit limit = new AdaptiveLimit("write", 10, 2, 10, 2.0, 0.5);
+        limit.tryAcquire(1).succeeded();
+
+        // when - action or behavior that we are going to test
+        for (int i = 0; i < 10; i++) {
+            Thread.sleep(1);
+            limit.tryAcquire(1).failed();
+        }
+
+        // then - verify the output
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for cutting the limit when latency rises")
+    @Test
+    public void givenLatencyRisingAboveTolerance_whenCallsSucceed_thenLimitShrinks() throws Exception {
+        // given - precondition or setup
+        AdaptiveLimit limit = new AdaptiveLimit("read", 10, 1, 10, 2.0, 0.9);
+        for (int i = 0; i < 100; i++) {
+            limit.tryAcquire(1).succeeded();
+        }
+
+        // when - action or behavior that we are going to test
+        for (int i = 0; i < 20; i++) {
+            AdaptiveLimit.Permit permit = limit.tryAcquire(1);
+            Thread.sleep(5);
+            permit.succeeded();
+        }
+
+        // then - verify the output
+        assertThat(limit.getLimit()).isLessThan(10);
+    }
+}
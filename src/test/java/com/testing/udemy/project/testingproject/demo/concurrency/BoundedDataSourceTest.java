@@ -0,0 +1,76 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class BoundedDataSourceTest {
+
+    @DisplayName("Junit test for bounded data source timing out when all permits are held")
+    @Test
+    public void givenAllPermitsHeld_whenGetConnection_thenTimesOut() throws SQLException {
+        // given - precondition or setup
+        DataSource target = mock(DataSource.class);
+        given(target.getConnection()).willAnswer(invocation -> mock(Connection.class));
+        BoundedDataSource dataSource = new BoundedDataSource(target, 2, 50);
+        dataSource.getConnection();
+        dataSource.getConnection();
+
+        // when - action or behavior that we are going to test
+        // then - verify the output
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        verify(target, times(2)).getConnection();
+    }
+
+    @DisplayName("Junit test for bounded data source releasing the permit once on close")
+    @Test
+    public void givenConnectionClosedTwice_whenGetConnection_thenOnlyOnePermitReturned() throws SQLException {
+        // given - precondition or setup
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        given(target.getConnection()).willReturn(connection);
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, 50);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        dataSource.bindTo(registry);
+
+        // when - action or behavior that we are going to test
+        Connection first = dataSource.getConnection();
+        first.close();
+        first.close();
+        Connection second = dataSource.getConnection();
+
+        // then - verify the output
+        assertThat(registry.get("employee.db.permits.available").gauge().value()).isEqualTo(0.0);
+        assertThatThrownBy(dataSource::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+        second.close();
+        assertThat(registry.get("employee.db.permits.available").gauge().value()).isEqualTo(1.0);
+        verify(connection, times(3)).close();
+    }
+
+    @DisplayName("Junit test for bounded data source returning the permit when the pool fails")
+    @Test
+    public void givenFailingTarget_whenGetConnection_thenPermitReturned() throws SQLException {
+        // given - precondition or setup
+        DataSource target = mock(DataSource.class);
+        given(target.getConnection()).willThrow(new SQLException("pool exhausted"));
+        BoundedDataSource dataSource = new BoundedDataSource(target, 1, 50);
+
+        // when - action or behavior that we are going to test
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+
+        // then - verify the output
+        assertThatThrownBy(dataSource::getConnection).hasMessage("pool exhausted");
+    }
+}
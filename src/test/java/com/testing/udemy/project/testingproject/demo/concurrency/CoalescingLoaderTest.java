@@ -0,0 +1,130 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CoalescingLoaderTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<Set<Long>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        callers.shutdownNow();
+    }
+
+    // Records every batch and answers each id with its name; id 0 does not exist
+    private Map<Long, String> load(Set<Long> ids) {
+        batches.add(new HashSet<>(ids));
+        return ids.stream().filter(id -> id != 0).collect(Collectors.toMap(Function.identity(), id -> "employee" + id));
+    }
+
+    private List<Future<String>> loadConcurrently(CoalescingLoader<Long, String> loader, List<Long> ids) {
+        List<Future<String>> results = new ArrayList<>();
+        for (long id : ids) {
+            results.add(callers.submit(() -> loader.load(id)));
+        }
+        return results;
+    }
+
+    @DisplayName("Junit test for concurrent reads of one id sharing a single load")
+    @Test
+    public void givenLoadInFlight_whenSameIdRequested_thenCallersShareIt() throws Exception {
+        // given - precondition or setup
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CoalescingLoader<Long, String> loader = new CoalescingLoader<>("test", ids -> {
+            loading.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return load(ids);
+        }, 0, 100);
+        Future<String> first = callers.submit(() -> loader.load(7L));
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when - action or behavior that we are going to test
+        List<Future<String>> others = loadConcurrently(loader, List.of(7L, 7L, 7L, 7L));
+        Thread.sleep(50);
+        release.countDown();
+
+        // then - verify the output
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("employee7");
+        for (Future<String> other : others) {
+            assertThat(other.get(5, TimeUnit.SECONDS)).isEqualTo("employee7");
+        }
+        assertThat(batches).hasSize(1);
+        assertThat(loader.getCoalescingRatio()).isEqualTo(5.0);
+    }
+
+    @DisplayName("Junit test for reads of different ids within the window merged into one load")
+    @Test
+    public void givenReadsWithinWindow_whenLoad_thenOneBatchHoldsAllIds() throws Exception {
+        // given - precondition or setup
+        CoalescingLoader<Long, String> loader = new CoalescingLoader<>("test", this::load,
+                TimeUnit.MILLISECONDS.toNanos(200), 100);
+
+        // when - action or behavior that we are going to test
+        List<Future<String>> results = loadConcurrently(loader, List.of(1L, 2L, 3L, 0L));
+
+        // then - verify the output
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("employee1");
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("employee3");
+        assertThat(results.get(3).get(5, TimeUnit.SECONDS)).isNull();
+        assertThat(batches).containsExactly(Set.of(1L, 2L, 3L, 0L));
+    }
+
+    @DisplayName("Junit test for a full batch loaded before its window ends")
+    @Test
+    public void givenMaxBatchSizeReached_whenLoad_thenBatchRunsWithoutWaitingForWindow() throws Exception {
+        // given - precondition or setup
+        CoalescingLoader<Long, String> loader = new CoalescingLoader<>("test", this::load,
+                TimeUnit.SECONDS.toNanos(30), 2);
+
+        // when - action or behavior that we are going to test
+        List<Future<String>> results = loadConcurrently(loader, List.of(1L, 2L));
+
+        // then - verify the output
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("employee1");
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("employee2");
+        assertThat(batches).containsExactly(Set.of(1L, 2L));
+    }
+
+    @DisplayName("Junit test for a failed load reaching every caller and not sticking")
+    @Test
+    public void givenFailingLoad_whenLoad_thenCallerGetsExceptionAndNextLoadRunsAgain() {
+        // given - precondition or setup
+        List<Integer> calls = new CopyOnWriteArrayList<>();
+        CoalescingLoader<Long, String> loader = new CoalescingLoader<>("test", ids -> {
+            calls.add(ids.size());
+            throw new IllegalStateException("database down");
+        }, 0, 100);
+
+        // when - action or behavior that we are going to test
+
+        // then - verify the output
+        assertThatThrownBy(() -> loader.load(1L)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> loader.load(1L)).isInstanceOf(IllegalStateException.class);
+        assertThat(calls).hasSize(2);
+    }
+}
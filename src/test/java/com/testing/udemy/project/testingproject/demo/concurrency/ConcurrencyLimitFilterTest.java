@@ -0,0 +1,86 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrencyLimitFilterTest {
+
+    private AdaptiveLimit readLimit;
+    private AdaptiveLimit writeLimit;
+    private ConcurrencyLimitFilter filter;
+
+    @BeforeEach
+    public void setup() {
+        readLimit = new AdaptiveLimit("read", 4, 1, 4, 2.0, 0.9);
+        writeLimit = new AdaptiveLimit("write", 2, 1, 2, 2.0, 0.9);
+        filter = new ConcurrencyLimitFilter(readLimit, writeLimit, 0.5, Duration.ofMillis(1500));
+    }
+
+    private MockHttpServletResponse filter(String method, String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, path), response, new MockFilterChain());
+        return response;
+    }
+
+    @DisplayName("Junit test for classifying employee API calls")
+    @Test
+    public void givenApiPaths_whenClassify_thenPointReadsAndSingleWritesAreHighPriority() {
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+
+        // then - verify the output
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/employees/42")).isEqualTo(ConcurrencyLimitFilter.RequestClass.POINT_READ);
+        assertThat(ConcurrencyLimitFilter.classify("HEAD", "/api/employees/42")).isEqualTo(ConcurrencyLimitFilter.RequestClass.POINT_READ);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/employees")).isEqualTo(ConcurrencyLimitFilter.RequestClass.LIST_READ);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/employees/search")).isEqualTo(ConcurrencyLimitFilter.RequestClass.LIST_READ);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/employees/export")).isEqualTo(ConcurrencyLimitFilter.RequestClass.EXPORT);
+        assertThat(ConcurrencyLimitFilter.classify("PUT", "/api/employees/42")).isEqualTo(ConcurrencyLimitFilter.RequestClass.WRITE);
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/employees/batch")).isEqualTo(ConcurrencyLimitFilter.RequestClass.BULK_WRITE);
+        assertThat(ConcurrencyLimitFilter.classify("POST", "/api/employees/bulk-delete")).isEqualTo(ConcurrencyLimitFilter.RequestClass.BULK_WRITE);
+        assertThat(ConcurrencyLimitFilter.classify("GET", "/api/employees/changes")).isNull();
+    }
+
+    @DisplayName("Junit test for shedding a listing while point reads are still admitted")
+    @Test
+    public void givenLowPriorityShareInUse_whenListAndPointRead_thenListRejectedWithRetryAfter() throws Exception {
+        // given - precondition or setup
+        readLimit.tryAcquire(1);
+        readLimit.tryAcquire(1);
+
+        // when - action or behavior that we are going to test
+        MockHttpServletResponse list = filter("GET", "/api/employees");
+        MockHttpServletResponse pointRead = filter("GET", "/api/employees/1");
+
+        // then - verify the output
+        assertThat(list.getStatus()).isEqualTo(503);
+        assertThat(list.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(pointRead.getStatus()).isEqualTo(200);
+        assertThat(readLimit.getInFlight()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for separate read and write limits")
+    @Test
+    public void givenWriteLimitInUse_whenReadAndWrite_thenOnlyWriteRejected() throws Exception {
+        // given - precondition or setup
+        writeLimit.tryAcquire(1);
+        writeLimit.tryAcquire(1);
+
+        // when - action or behavior that we are going to test
+        MockHttpServletResponse write = filter("POST", "/api/employees");
+        MockHttpServletResponse read = filter("GET", "/api/employees/1");
+
+        // then - verify the output
+        assertThat(write.getStatus()).isEqualTo(503);
+        assertThat(read.getStatus()).isEqualTo(200);
+    }
+}
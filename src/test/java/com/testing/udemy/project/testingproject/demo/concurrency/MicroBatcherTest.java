@@ -0,0 +1,76 @@
+package com.testing.udemy.project.testingproject.demo.concurrency;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MicroBatcherTest {
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+
+    @AfterEach
+    public void cleanup() {
+        callers.shutdownNow();
+    }
+
+    private List<Future<String>> submitConcurrently(MicroBatcher<String, String> batcher, String... items) {
+        List<Future<String>> results = new ArrayList<>();
+        for (String item : items) {
+            results.add(callers.submit(() -> batcher.submit(item)));
+        }
+        return results;
+    }
+
+    @DisplayName("Junit test for every caller getting its own result of a shared batch")
+    @Test
+    public void givenItemsWithinLinger_whenSubmit_thenOneBatchAndOwnResults() throws Exception {
+        // given - precondition or setup
+        MicroBatcher<String, String> batcher = new MicroBatcher<>(items -> {
+            batches.add(List.copyOf(items));
+            return items.stream().map(String::toUpperCase).collect(Collectors.toList());
+        }, TimeUnit.SECONDS.toNanos(10), 3);
+
+        // when - action or behavior that we are going to test
+        List<Future<String>> results = submitConcurrently(batcher, "lolik", "bolik", "paseka");
+
+        // then - verify the output
+        assertThat(results.get(0).get(5, TimeUnit.SECONDS)).isEqualTo("LOLIK");
+        assertThat(results.get(1).get(5, TimeUnit.SECONDS)).isEqualTo("BOLIK");
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS)).isEqualTo("PASEKA");
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactlyInAnyOrder("lolik", "bolik", "paseka");
+    }
+
+    @DisplayName("Junit test for a failing batch failing every caller in it")
+    @Test
+    public void givenFailingBatchFunction_whenSubmit_thenEveryCallerGetsTheException() {
+        // given - precondition or setup
+        MicroBatcher<String, String> batcher = new MicroBatcher<>(items -> {
+            throw new IllegalStateException("database down");
+        }, TimeUnit.SECONDS.toNanos(10), 2);
+
+        // when - action or behavior that we are going to test
+        List<Future<String>> results = submitConcurrently(batcher, "lolik", "bolik");
+
+        // then - verify the output
+        for (Future<String> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .isInstanceOf(ExecutionException.class)
+                    .hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -1,7 +1,22 @@
 package com.testing.udemy.project.testingproject.demo.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemResult;
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemStatus;
+import com.testing.udemy.project.testingproject.demo.batch.BatchResult;
+import com.testing.udemy.project.testingproject.demo.changefeed.ChangeFeed;
+import com.testing.udemy.project.testingproject.demo.config.BinaryFormatConfiguration;
+import com.testing.udemy.project.testingproject.demo.exception.InvalidCursorException;
+import com.testing.udemy.project.testingproject.demo.exception.PreconditionFailedException;
 import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
 import com.testing.udemy.project.testingproject.demo.service.EmployeeService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -9,25 +24,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.hasItem;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
 @WebMvcTest
+@Import(BinaryFormatConfiguration.class)
 public class EmployeeControllerTest {
 
     @Autowired
@@ -36,6 +63,9 @@ public class EmployeeControllerTest {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private ChangeFeed changeFeed;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -71,6 +101,80 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @DisplayName("Junit test for batch create from JSON array")
+    @Test
+    public void givenEmployeeArray_whenCreateEmployees_thenReturnRowResults() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            BatchResult result = new BatchResult();
+            result.add(BatchItemResult.created(0, employees.next().getId()));
+            result.add(BatchItemResult.rejected(1, BatchItemStatus.DUPLICATE, "duplicate"));
+            return result;
+        });
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(List.of(employee, employee))));
+
+        // then  - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)))
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[1].status", is("DUPLICATE")));
+    }
+
+    @DisplayName("Junit test for batch create from a Smile array")
+    @Test
+    public void givenSmileBody_whenCreateEmployees_thenArrayIsParsed() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            BatchResult result = new BatchResult();
+            result.add(BatchItemResult.created(0, employees.next().getId()));
+            return result;
+        });
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(BinaryFormatConfiguration.SMILE_VALUE)
+                .content(new SmileMapper().writeValueAsBytes(List.of(employee))));
+
+        // then  - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(1)));
+    }
+
+    @DisplayName("Junit test for batch create from NDJSON")
+    @Test
+    public void givenNdjsonBody_whenCreateEmployees_thenEveryLineIsParsed() throws Exception {
+        // given - precondition or setup
+        given(employeeService.saveEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            BatchResult result = new BatchResult();
+            int index = 0;
+            while (employees.hasNext()) {
+                result.add(BatchItemResult.created(index++, employees.next().getId()));
+            }
+            return result;
+        });
+        String body = objectMapper.writeValueAsString(employee) + "\n" + objectMapper.writeValueAsString(employee) + "\n";
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType("application/x-ndjson")
+                .content(body));
+
+        // then  - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created", is(2)));
+    }
+
     @DisplayName("Junit test for get all employees")
     @Test
     public void givenEmployeeObjects_whenGetEmployeesList_thenReturnEmployees() throws Exception {
@@ -85,7 +189,7 @@ public class EmployeeControllerTest {
         List<Employee> listEmployees = new ArrayList<>();
         listEmployees.add(employee);
         listEmployees.add(employee2);
-        PageRequest pageRequest = PageRequest.of(0, 10);
+        PageRequest pageRequest = PageRequest.of(0, 10, EmployeeSortKey.ID.getSort());
         given(employeeService.getAllEmployees(pageRequest)).willReturn(listEmployees);
 
         // when - action or behavior that we are going to test
@@ -97,6 +201,183 @@ public class EmployeeControllerTest {
                 .andExpect(jsonPath("$.size()", is(listEmployees.size())));
     }
 
+    @DisplayName("Junit test for get employees page by offset")
+    @Test
+    public void givenPageParameters_whenGetEmployeesList_thenReturnRequestedPage() throws Exception {
+        // given - precondition on setup
+        given(employeeService.getAllEmployees(PageRequest.of(3, 25, EmployeeSortKey.ID.getSort()))).willReturn(List.of(employee));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("page", "3")
+                .param("size", "25"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)));
+    }
+
+    @DisplayName("Junit test for get employees page with current ETag")
+    @Test
+    public void givenCurrentPageETag_whenGetEmployeesList_thenReturn304WithoutLoadingEmployees() throws Exception {
+        // given - precondition on setup
+        employee.setVersion(2L);
+        PageRequest pageRequest = PageRequest.of(0, 10, EmployeeSortKey.ID.getSort());
+        String eTag = EmployeeVersion.eTag(List.of(EmployeeVersion.of(employee)));
+        given(employeeService.getEmployeeVersions(pageRequest)).willReturn(List.of(EmployeeVersion.of(employee)));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .header(HttpHeaders.IF_NONE_MATCH, "\"" + eTag + "-json\""));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + eTag + "-json\""))
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getAllEmployees(any());
+    }
+
+    @DisplayName("Junit test for get employees page with total")
+    @Test
+    public void givenTotalParam_whenGetEmployeesList_thenReturnEnvelopeWithTotalAndHasNext() throws Exception {
+        // given - precondition on setup
+        PageRequest pageRequest = PageRequest.of(2, 1, EmployeeSortKey.ID.getSort());
+        given(employeeService.getEmployeePage(pageRequest, TotalCount.APPROXIMATE))
+                .willReturn(new CountedPage<>(List.of(employee), 2, 1, 40L, TotalCount.APPROXIMATE, true));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("page", "2")
+                .param("size", "1")
+                .param("total", "APPROXIMATE"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.items.size()", is(1)))
+                .andExpect(jsonPath("$.items[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.page", is(2)))
+                .andExpect(jsonPath("$.total", is(40)))
+                .andExpect(jsonPath("$.totalCount", is("APPROXIMATE")))
+                .andExpect(jsonPath("$.hasNext", is(true)));
+        verify(employeeService, never()).getAllEmployees(any());
+    }
+
+    @DisplayName("Junit test for get employees page by cursor")
+    @Test
+    public void givenCursor_whenGetEmployeesAfter_thenReturnPageWithNextCursor() throws Exception {
+        // given - precondition on setup
+        given(employeeService.getEmployeesAfter(EmployeeSortKey.NAME, "abc", 1))
+                .willReturn(new CursorPage<>(List.of(employee), "def"));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "abc")
+                .param("limit", "1")
+                .param("sort", "NAME"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(1)))
+                .andExpect(jsonPath("$.items[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.nextCursor", is("def")));
+    }
+
+    @DisplayName("Junit test for get first employees page by cursor")
+    @Test
+    public void givenLimitOnly_whenGetEmployeesAfter_thenReturnFirstPage() throws Exception {
+        // given - precondition on setup
+        given(employeeService.getEmployeesAfter(EmployeeSortKey.ID, null, 1000))
+                .willReturn(new CursorPage<>(List.of(employee), null));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("limit", "5000"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor", nullValue()));
+    }
+
+    @DisplayName("Junit test for get employees page by malformed cursor (negative scenario)")
+    @Test
+    public void givenMalformedCursor_whenGetEmployeesAfter_thenReturn400() throws Exception {
+        // given - precondition on setup
+        given(employeeService.getEmployeesAfter(EmployeeSortKey.ID, "!!", 10))
+                .willThrow(new InvalidCursorException("Malformed cursor: !!"));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("after", "!!")
+                .param("limit", "10"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Junit test for search employees by name prefix")
+    @Test
+    public void givenNamePrefix_whenSearchEmployees_thenReturnCursorPage() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployeesByName("Bol", "lo", null, 20))
+                .willReturn(new CursorPage<>(List.of(employee), "next"));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("lastName", "Bol")
+                .param("firstName", "lo"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.size()", is(1)))
+                .andExpect(jsonPath("$.items[0].email", is(employee.getEmail())))
+                .andExpect(jsonPath("$.nextCursor", is("next")));
+    }
+
+    @DisplayName("Junit test for type-ahead search employees")
+    @Test
+    public void givenQuery_whenSearchEmployeesByText_thenReturnMatches() throws Exception {
+        // given - precondition or setup
+        given(employeeService.searchEmployees("seb pas", 5)).willReturn(List.of(employee));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "seb pas")
+                .param("limit", "5"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is(employee.getEmail())));
+    }
+
+    @DisplayName("Junit test for export employees as CSV")
+    @Test
+    public void givenEmployees_whenExportEmployees_thenStreamCsvRows() throws Exception {
+        // given - precondition on setup
+        given(employeeService.exportEmployees(any())).willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee);
+            return 1L;
+        });
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/export").param("format", "CSV"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("id,firstName,lastName,email\n1,Lolik,Bolik,lolikbolik@deneg.net\n"));
+    }
+
     @DisplayName("Junit test for get employee by id")
     @Test
     public void givenEmployeeObject_whenGetEmployeeById_thenReturnEmployee() throws Exception {
@@ -110,11 +391,105 @@ public class EmployeeControllerTest {
         // then - verify the output
         response.andDo(print())
                 .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-json\""))
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
     }
 
+    @DisplayName("Junit test for get employee by id encoded as CBOR")
+    @Test
+    public void givenAcceptCbor_whenGetEmployeeById_thenReturnCborVaryingByAccept() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .accept(MediaType.APPLICATION_CBOR));
+
+        // then - verify the output
+        byte[] body = response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0-cbor\""))
+                .andExpect(header().stringValues(HttpHeaders.VARY, hasItem(HttpHeaders.ACCEPT)))
+                .andReturn().getResponse().getContentAsByteArray();
+        assertThat(new CBORMapper().readValue(body, Employee.class).getEmail()).isEqualTo(employee.getEmail());
+    }
+
+    @DisplayName("Junit test for get employee by id with current ETag")
+    @Test
+    public void givenCurrentETag_whenGetEmployeeById_thenReturn304WithoutLoadingEmployee() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-json\", W/\"3-json\""));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    @DisplayName("Junit test for get employee by id with outdated ETag")
+    @Test
+    public void givenOutdatedETag_whenGetEmployeeById_thenReturnEmployeeWithCurrentETag() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        employee.setVersion(3L);
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2-json\""));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(jsonPath("$.version", is(3)));
+    }
+
+    @DisplayName("Junit test for head employee by id")
+    @Test
+    public void givenEmployeeVersion_whenHeadEmployeeById_thenReturnETagWithoutBody() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.of(3L));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(head("/api/employees/{id}", employeeId));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3-json\""))
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    @DisplayName("Junit test for head employee by id (negative scenario)")
+    @Test
+    public void givenMissingEmployee_whenHeadEmployeeById_thenReturn404() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId)).willReturn(Optional.empty());
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(head("/api/employees/{id}", employeeId));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isNotFound());
+    }
+
     @DisplayName("Junit test for get employee by id (negative scenario")
     @Test
     public void givenInvalidEmployeeObject_whenGetEmployeeById_thenReturnEmpty() throws Exception {
@@ -181,6 +556,149 @@ public class EmployeeControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @DisplayName("Junit test for patching employee rest controller")
+    @Test
+    public void givenPatchAndIfMatch_whenPatchEmployee_thenReturnPatchedEmployeeWithETag() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        employee.setFirstName("Adam");
+        employee.setVersion(4L);
+        given(employeeService.patchEmployee(eq(employeeId), any(EmployeePatch.class), eq(3L)))
+                .willReturn(Optional.of(employee));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3-json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Adam\"}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4-json\""))
+                .andExpect(jsonPath("$.firstName", is("Adam")))
+                .andExpect(jsonPath("$.version", is(4)));
+    }
+
+    @DisplayName("Junit test for patching employee rest controller(stale version scenario)")
+    @Test
+    public void givenStaleIfMatch_whenPatchEmployee_thenReturn412() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+        given(employeeService.patchEmployee(eq(employeeId), any(EmployeePatch.class), eq(3L)))
+                .willThrow(new PreconditionFailedException("The employee 1 is no longer at version 3"));
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Adam\"}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @DisplayName("Junit test for patching employee rest controller(weak If-Match scenario)")
+    @Test
+    public void givenWeakIfMatch_whenPatchEmployee_thenReturn412WithoutPatching() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "W/\"3-json\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"firstName\":\"Adam\"}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).patchEmployee(anyLong(), any(), any());
+    }
+
+    @DisplayName("Junit test for patching employee rest controller(invalid email scenario)")
+    @Test
+    public void givenInvalidEmail_whenPatchEmployee_thenReturn400() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"email\":\"not-an-email\"}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Junit test for patching employee rest controller(empty body scenario)")
+    @Test
+    public void givenEmptyPatch_whenPatchEmployee_thenReturn400WithoutPatching() throws Exception {
+        // given - precondition on setup
+        long employeeId = 1L;
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+        verify(employeeService, never()).patchEmployee(anyLong(), any(), any());
+    }
+
+    @DisplayName("Junit test for bulk delete by ids Rest Api")
+    @Test
+    public void givenIds_whenBulkDelete_thenReturnDeletedCount() throws Exception {
+        // given - precondition on setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2L);
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1,2,3]}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    @DisplayName("Junit test for bulk delete by email domain Rest Api")
+    @Test
+    public void givenEmailDomain_whenBulkDelete_thenReturnDeletedCount() throws Exception {
+        // given - precondition on setup
+        given(employeeService.deleteEmployeesByEmailDomain("deneg.net")).willReturn(40L);
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"emailDomain\":\"deneg.net\"}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted", is(40)));
+    }
+
+    @DisplayName("Junit test for bulk delete with both selectors Rest Api(negative scenario)")
+    @Test
+    public void givenIdsAndEmailDomain_whenBulkDelete_thenReturn400() throws Exception {
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"ids\":[1],\"emailDomain\":\"deneg.net\"}"));
+
+        // then - verify the output
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
     @DisplayName("Junit test for delete employee by id Rest Api")
     @Test
     public void givenEmployeeObject_whenDeleteEmployeeById_thenReturn200() throws Exception {
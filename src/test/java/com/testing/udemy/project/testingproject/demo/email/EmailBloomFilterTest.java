@@ -0,0 +1,47 @@
+package com.testing.udemy.project.testingproject.demo.email;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmailBloomFilterTest {
+
+    @DisplayName("Junit test for Bloom filter having no false negatives")
+    @Test
+    public void givenInsertedEmails_whenMightContain_thenAlwaysTrue() {
+        // given - precondition or setup
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+
+        // when - action or behavior that we are going to test
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("employee" + i + "@deneg.net");
+        }
+
+        // then - verify the output
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("employee" + i + "@deneg.net")).isTrue();
+        }
+    }
+
+    @DisplayName("Junit test for Bloom filter false positive rate")
+    @Test
+    public void givenFullFilter_whenMightContainUnknownEmails_thenFalsePositivesStayNearTarget() {
+        // given - precondition or setup
+        EmailBloomFilter filter = new EmailBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("employee" + i + "@deneg.net");
+        }
+
+        // when - action or behavior that we are going to test
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("stranger" + i + "@deneg.net")) {
+                falsePositives++;
+            }
+        }
+
+        // then - verify the output
+        assertThat(falsePositives).isLessThan(300);
+    }
+}
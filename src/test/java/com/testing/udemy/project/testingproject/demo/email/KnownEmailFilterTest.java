@@ -0,0 +1,74 @@
+package com.testing.udemy.project.testingproject.demo.email;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class KnownEmailFilterTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private KnownEmailFilter knownEmailFilter;
+
+    @BeforeEach
+    public void setup() {
+        EmployeeProperties employeeProperties = new EmployeeProperties();
+        employeeProperties.getEmailFilter().setEnabled(true);
+        employeeProperties.getEmailFilter().setExpectedInsertions(1000);
+        knownEmailFilter = new KnownEmailFilter(employeeProperties, employeeRepository, transactionManager);
+    }
+
+    @AfterEach
+    public void teardown() {
+        knownEmailFilter.shutdown();
+    }
+
+    @DisplayName("Junit test for filter answering nothing before it is built")
+    @Test
+    public void givenFilterNotBuilt_whenDefinitelyAbsent_thenFalse() {
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+        boolean absent = knownEmailFilter.definitelyAbsent("paseka@deneg.net");
+
+        // then - verify the output
+        assertThat(knownEmailFilter.isReady()).isFalse();
+        assertThat(absent).isFalse();
+    }
+
+    @DisplayName("Junit test for filter built from the table and kept up to date on create")
+    @Test
+    public void givenBuiltFilter_whenEmployeeCreated_thenEmailIsKnown() {
+        // given - precondition or setup
+        given(employeeRepository.streamAllEmails()).willReturn(Stream.of("Paseka@Deneg.net"));
+        knownEmailFilter.rebuild();
+
+        // when - action or behavior that we are going to test
+        knownEmailFilter.onEmployeeChanged(EmployeeChangedEvent.created(Employee.builder()
+                .id(2L)
+                .email("lukasz@deneg.net")
+                .build()));
+
+        // then - verify the output
+        assertThat(knownEmailFilter.definitelyAbsent("paseka@deneg.net")).isFalse();
+        assertThat(knownEmailFilter.definitelyAbsent("LUKASZ@deneg.net")).isFalse();
+        assertThat(knownEmailFilter.definitelyAbsent("stranger@deneg.net")).isTrue();
+    }
+}
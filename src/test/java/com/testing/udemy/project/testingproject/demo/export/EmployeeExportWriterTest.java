@@ -0,0 +1,84 @@
+package com.testing.udemy.project.testingproject.demo.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeExportWriterTest {
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Lolik")
+                .lastName("Bolik, \"Jr\"")
+                .email("lolikbolik@deneg.net")
+                .build();
+    }
+
+    @DisplayName("Junit test for NDJSON export writes one object per line")
+    @Test
+    public void givenEmployees_whenWriteNdjson_thenOneObjectPerLine() throws Exception {
+        // given - precondition or setup
+        ObjectMapper objectMapper = new ObjectMapper();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when - action or behavior that we are going to test
+        try (EmployeeExportWriter writer = EmployeeExportWriter.open(ExportFormat.NDJSON, out, objectMapper)) {
+            writer.write(employee);
+            writer.write(employee);
+        }
+
+        // then - verify the output
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[1]).startsWith("{");
+        assertThat(objectMapper.readValue(lines[1], Employee.class).getEmail()).isEqualTo(employee.getEmail());
+    }
+
+    @DisplayName("Junit test for CSV export quotes fields with separators")
+    @Test
+    public void givenEmployeeWithSeparators_whenWriteCsv_thenFieldIsQuoted() throws Exception {
+        // given - precondition or setup
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when - action or behavior that we are going to test
+        try (EmployeeExportWriter writer = EmployeeExportWriter.open(ExportFormat.CSV, out, new ObjectMapper())) {
+            writer.write(employee);
+        }
+
+        // then - verify the output
+        assertThat(out.toString(StandardCharsets.UTF_8)).isEqualTo("id,firstName,lastName,email\n"
+                + "1,Lolik,\"Bolik, \"\"Jr\"\"\",lolikbolik@deneg.net\n");
+    }
+
+    @DisplayName("Junit test for CBOR export writes a sequence of items")
+    @Test
+    public void givenEmployees_whenWriteCbor_thenEachItemDecodesOnItsOwn() throws Exception {
+        // given - precondition or setup
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // when - action or behavior that we are going to test
+        try (EmployeeExportWriter writer = EmployeeExportWriter.open(ExportFormat.CBOR, out, new ObjectMapper())) {
+            writer.write(employee);
+            writer.write(employee);
+        }
+
+        // then - verify the output
+        List<Employee> employees = new CBORMapper().readerFor(Employee.class)
+                .<Employee>readValues(out.toByteArray()).readAll();
+        assertThat(employees).hasSize(2);
+        assertThat(employees.get(1).getLastName()).isEqualTo(employee.getLastName());
+    }
+}
@@ -0,0 +1,86 @@
+package com.testing.udemy.project.testingproject.demo.querylog;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlowQueryLogTest {
+
+    @AfterEach
+    public void cleanup() {
+        QueryStats.end();
+    }
+
+    private static void execute(SlowQueryLog slowQueryLog, String sql) {
+        ExecutionInfo execInfo = new ExecutionInfo();
+        execInfo.setSuccess(true);
+        List<QueryInfo> queries = List.of(new QueryInfo(sql));
+        slowQueryLog.beforeQuery(execInfo, queries);
+        slowQueryLog.afterQuery(execInfo, queries);
+    }
+
+    @DisplayName("Junit test for statements below the threshold without sampling")
+    @Test
+    public void givenFastStatements_whenExecuted_thenCountedForRequestButNotLogged() {
+        // given - precondition or setup
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ofHours(1), 0.0, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        slowQueryLog.bindTo(registry);
+        QueryStats stats = QueryStats.begin("GET /api/employees");
+
+        // when - action or behavior that we are going to test
+        execute(slowQueryLog, "select 1");
+        execute(slowQueryLog, "select 2");
+
+        // then - verify the output
+        assertThat(stats.getQueries()).isEqualTo(2);
+        assertThat(stats.getNanos()).isPositive();
+        assertThat(registry.get("employee.queries.logged").tag("kind", "slow").functionCounter().count()).isZero();
+        assertThat(registry.get("employee.queries.logged").tag("kind", "sampled").functionCounter().count()).isZero();
+    }
+
+    @DisplayName("Junit test for dropping entries once the writer queue is full")
+    @Test
+    public void givenFullQueue_whenSlowStatementExecuted_thenEntryIsDroppedAndCounted() {
+        // given - precondition or setup
+        SlowQueryLog slowQueryLog = new SlowQueryLog(Duration.ZERO, 0.0, 1);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        slowQueryLog.bindTo(registry);
+
+        // when - action or behavior that we are going to test
+        execute(slowQueryLog, "select 1");
+        execute(slowQueryLog, "select 2");
+
+        // then - verify the output
+        assertThat(registry.get("employee.queries.logged").tag("kind", "slow").functionCounter().count()).isEqualTo(2);
+        assertThat(registry.get("employee.queries.log.dropped").functionCounter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("Junit test for the log line of a batch statement")
+    @Test
+    public void givenBatchStatement_whenFormatted_thenShowsFirstParameterSetsAndCount() {
+        // given - precondition or setup
+        List<Object[]> parameterSets = new ArrayList<>();
+        parameterSets.add(new Object[]{"Paseka", 7L});
+        parameterSets.add(new Object[]{null, new byte[3]});
+        SlowQueryLog.Entry entry = new SlowQueryLog.Entry(true, 152_300_000, true, "EmployeeRepository.insertAll",
+                "POST /api/employees/batch", List.of(new SlowQueryLog.Statement(
+                "insert into employees (last_name, version) values (?, ?)", parameterSets, 12)));
+
+        // when - action or behavior that we are going to test
+        String message = SlowQueryLog.format(entry);
+
+        // then - verify the output
+        assertThat(message).isEqualTo("Slow query 152.30 ms in EmployeeRepository.insertAll for POST /api/employees/batch:"
+                + " insert into employees (last_name, version) values (?, ?) with ('Paseka', 7), (null, byte[3]) and 10 more");
+    }
+}
@@ -0,0 +1,70 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+public class EmployeeRepositoryBatchTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @DisplayName("Junit test for batch insert assigning generated ids")
+    @Test
+    public void givenEmployees_whenInsertAll_thenIdsAreAssigned() {
+
+        // given - precondition on setup
+        List<Employee> employees = List.of(
+                Employee.builder().firstName("Sebastian").lastName("Paseka").email("paseka@deneg.net").build(),
+                Employee.builder().firstName("Lukasz").lastName("Paseka").email("lukasz@deneg.net").build());
+
+        // when - action or behavior that we are going to test
+        employeeRepository.insertAll(employees);
+
+        // then - verify the output
+        assertThat(employees).allMatch(employee -> employee.getId() > 0);
+        assertThat(employeeRepository.getEmployeeById(employees.get(1).getId()))
+                .hasValueSatisfying(employee -> assertThat(employee.getEmail()).isEqualTo("lukasz@deneg.net"));
+    }
+
+    @DisplayName("Junit test for finding taken emails of a chunk in one query")
+    @Test
+    public void givenEmployees_whenFindExistingEmails_thenReturnOnlyTakenEmails() {
+
+        // given - precondition on setup
+        employeeRepository.save(Employee.builder().firstName("Sebastian").lastName("Paseka").email("Paseka@deneg.net").build());
+
+        // when - action or behavior that we are going to test
+        List<String> existing = employeeRepository.findExistingEmails(List.of("paseka@deneg.net", "free@deneg.net"));
+
+        // then - verify the output
+        assertThat(existing).containsExactly("paseka@deneg.net");
+    }
+
+    @DisplayName("Junit test for unique email index ignoring case")
+    @Test
+    public void givenEmailDifferingInCase_whenInsertAll_thenUniqueIndexRejectsIt() {
+
+        // given - precondition on setup
+        employeeRepository.save(Employee.builder().firstName("Sebastian").lastName("Paseka").email("paseka@deneg.net").build());
+        List<Employee> duplicates = List.of(
+                Employee.builder().firstName("Sebastian").lastName("Paseka").email("Paseka@Deneg.net").build());
+
+        // when - action or behavior that we are going to test
+
+        // then - verify the output
+        assertThatThrownBy(() -> employeeRepository.insertAll(duplicates))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasMessageContaining(Employee.EMAIL_UNIQUE_CONSTRAINT.toUpperCase());
+    }
+}
@@ -0,0 +1,286 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.cache.SecondLevelCacheEvictor;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeConfiguration;
+import com.testing.udemy.project.testingproject.demo.config.SecondLevelCacheConfiguration;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not transactional: entities and query results reach the shared cache only once a transaction commits
+@DataJpaTest(properties = {
+        "database=employee_cache",
+        "employee.second-level-cache.enabled=true",
+        "employee.second-level-cache.regions.employee-entities.maximum-size=100",
+        "employee.second-level-cache.regions.employee-queries.maximum-size=100"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+@Import({EmployeeConfiguration.class, SecondLevelCacheConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class EmployeeRepositoryCacheTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private SecondLevelCacheEvictor secondLevelCacheEvictor;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Sebastian")
+                .lastName("Paseka")
+                .email("paseka@deneg.net")
+                .build());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        jdbcTemplate.update("delete from employees");
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @DisplayName("Junit test for employee by id served from the second-level cache without SQL")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenNoStatementIsIssued() {
+
+        // given - precondition on setup
+        employeeRepository.getEmployeeById(employee.getId());
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        // when - action or behavior that we are going to test
+        Employee cached = employeeRepository.getEmployeeById(employee.getId()).orElseThrow();
+
+        // then - verify the output
+        assertThat(cached.getEmail()).isEqualTo("paseka@deneg.net");
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @DisplayName("Junit test for a multi-id lookup reading only the employees the cache misses, with one statement")
+    @Test
+    public void givenOneCachedEmployee_whenGetEmployeesByIds_thenOneStatementForTheRest() {
+
+        // given - precondition on setup
+        Employee other = employeeRepository.save(Employee.builder()
+                .firstName("Lolik")
+                .lastName("Bolik")
+                .email("lolikbolik@deneg.net")
+                .build());
+        Employee third = employeeRepository.save(Employee.builder()
+                .firstName("Adam")
+                .lastName("Madam")
+                .email("madam@deneg.net")
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        employeeRepository.getEmployeeById(employee.getId());
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeRepository.getEmployeesByIds(
+                List.of(employee.getId(), other.getId(), third.getId(), Long.MAX_VALUE));
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId)
+                .containsExactlyInAnyOrder(employee.getId(), other.getId(), third.getId());
+        assertThat(statistics.getSecondLevelCacheHitCount()).isEqualTo(hits + 1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements + 1);
+    }
+
+    @DisplayName("Junit test for repeated name and email lookups served from the query cache without SQL")
+    @Test
+    public void givenCachedQueries_whenRepeated_thenNoStatementIsIssued() {
+
+        // given - precondition on setup
+        PageRequest page = PageRequest.of(0, 10);
+        employeeRepository.findByNamePrefix(LikePatterns.startingWith("Pas"), LikePatterns.startingWith("Seb"), page);
+        employeeRepository.findEmployeeByEmail("paseka@deneg.net");
+        employeeRepository.findEmployeeByFirstAndLastNameUsingNativeSQL("Sebastian", "Paseka");
+        long statements = statistics.getPrepareStatementCount();
+        long hits = statistics.getQueryCacheHitCount();
+
+        // when - action or behavior that we are going to test
+        List<Employee> byName = employeeRepository.findByNamePrefix(
+                LikePatterns.startingWith("Pas"), LikePatterns.startingWith("Seb"), page);
+        boolean byEmail = employeeRepository.findEmployeeByEmail("paseka@deneg.net").isPresent();
+        boolean byNativeName = employeeRepository.findEmployeeByFirstAndLastNameUsingNativeSQL("Sebastian", "Paseka").isPresent();
+
+        // then - verify the output
+        assertThat(byName).extracting(Employee::getId).containsExactly(employee.getId());
+        assertThat(byEmail).isTrue();
+        assertThat(byNativeName).isTrue();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hits + 3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @DisplayName("Junit test for repeated version lookups of conditional requests served from the query cache")
+    @Test
+    public void givenCachedVersions_whenRepeated_thenNoStatementIsIssued() {
+
+        // given - precondition on setup
+        PageRequest page = PageRequest.of(0, 10, Sort.by("id"));
+        employeeRepository.findVersionById(employee.getId());
+        employeeRepository.findVersionsBy(page);
+        long statements = statistics.getPrepareStatementCount();
+
+        // when - action or behavior that we are going to test
+        Optional<Long> version = employeeRepository.findVersionById(employee.getId());
+        List<EmployeeVersion> versions = employeeRepository.findVersionsBy(page);
+
+        // then - verify the output
+        assertThat(version).contains(employee.getVersion());
+        assertThat(versions).extracting(EmployeeVersion::getId).containsExactly(employee.getId());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(statements);
+    }
+
+    @DisplayName("Junit test for a write through Hibernate invalidating cached name lookups")
+    @Test
+    public void givenCachedQuery_whenEmployeeSaved_thenQueryIsExecutedAgain() {
+
+        // given - precondition on setup
+        PageRequest page = PageRequest.of(0, 10);
+        employeeRepository.findByNamePrefix(LikePatterns.startingWith("Pas"), LikePatterns.startingWith(""), page);
+        employeeRepository.save(Employee.builder()
+                .firstName("Lukasz")
+                .lastName("Paseka")
+                .email("lukasz@deneg.net")
+                .build());
+
+        // when - action or behavior that we are going to test
+        List<Employee> byName = employeeRepository.findByNamePrefix(
+                LikePatterns.startingWith("Pas"), LikePatterns.startingWith(""), page);
+
+        // then - verify the output
+        assertThat(byName).extracting(Employee::getFirstName).containsExactly("Lukasz", "Sebastian");
+    }
+
+    @DisplayName("Junit test for a write bypassing Hibernate evicted through its change event")
+    @Test
+    public void givenCachedEmployee_whenChangedOutsideHibernate_thenEventEvictsIt() {
+
+        // given - precondition on setup
+        employeeRepository.getEmployeeById(employee.getId());
+        employeeRepository.findEmployeeByEmail("paseka@deneg.net");
+        jdbcTemplate.update("update employees set first_name = ? where id = ?", "Seba", employee.getId());
+
+        // when - action or behavior that we are going to test
+        secondLevelCacheEvictor.onEmployeeChanged(EmployeeChangedEvent.updated(employee).outsideHibernate());
+
+        // then - verify the output
+        assertThat(employeeRepository.getEmployeeById(employee.getId()))
+                .hasValueSatisfying(reloaded -> assertThat(reloaded.getFirstName()).isEqualTo("Seba"));
+        assertThat(employeeRepository.findEmployeeByEmail("paseka@deneg.net"))
+                .hasValueSatisfying(reloaded -> assertThat(reloaded.getFirstName()).isEqualTo("Seba"));
+    }
+
+    @DisplayName("Junit test for the change event of a Hibernate write leaving cached queries to Hibernate")
+    @Test
+    public void givenCachedQuery_whenHibernateWriteEventPublished_thenQueryStaysCached() {
+
+        // given - precondition on setup
+        employeeRepository.findEmployeeByEmail("paseka@deneg.net");
+        long hits = statistics.getQueryCacheHitCount();
+
+        // when - action or behavior that we are going to test
+        secondLevelCacheEvictor.onEmployeeChanged(EmployeeChangedEvent.updated(employee));
+        boolean byEmail = employeeRepository.findEmployeeByEmail("paseka@deneg.net").isPresent();
+
+        // then - verify the output
+        assertThat(byEmail).isTrue();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(hits + 1);
+    }
+
+    @DisplayName("Junit test for export and search scans leaving the entity region alone")
+    @Test
+    public void givenEmptyEntityRegion_whenStreamAllAndSearchByTokens_thenNothingIsCached() {
+
+        // given - precondition on setup
+        entityManagerFactory.getCache().evictAll();
+        long puts = statistics.getSecondLevelCachePutCount();
+
+        // when - action or behavior that we are going to test
+        long exported = new TransactionTemplate(transactionManager).execute(status -> {
+            try (Stream<Employee> employees = employeeRepository.streamAll()) {
+                return employees.count();
+            }
+        });
+        List<Employee> found = employeeRepository.searchByTokens(List.of("pas"), 10);
+
+        // then - verify the output
+        assertThat(exported).isEqualTo(1);
+        assertThat(found).extracting(Employee::getId).containsExactly(employee.getId());
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, employee.getId())).isFalse();
+        assertThat(statistics.getSecondLevelCachePutCount()).isEqualTo(puts);
+    }
+
+    @DisplayName("Junit test for a single-row patch and delete leaving the other cached employees in place")
+    @Test
+    public void givenCachedEmployees_whenOnePatchedAndAnotherDeleted_thenTheRestStaysCached() {
+
+        // given - precondition on setup
+        Employee patched = employeeRepository.save(Employee.builder()
+                .firstName("Lolik")
+                .lastName("Bolik")
+                .email("lolikbolik@deneg.net")
+                .build());
+        Employee deleted = employeeRepository.save(Employee.builder()
+                .firstName("Adam")
+                .lastName("Madam")
+                .email("madam@deneg.net")
+                .build());
+        entityManagerFactory.getCache().evictAll();
+        List.of(employee, patched, deleted).forEach(cached -> employeeRepository.getEmployeeById(cached.getId()));
+
+        // when - action or behavior that we are going to test
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Employee loaded = employeeRepository.getEmployeeById(patched.getId()).orElseThrow();
+            loaded.setFirstName("Lolek");
+            employeeRepository.saveAndFlush(loaded);
+        });
+        int deletedRows = employeeRepository.deleteEmployeeById(deleted.getId());
+        int missingRows = employeeRepository.deleteEmployeeById(Long.MAX_VALUE);
+
+        // then - verify the output
+        assertThat(deletedRows).isEqualTo(1);
+        assertThat(missingRows).isZero();
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, employee.getId())).isTrue();
+        assertThat(employeeRepository.getEmployeeById(patched.getId()))
+                .hasValueSatisfying(reloaded -> assertThat(reloaded.getFirstName()).isEqualTo("Lolek"));
+        assertThat(employeeRepository.getEmployeeById(deleted.getId())).isEmpty();
+    }
+}
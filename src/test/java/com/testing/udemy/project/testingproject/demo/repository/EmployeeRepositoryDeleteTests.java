@@ -0,0 +1,83 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+public class EmployeeRepositoryDeleteTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Employee first;
+    private Employee second;
+    private Employee third;
+
+    @BeforeEach
+    public void setup() {
+        first = employeeRepository.save(Employee.builder()
+                .firstName("Sebastian").lastName("Paseka").email("paseka@deneg.net").build());
+        second = employeeRepository.save(Employee.builder()
+                .firstName("Lukasz").lastName("Paseka").email("Lukasz@Deneg.net").build());
+        third = employeeRepository.save(Employee.builder()
+                .firstName("Adam").lastName("Madam").email("adam@deneg_net.com").build());
+    }
+
+    @DisplayName("Junit test for set-based delete by ids")
+    @Test
+    public void givenIds_whenDeleteAllByIdIn_thenReturnDeletedCount() {
+
+        // given - precondition on setup
+        List<Long> ids = List.of(first.getId(), third.getId(), third.getId() + 100);
+
+        // when - action or behavior that we are going to test
+        int deleted = employeeRepository.deleteAllByIdIn(ids);
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(2);
+        assertThat(employeeRepository.getEmployeeById(first.getId())).isEmpty();
+        assertThat(employeeRepository.getEmployeeById(second.getId())).isNotEmpty();
+    }
+
+    @DisplayName("Junit test for locking the ids of a delete chunk that still exist")
+    @Test
+    public void givenIds_whenLockExistingIds_thenReturnOnlyExistingRows() {
+
+        // given - precondition on setup
+        List<Long> ids = List.of(first.getId(), third.getId(), third.getId() + 100);
+
+        // when - action or behavior that we are going to test
+        List<Long> existingIds = employeeRepository.lockExistingIds(ids);
+
+        // then - verify the output
+        assertThat(existingIds).containsExactlyInAnyOrder(first.getId(), third.getId());
+    }
+
+    @DisplayName("Junit test for finding ids of an email domain chunk by chunk")
+    @Test
+    public void givenEmailDomain_whenFindIdsByEmailLike_thenReturnIdsAfterCursor() {
+
+        // given - precondition on setup
+        String pattern = LikePatterns.endingWith("@deneg.net");
+
+        // when - action or behavior that we are going to test
+        List<Long> firstChunk = employeeRepository.findIdsByEmailLike(pattern, 0, PageRequest.of(0, 1));
+        List<Long> secondChunk = employeeRepository.findIdsByEmailLike(pattern, firstChunk.get(0), PageRequest.of(0, 1));
+        List<Long> lastChunk = employeeRepository.findIdsByEmailLike(pattern, secondChunk.get(0), PageRequest.of(0, 1));
+
+        // then - verify the output
+        assertThat(firstChunk).containsExactly(first.getId());
+        assertThat(secondChunk).containsExactly(second.getId());
+        assertThat(lastChunk).isEmpty();
+    }
+}
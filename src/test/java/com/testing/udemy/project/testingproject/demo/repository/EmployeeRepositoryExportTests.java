@@ -0,0 +1,52 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+public class EmployeeRepositoryExportTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    @DisplayName("Junit test for streaming all employees without keeping them managed")
+    @Test
+    public void givenEmployees_whenStreamAll_thenReturnDetachedEmployeesInIdOrder() {
+
+        // given - precondition on setup
+        for (int i = 0; i < 5; i++) {
+            employeeRepository.save(Employee.builder()
+                    .firstName("Sebastian" + i)
+                    .lastName("Paseka")
+                    .email("paseka" + i + "@deneg.net")
+                    .build());
+        }
+        testEntityManager.flush();
+        testEntityManager.clear();
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees;
+        try (Stream<Employee> stream = employeeRepository.streamAll()) {
+            employees = stream.collect(Collectors.toList());
+        }
+
+        // then - verify the output
+        assertThat(employees).hasSize(5);
+        assertThat(employees).isSortedAccordingTo((a, b) -> Long.compare(a.getId(), b.getId()));
+        assertThat(employees).noneMatch(testEntityManager.getEntityManager()::contains);
+    }
+}
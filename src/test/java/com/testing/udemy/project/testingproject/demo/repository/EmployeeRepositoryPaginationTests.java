@@ -0,0 +1,118 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeeVersion;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("h2")
+public class EmployeeRepositoryPaginationTests {
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Employee first;
+    private Employee second;
+    private Employee third;
+
+    @BeforeEach
+    public void setup() {
+        first = employeeRepository.save(Employee.builder()
+                .firstName("Sebastian")
+                .lastName("Paseka")
+                .email("paseka@deneg.net")
+                .build());
+        second = employeeRepository.save(Employee.builder()
+                .firstName("Adam")
+                .lastName("Madam")
+                .email("madam@deneg.net")
+                .build());
+        third = employeeRepository.save(Employee.builder()
+                .firstName("Adam")
+                .lastName("Madam")
+                .email("madam2@deneg.net")
+                .build());
+    }
+
+    @DisplayName("Junit test for keyset page after id")
+    @Test
+    public void givenEmployees_whenFindPageAfterId_thenReturnRowsAfterCursor() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> page = employeeRepository.findPageAfterId(first.getId(), PageRequest.of(0, 10));
+
+        // then - verify the output
+        assertThat(page).extracting(Employee::getId).containsExactly(second.getId(), third.getId());
+    }
+
+    @DisplayName("Junit test for keyset page after name breaks ties by id")
+    @Test
+    public void givenEmployeesWithSameName_whenFindPageAfterName_thenReturnRowsAfterCursor() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> page = employeeRepository.findPageAfterName(
+                second.getLastName(), second.getFirstName(), second.getId(), PageRequest.of(0, 10));
+
+        // then - verify the output
+        assertThat(page.stream().map(Employee::getId).collect(Collectors.toList()))
+                .containsExactly(third.getId(), first.getId());
+    }
+
+    @DisplayName("Junit test for keyset page size")
+    @Test
+    public void givenEmployees_whenFindPageAfterIdWithLimit_thenReturnLimitedRows() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> page = employeeRepository.findPageAfterId(0, PageRequest.of(0, 2));
+
+        // then - verify the output
+        assertThat(page).extracting(Employee::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @DisplayName("Junit test for versions of an offset page")
+    @Test
+    public void givenEmployees_whenFindVersionsBy_thenReturnIdsAndVersionsInIdOrder() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<EmployeeVersion> versions = employeeRepository.findVersionsBy(PageRequest.of(0, 2, Sort.by("id")));
+
+        // then - verify the output
+        assertThat(versions).extracting(EmployeeVersion::getId).containsExactly(first.getId(), second.getId());
+        assertThat(versions).extracting(EmployeeVersion::getVersion).containsExactly(first.getVersion(), second.getVersion());
+    }
+
+    @DisplayName("Junit test for version of an employee by id")
+    @Test
+    public void givenEmployee_whenFindVersionById_thenReturnVersionOrEmpty() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        Optional<Long> version = employeeRepository.findVersionById(third.getId());
+        Optional<Long> missing = employeeRepository.findVersionById(third.getId() + 1);
+
+        // then - verify the output
+        assertThat(version).contains(third.getVersion());
+        assertThat(missing).isEmpty();
+    }
+}
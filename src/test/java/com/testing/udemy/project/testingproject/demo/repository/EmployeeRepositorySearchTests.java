@@ -0,0 +1,143 @@
+package com.testing.udemy.project.testingproject.demo.repository;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Runs on the profile's H2 URL rather than a generated one, so names compare case-insensitively as in MySQL
+@DataJpaTest(properties = {
+        "database=employee_search",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.testing.udemy.project.testingproject.demo.repository.EmployeeRepositorySearchTests$LastStatement"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("h2")
+public class EmployeeRepositorySearchTests {
+
+    // Keeps the SQL of the last statement Hibernate prepared, so a test can EXPLAIN exactly that
+    public static class LastStatement implements StatementInspector {
+        static volatile String sql;
+
+        @Override
+        public String inspect(String sql) {
+            LastStatement.sql = sql;
+            return sql;
+        }
+    }
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Employee first;
+    private Employee second;
+    private Employee third;
+
+    @BeforeEach
+    public void setup() {
+        first = employeeRepository.save(Employee.builder()
+                .firstName("Sebastian").lastName("Paseka").email("paseka@deneg.net").build());
+        second = employeeRepository.save(Employee.builder()
+                .firstName("Sebastian").lastName("Paseka").email("paseka2@deneg.net").build());
+        third = employeeRepository.save(Employee.builder()
+                .firstName("Adam").lastName("Pas_eka").email("adam@deneg.net").build());
+        employeeRepository.save(Employee.builder()
+                .firstName("Adam").lastName("Madam").email("madam@deneg.net").build());
+    }
+
+    @DisplayName("Junit test for case-insensitive prefix search returning duplicated names")
+    @Test
+    public void givenDuplicatedNames_whenFindByNamePrefix_thenReturnAllMatches() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeRepository.findByNamePrefix(
+                LikePatterns.startingWith("pase"), LikePatterns.startingWith("SEB"), PageRequest.of(0, 10));
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(first.getId(), second.getId());
+    }
+
+    @DisplayName("Junit test for prefix search treating wildcards literally")
+    @Test
+    public void givenUnderscoreInPrefix_whenFindByNamePrefix_thenMatchItLiterally() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeRepository.findByNamePrefix(
+                LikePatterns.startingWith("Pas_"), "%", PageRequest.of(0, 10));
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(third.getId());
+    }
+
+    @DisplayName("Junit test for prefix search page after a name cursor")
+    @Test
+    public void givenCursor_whenFindByNamePrefixAfter_thenReturnRowsAfterCursor() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeRepository.findByNamePrefixAfter(LikePatterns.startingWith("Pase"), "%",
+                first.getLastName(), first.getFirstName(), first.getId(), PageRequest.of(0, 10));
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(second.getId());
+    }
+
+    @DisplayName("Junit test for prefix search using the last/first name index")
+    @Test
+    public void givenPrefixSearch_whenExplain_thenNameIndexIsUsed() {
+
+        // given - precondition on setup
+        employeeRepository.findByNamePrefix(LikePatterns.startingWith("Pase"), "%", PageRequest.of(0, 21));
+        String sql = LastStatement.sql;
+
+        // when - action or behavior that we are going to test
+        String plan = jdbcTemplate.queryForObject("explain " + sql, String.class, "Pase%", "%", 21);
+
+        // then - verify the output
+        assertThat(plan).containsIgnoringCase("idx_employees_last_first").containsIgnoringCase("index sorted");
+    }
+
+    @DisplayName("Junit test for token search matching every token on any field")
+    @Test
+    public void givenTokens_whenSearchByTokens_thenReturnEmployeesMatchingAll() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeRepository.searchByTokens(List.of("seb", "seka2"), 10);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(second.getId());
+    }
+
+    @DisplayName("Junit test for token search matching short tokens only at the start of a field")
+    @Test
+    public void givenShortToken_whenSearchByTokens_thenMatchFieldStartsOnly() {
+
+        // given - precondition on setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeRepository.searchByTokens(List.of("ma"), 10);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getLastName).containsExactly("Madam");
+    }
+}
@@ -0,0 +1,75 @@
+package com.testing.udemy.project.testingproject.demo.search;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeSearchIndexTest {
+    @Mock
+    private EmployeeRepository employeeRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @BeforeEach
+    public void setup() {
+        EmployeeProperties employeeProperties = new EmployeeProperties();
+        employeeProperties.getSearchIndex().setEnabled(true);
+        employeeSearchIndex = new EmployeeSearchIndex(employeeProperties, employeeRepository, transactionManager);
+    }
+
+    @AfterEach
+    public void teardown() {
+        employeeSearchIndex.shutdown();
+    }
+
+    @DisplayName("Junit test for query tokenizing")
+    @Test
+    public void givenQuery_whenTokenize_thenReturnDistinctLowerCasedTokens() {
+        // given - precondition or setup
+        String query = "  Seb\tPASEKA seb ";
+
+        // when - action or behavior that we are going to test
+        List<String> tokens = EmployeeSearchIndex.tokenize(query);
+
+        // then - verify the output
+        assertThat(tokens).containsExactly("seb", "paseka");
+        assertThat(EmployeeSearchIndex.tokenize("   ")).isEmpty();
+    }
+
+    @DisplayName("Junit test for index built from the table and kept up to date on writes")
+    @Test
+    public void givenBuiltIndex_whenEmployeesWritten_thenSearchSeesTheWrites() {
+        // given - precondition or setup
+        Employee paseka = Employee.builder().id(1L).firstName("Sebastian").lastName("Paseka").email("paseka@deneg.net").build();
+        given(employeeRepository.streamAll()).willReturn(Stream.of(paseka));
+        employeeSearchIndex.rebuild();
+
+        // when - action or behavior that we are going to test
+        employeeSearchIndex.onEmployeeChanged(EmployeeChangedEvent.created(
+                Employee.builder().id(2L).firstName("Adam").lastName("Madam").email("madam@deneg.net").build()));
+        employeeSearchIndex.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+
+        // then - verify the output
+        assertThat(employeeSearchIndex.isReady()).isTrue();
+        assertThat(employeeSearchIndex.search(List.of("madam"), 10)).extracting(Employee::getId).containsExactly(2L);
+        assertThat(employeeSearchIndex.search(List.of("paseka"), 10)).isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package com.testing.udemy.project.testingproject.demo.search;
+
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class NgramIndexTest {
+
+    private NgramIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new NgramIndex(16);
+        index.put(employee(1L, "Sebastian", "Paseka", "paseka@deneg.net", 0));
+        index.put(employee(2L, "Adam", "Madam", "madam@deneg.net", 0));
+        index.put(employee(3L, "Lolik", "Bolik", "lolikbolik@gmail.com", 0));
+    }
+
+    @DisplayName("Junit test for substring match of long tokens on any field")
+    @Test
+    public void givenLongToken_whenSearch_thenMatchAnywhereInAnyField() {
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> byLastName = index.search(List.of("asek"), 10);
+        byLastName.get(0).setEmail("changed@deneg.net");
+        List<Employee> byEmail = index.search(List.of("gmail"), 10);
+
+        // then - verify the output
+        assertThat(byLastName).extracting(Employee::getId).containsExactly(1L);
+        assertThat(byEmail).extracting(Employee::getId).containsExactly(3L);
+        assertThat(index.search(List.of("asek"), 10)).extracting(Employee::getEmail).containsExactly("paseka@deneg.net");
+    }
+
+    @DisplayName("Junit test for short tokens matching only the start of a field")
+    @Test
+    public void givenShortToken_whenSearch_thenMatchFieldStartsOnly() {
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = index.search(List.of("ma"), 10);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(2L);
+    }
+
+    @DisplayName("Junit test for every token having to match and trigrams spread across fields not matching")
+    @Test
+    public void givenSeveralTokens_whenSearch_thenReturnOnlyEmployeesMatchingAll() {
+        // given - precondition or setup
+
+        // when - action or behavior that we are going to test
+        List<Employee> both = index.search(List.of("lo", "bolik"), 10);
+        List<Employee> none = index.search(List.of("adam", "paseka"), 10);
+        // Every trigram of "asebas" is in Paseka's names, but the token itself is in no single field
+        List<Employee> spread = index.search(List.of("asebas"), 10);
+
+        // then - verify the output
+        assertThat(both).extracting(Employee::getId).containsExactly(3L);
+        assertThat(none).isEmpty();
+        assertThat(spread).isEmpty();
+    }
+
+    @DisplayName("Junit test for updates replacing, deletes removing and stale copies being ignored")
+    @Test
+    public void givenWrites_whenSearch_thenReflectLatestVersionOnly() {
+        // given - precondition or setup
+        index.put(employee(1L, "Sebastian", "Nowak", "nowak@deneg.net", 1));
+        index.put(employee(1L, "Sebastian", "Paseka", "paseka@deneg.net", 0));
+        index.remove(2L);
+        index.put(employee(2L, "Adam", "Madam", "madam@deneg.net", 0));
+
+        // when - action or behavior that we are going to test
+        List<Employee> renamed = index.search(List.of("nowak"), 10);
+        List<Employee> oldName = index.search(List.of("paseka"), 10);
+        List<Employee> deleted = index.search(List.of("madam"), 10);
+
+        // then - verify the output
+        assertThat(renamed).extracting(Employee::getVersion).containsExactly(1L);
+        assertThat(oldName).isEmpty();
+        assertThat(deleted).isEmpty();
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.retired()).isEqualTo(2);
+    }
+
+    @DisplayName("Junit test for search stopping at the limit in insertion order")
+    @Test
+    public void givenManyMatches_whenSearchWithLimit_thenReturnFirstMatchesOnly() {
+        // given - precondition or setup
+        for (long id = 10; id < 1010; id++) {
+            index.put(employee(id, "Jan", "Kowalski" + id, "jan" + id + "@deneg.net", 0));
+        }
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = index.search(List.of("kowal", "j"), 3);
+
+        // then - verify the output
+        assertThat(employees).extracting(Employee::getId).containsExactly(10L, 11L, 12L);
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email, long version) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(email)
+                .version(version)
+                .build();
+    }
+}
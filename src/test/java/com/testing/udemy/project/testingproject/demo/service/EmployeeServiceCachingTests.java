@@ -0,0 +1,158 @@
+package com.testing.udemy.project.testingproject.demo.service;
+
+import com.testing.udemy.project.testingproject.demo.cache.EmployeeCacheEvictor;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.email.KnownEmailFilter;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCounts;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import com.testing.udemy.project.testingproject.demo.search.EmployeeSearchIndex;
+import com.testing.udemy.project.testingproject.demo.service.impl.EmployeeLoader;
+import com.testing.udemy.project.testingproject.demo.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+import org.springframework.transaction.support.TransactionOperations;
+
+import javax.validation.Validator;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringJUnitConfig(EmployeeServiceCachingTests.CachingConfiguration.class)
+public class EmployeeServiceCachingTests {
+
+    // Not a @Configuration, so component scans of the application never pick it up from the test classpath
+    @EnableCaching
+    @Import({EmployeeServiceImpl.class, EmployeeLoader.class, EmployeeCacheEvictor.class})
+    static class CachingConfiguration {
+        @Bean
+        public CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(EmployeeCacheEvictor.EMPLOYEES);
+        }
+
+        @Bean
+        public EmployeeProperties employeeProperties() {
+            return new EmployeeProperties();
+        }
+    }
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+    @MockBean
+    private TransactionOperations transactionOperations;
+    @MockBean
+    private Validator validator;
+    @MockBean
+    private KnownEmailFilter knownEmailFilter;
+    @MockBean
+    private EmployeeSearchIndex employeeSearchIndex;
+    @MockBean
+    private EmployeeCounts employeeCounts;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(EmployeeCacheEvictor.EMPLOYEES).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Sebastian")
+                .lastName("Paseka")
+                .email("paseka@deneg.net")
+                .build();
+    }
+
+    @DisplayName("Junit test for getEmployeeById method served from the cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenRepositoryIsQueriedOnce() {
+
+        // given - precondition on setup
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or behavior that we are going to test
+        Optional<Employee> first = employeeService.getEmployeeById(1L);
+        Optional<Employee> second = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(first).contains(employee);
+        assertThat(second).contains(employee);
+        verify(employeeRepository, times(1)).getEmployeeById(1L);
+    }
+
+    @DisplayName("Junit test for getEmployeeById method caching missing employees")
+    @Test
+    public void givenMissingEmployee_whenGetEmployeeById_thenEmptyResultIsCached() {
+
+        // given - precondition on setup
+        given(employeeRepository.getEmployeeById(2L)).willReturn(Optional.empty());
+
+        // when - action or behavior that we are going to test
+        employeeService.getEmployeeById(2L);
+        Optional<Employee> second = employeeService.getEmployeeById(2L);
+
+        // then - verify the output
+        assertThat(second).isEmpty();
+        verify(employeeRepository, times(1)).getEmployeeById(2L);
+    }
+
+    @DisplayName("Junit test for updateEmployee method evicting the cached employee")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenNextGetReadsRepository() {
+
+        // given - precondition on setup
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Adam")
+                .lastName("Madam")
+                .email("adamadam@deneg.net")
+                .build();
+        given(employeeRepository.getEmployeeById(1L))
+                .willReturn(Optional.of(employee), Optional.of(updatedEmployee));
+        given(employeeRepository.save(updatedEmployee)).willReturn(updatedEmployee);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or behavior that we are going to test
+        employeeService.updateEmployee(updatedEmployee);
+        Optional<Employee> afterUpdate = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(afterUpdate).contains(updatedEmployee);
+        verify(employeeRepository, times(2)).getEmployeeById(1L);
+    }
+
+    @DisplayName("Junit test for deleteEmployeeById method evicting the cached employee")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployeeById_thenNextGetReadsRepository() {
+
+        // given - precondition on setup
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee), Optional.empty());
+        given(employeeRepository.deleteEmployeeById(1L)).willReturn(1);
+        employeeService.getEmployeeById(1L);
+
+        // when - action or behavior that we are going to test
+        employeeService.deleteEmployeeById(1L);
+        Optional<Employee> afterDelete = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(afterDelete).isEmpty();
+        verify(employeeRepository, times(2)).getEmployeeById(1L);
+    }
+}
@@ -0,0 +1,168 @@
+package com.testing.udemy.project.testingproject.demo.service;
+
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.exception.ResourceNotFoundException;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// A long linger and a group of three: the third create flushes the group, so the three always share it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "database=group_commit",
+        "employee.group-commit.enabled=true",
+        "employee.group-commit.linger=10s",
+        "employee.group-commit.max-batch-size=3"})
+@ActiveProfiles("h2")
+public class EmployeeServiceGroupCommitTests {
+
+    // Records the thread every change event was published on
+    @TestConfiguration
+    static class ChangeThreads {
+        final Map<Long, Thread> threads = new ConcurrentHashMap<>();
+
+        @EventListener
+        public void onEmployeeChanged(EmployeeChangedEvent event) {
+            threads.put(event.getEmployeeId(), Thread.currentThread());
+        }
+    }
+
+    @Autowired
+    private EmployeeService employeeService;
+    @Autowired
+    private EmployeeRepository employeeRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ChangeThreads changeThreads;
+
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    public void setup() {
+        employeeRepository.save(Employee.builder()
+                .firstName("Sebastian")
+                .lastName("Paseka")
+                .email("paseka@deneg.net")
+                .build());
+    }
+
+    @AfterEach
+    public void cleanup() {
+        callers.shutdownNow();
+        jdbcTemplate.update("delete from employees");
+    }
+
+    private static Employee employee(String firstName, String email) {
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName("Bolik")
+                .email(email)
+                .build();
+    }
+
+    private List<Future<Employee>> saveConcurrently(Employee... employees) {
+        List<Future<Employee>> results = new ArrayList<>();
+        for (Employee employee : employees) {
+            results.add(callers.submit(() -> employeeService.saveEmployee(employee)));
+        }
+        return results;
+    }
+
+    @DisplayName("Junit test for concurrent creates committed as one group, each with its own id")
+    @Test
+    public void givenConcurrentCreates_whenSaveEmployee_thenEachGetsItsOwnIdOrDuplicateError() throws Exception {
+        // given - precondition or setup
+        Employee lolik = employee("Lolik", "lolik@deneg.net");
+        Employee bolik = employee("Bolik", "bolik@deneg.net");
+        Employee duplicate = employee("Sebastian", "PASEKA@deneg.net");
+
+        // when - action or behavior that we are going to test
+        List<Future<Employee>> results = saveConcurrently(lolik, bolik, duplicate);
+
+        // then - verify the output
+        Employee savedLolik = results.get(0).get(5, TimeUnit.SECONDS);
+        Employee savedBolik = results.get(1).get(5, TimeUnit.SECONDS);
+        assertThat(savedLolik.getId()).isPositive();
+        assertThat(savedBolik.getId()).isPositive().isNotEqualTo(savedLolik.getId());
+        assertThat(employeeRepository.findEmployeeByEmail("lolik@deneg.net")).hasValueSatisfying(
+                employee -> assertThat(employee.getId()).isEqualTo(savedLolik.getId()));
+        assertThatThrownBy(() -> results.get(2).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(ResourceNotFoundException.class);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Long.class)).isEqualTo(3);
+    }
+
+    @DisplayName("Junit test for two creates of one email in the same group")
+    @Test
+    public void givenSameEmailTwiceInGroup_whenSaveEmployee_thenOneCreatedAndOneDuplicate() throws Exception {
+        // given - precondition or setup
+        Employee first = employee("First", "twice@deneg.net");
+        Employee second = employee("Second", "Twice@deneg.net");
+        Employee other = employee("Other", "other@deneg.net");
+
+        // when - action or behavior that we are going to test
+        List<Future<Employee>> results = saveConcurrently(first, second, other);
+
+        // then - verify the output
+        int created = 0;
+        for (Future<Employee> result : results.subList(0, 2)) {
+            try {
+                assertThat(result.get(5, TimeUnit.SECONDS).getId()).isPositive();
+                created++;
+            } catch (ExecutionException e) {
+                assertThat(e.getCause()).isInstanceOf(ResourceNotFoundException.class);
+            }
+        }
+        assertThat(created).isEqualTo(1);
+        assertThat(results.get(2).get(5, TimeUnit.SECONDS).getId()).isPositive();
+    }
+
+    @DisplayName("Junit test for change events of a group published on each caller's thread")
+    @Test
+    public void givenConcurrentCreates_whenSaveEmployee_thenEachChangeIsPublishedOnItsCallersThread() throws Exception {
+        // given - precondition or setup
+        List<Employee> employees = List.of(employee("Lolik", "lolik@deneg.net"),
+                employee("Bolik", "bolik@deneg.net"), employee("Adam", "adam@deneg.net"));
+        List<CompletableFuture<Thread>> callerThreads = new ArrayList<>();
+        List<Future<Employee>> results = new ArrayList<>();
+
+        // when - action or behavior that we are going to test
+        for (Employee employee : employees) {
+            CompletableFuture<Thread> callerThread = new CompletableFuture<>();
+            callerThreads.add(callerThread);
+            results.add(callers.submit(() -> {
+                callerThread.complete(Thread.currentThread());
+                return employeeService.saveEmployee(employee);
+            }));
+        }
+
+        // then - verify the output
+        for (int i = 0; i < results.size(); i++) {
+            long id = results.get(i).get(5, TimeUnit.SECONDS).getId();
+            assertThat(changeThreads.threads.get(id)).isSameAs(callerThreads.get(i).get());
+        }
+    }
+}
@@ -1,8 +1,25 @@
 package com.testing.udemy.project.testingproject.demo.service;
 
+import com.testing.udemy.project.testingproject.demo.batch.BatchItemStatus;
+import com.testing.udemy.project.testingproject.demo.batch.BatchResult;
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.email.KnownEmailFilter;
+import com.testing.udemy.project.testingproject.demo.event.EmployeeChangedEvent;
+import com.testing.udemy.project.testingproject.demo.exception.ConcurrentUpdateException;
+import com.testing.udemy.project.testingproject.demo.exception.InvalidCursorException;
+import com.testing.udemy.project.testingproject.demo.exception.PreconditionFailedException;
 import com.testing.udemy.project.testingproject.demo.exception.ResourceNotFoundException;
 import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.model.EmployeePatch;
+import com.testing.udemy.project.testingproject.demo.pagination.CountedPage;
+import com.testing.udemy.project.testingproject.demo.pagination.CursorPage;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCounts;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeCursor;
+import com.testing.udemy.project.testingproject.demo.pagination.EmployeeSortKey;
+import com.testing.udemy.project.testingproject.demo.pagination.TotalCount;
 import com.testing.udemy.project.testingproject.demo.repository.EmployeeRepository;
+import com.testing.udemy.project.testingproject.demo.search.EmployeeSearchIndex;
+import com.testing.udemy.project.testingproject.demo.service.impl.EmployeeLoader;
 import com.testing.udemy.project.testingproject.demo.service.impl.EmployeeServiceImpl;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
@@ -11,15 +28,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionOperations;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.ArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
@@ -28,6 +58,22 @@ import static org.mockito.Mockito.*;
 public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
+    @Spy
+    private EmployeeProperties employeeProperties = new EmployeeProperties();
+    @Mock
+    private TransactionOperations transactionOperations;
+    @Mock
+    private javax.validation.Validator validator;
+    @Mock
+    private KnownEmailFilter knownEmailFilter;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @Mock
+    private EmployeeSearchIndex employeeSearchIndex;
+    @Mock
+    private EmployeeLoader employeeLoader;
+    @Mock
+    private EmployeeCounts employeeCounts;
     @InjectMocks
     private EmployeeServiceImpl employeeServiceImpl;
 
@@ -74,6 +120,74 @@ public class EmployeeServiceTests {
         verify(employeeRepository, never()).save(any(Employee.class));
     }
 
+    @DisplayName("Junit test for saveEmployee method skipping the lookup for unknown emails")
+    @Test
+    public void givenUnknownEmail_whenSaveEmployee_thenSkipLookupAndPublishEvent() {
+
+        // given - precondition on setup
+        given(knownEmailFilter.definitelyAbsent(employee.getEmail())).willReturn(true);
+        given(employeeRepository.save(employee)).willReturn(employee);
+
+        // when - action or behavior that we are going to test
+        Employee savedEmployee = employeeServiceImpl.saveEmployee(employee);
+
+        // then - verify the output
+        assertThat(savedEmployee).isNotNull();
+        verify(employeeRepository, never()).findEmployeeByEmail(any());
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    @DisplayName("Junit test for saveEmployee method translating the unique index violation")
+    @Test
+    public void givenConcurrentDuplicate_whenSaveEmployee_thenThrowException() {
+
+        // given - precondition on setup
+        given(knownEmailFilter.definitelyAbsent(employee.getEmail())).willReturn(true);
+        given(employeeRepository.save(employee)).willThrow(new DataIntegrityViolationException(
+                "Duplicate entry 'paseka@deneg.net' for key 'employees.uk_employees_email_normalized'"));
+
+        // when - action or behavior that we are going to test
+        Assertions.assertThrows(ResourceNotFoundException.class,
+                () -> employeeServiceImpl.saveEmployee(employee));
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @DisplayName("Junit test for saveEmployees method with chunks")
+    @Test
+    public void givenEmployeesAcrossChunks_whenSaveEmployees_thenReportEachRow() {
+
+        // given - precondition on setup
+        employeeProperties.getBatch().setChunkSize(2);
+        willAnswer(invocation -> {
+            Consumer<TransactionStatus> action = invocation.getArgument(0);
+            action.accept(null);
+            return null;
+        }).given(transactionOperations).executeWithoutResult(any());
+        Employee taken = Employee.builder().firstName("Adam").lastName("Madam").email("taken@deneg.net").build();
+        Employee repeated = Employee.builder().firstName("Adam").lastName("Madam").email(employee.getEmail()).build();
+        Employee invalid = Employee.builder().firstName("Adam").email("adam@deneg.net").build();
+        given(employeeRepository.findExistingEmails(any())).willReturn(List.of(taken.getEmail()), List.of(employee.getEmail()));
+        willAnswer(invocation -> {
+            List<Employee> inserts = invocation.getArgument(0);
+            inserts.forEach(e -> e.setId(42L));
+            return null;
+        }).given(employeeRepository).insertAll(anyList());
+
+        // when - action or behavior that we are going to test
+        BatchResult result = employeeServiceImpl.saveEmployees(List.of(employee, taken, repeated, invalid).iterator());
+
+        // then - verify the output
+        assertThat(result.getCreated()).isEqualTo(1);
+        assertThat(result.getRejected()).isEqualTo(3);
+        assertThat(result.getItems().get(0).getId()).isEqualTo(42L);
+        assertThat(result.getItems().get(1).getStatus()).isEqualTo(BatchItemStatus.DUPLICATE);
+        assertThat(result.getItems().get(3).getStatus()).isEqualTo(BatchItemStatus.INVALID);
+        verify(employeeRepository, times(2)).findExistingEmails(any());
+        verify(employeeRepository, never()).findEmployeeByEmail(any());
+    }
+
     @DisplayName("Junit test for get all employees")
     @Test
     public void givenEmployeesObjects_whenGetAllEmployees_thenReturnListEmployees() {
@@ -110,13 +224,120 @@ public class EmployeeServiceTests {
         assertThat(employeeList.size()).isEqualTo(0);
     }
 
+    @DisplayName("Junit test for counted page with a next page")
+    @Test
+    public void givenFullPageWithMoreRows_whenGetEmployeePage_thenReturnTotalAndHasNext() {
+
+        // given - precondition on setup
+        PageRequest pageRequest = PageRequest.of(0, 1).withSort(EmployeeSortKey.ID.getSort());
+        given(employeeRepository.findAllBy(pageRequest)).willReturn(List.of(employee));
+        given(employeeRepository.findPageAfterId(1L, PageRequest.of(0, 1))).willReturn(List.of(employee));
+        given(employeeCounts.get(TotalCount.EXACT)).willReturn(2L);
+
+        // when - action or behavior that we are going to test
+        CountedPage<Employee> page = employeeServiceImpl.getEmployeePage(pageRequest, TotalCount.EXACT);
+
+        // then - verify the output
+        assertThat(page.getItems().size()).isEqualTo(1);
+        assertThat(page.getTotal()).isEqualTo(2L);
+        assertThat(page.isHasNext()).isTrue();
+    }
+
+    @DisplayName("Junit test for counted page that is the last one")
+    @Test
+    public void givenPartialPage_whenGetEmployeePage_thenReturnNoNextWithoutSeek() {
+
+        // given - precondition on setup
+        PageRequest pageRequest = PageRequest.of(0, 10).withSort(EmployeeSortKey.ID.getSort());
+        given(employeeRepository.findAllBy(pageRequest)).willReturn(List.of(employee));
+        given(employeeCounts.get(TotalCount.APPROXIMATE)).willReturn(null);
+
+        // when - action or behavior that we are going to test
+        CountedPage<Employee> page = employeeServiceImpl.getEmployeePage(pageRequest, TotalCount.APPROXIMATE);
+
+        // then - verify the output
+        assertThat(page.getTotal()).isNull();
+        assertThat(page.isHasNext()).isFalse();
+        verify(employeeRepository, never()).findPageAfterId(anyLong(), any());
+    }
+
+    @DisplayName("Junit test for keyset page with next cursor")
+    @Test
+    public void givenMoreEmployeesThanLimit_whenGetEmployeesAfter_thenReturnPageWithNextCursor() {
+
+        // given - precondition on setup
+        Employee employee2 = Employee.builder()
+                .id(2L)
+                .firstName("Lukasz")
+                .lastName("Paseka")
+                .email("lukaszpaseka@deneg.net")
+                .build();
+        given(employeeRepository.findPageAfterId(0L, PageRequest.of(0, 2)))
+                .willReturn(List.of(employee, employee2));
+        String after = EmployeeCursor.after(EmployeeSortKey.ID, Employee.builder().id(0L).build()).encode();
+
+        // when - action or behavior that we are going to test
+        CursorPage<Employee> page = employeeServiceImpl.getEmployeesAfter(EmployeeSortKey.ID, after, 1);
+
+        // then - verify the output
+        assertThat(page.getItems().size()).isEqualTo(1);
+        assertThat(EmployeeCursor.decode(page.getNextCursor(), EmployeeSortKey.ID).getId()).isEqualTo(1L);
+    }
+
+    @DisplayName("Junit test for keyset first page sorted by name")
+    @Test
+    public void givenNoCursor_whenGetEmployeesAfter_thenReturnLastPageWithoutCursor() {
+
+        // given - precondition on setup
+        PageRequest pageRequest = PageRequest.of(0, 11).withSort(EmployeeSortKey.NAME.getSort());
+        given(employeeRepository.findAllBy(pageRequest)).willReturn(List.of(employee));
+
+        // when - action or behavior that we are going to test
+        CursorPage<Employee> page = employeeServiceImpl.getEmployeesAfter(EmployeeSortKey.NAME, null, 10);
+
+        // then - verify the output
+        assertThat(page.getItems().size()).isEqualTo(1);
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @DisplayName("Junit test for keyset page with cursor of another sort (negative scenario)")
+    @Test
+    public void givenCursorOfOtherSort_whenGetEmployeesAfter_thenThrowException() {
+
+        // given - precondition on setup
+        String after = EmployeeCursor.after(EmployeeSortKey.ID, employee).encode();
+
+        // when - action or behavior that we are going to test
+        Assertions.assertThrows(InvalidCursorException.class,
+                () -> employeeServiceImpl.getEmployeesAfter(EmployeeSortKey.NAME, after, 10));
+
+        // then - verify the output
+        verifyNoInteractions(employeeRepository);
+    }
+
+    @DisplayName("Junit test for export employees")
+    @Test
+    public void givenEmployees_whenExportEmployees_thenEveryRowIsConsumed() {
+
+        // given - precondition on setup
+        given(employeeRepository.streamAll()).willReturn(Stream.of(employee, employee));
+        List<Employee> exported = new ArrayList<>();
+
+        // when - action or behavior that we are going to test
+        long count = employeeServiceImpl.exportEmployees(exported::add);
+
+        // then - verify the output
+        assertThat(count).isEqualTo(2);
+        assertThat(exported.size()).isEqualTo(2);
+    }
+
     // Junit test for get employee by id
     @DisplayName("Junit test for get employee by id")
     @Test
     public void givenEmployeeId_whenGetEmployeeId_thenReturnEmployee() {
 
         // given - precondition on setup
-        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        given(employeeLoader.getEmployeeById(1L)).willReturn(Optional.of(employee));
 
         // when - action or behavior that we are going to test
         Optional<Employee> getEmployeeById = employeeServiceImpl.getEmployeeById(1L);
@@ -130,7 +351,7 @@ public class EmployeeServiceTests {
     public void givenEmptyEmployee_whenGetEmployeeId_thenReturnEmpty() {
 
         // given - precondition on setup
-        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.empty());
+        given(employeeLoader.getEmployeeById(1L)).willReturn(Optional.empty());
 
         // when - action or behavior that we are going to test
         Optional<Employee> getEmployeeById = employeeServiceImpl.getEmployeeById(1L);
@@ -140,6 +361,20 @@ public class EmployeeServiceTests {
     }
 
     // Junit test for update Employee
+    @DisplayName("Junit test for get employee version by id")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeVersion_thenReturnVersionWithoutLoadingEmployee() {
+        // given - precondition or setup
+        given(employeeRepository.findVersionById(1L)).willReturn(Optional.of(3L));
+
+        // when - action or behavior that we are going to test
+        Optional<Long> version = employeeServiceImpl.getEmployeeVersion(1L);
+
+        // then - verify the output
+        assertThat(version).isEqualTo(Optional.of(3L));
+        verify(employeeRepository, never()).getEmployeeById(1L);
+    }
+
     @DisplayName("Junit test for update Employee")
     @Test
     public void givenEmployeeObject_whenUpdatedEmployee_thenReturnUpdatedEmployee() {
@@ -157,6 +392,117 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getEmail()).isEqualTo("rambler@rambler.com");
     }
 
+    @DisplayName("Junit test for update Employee changed concurrently")
+    @Test
+    public void givenConcurrentUpdate_whenUpdatedEmployee_thenThrowException() {
+
+        // given - precondition on setup
+        given(employeeRepository.save(employee))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employee.getId()));
+
+        // when - action or behavior that we are going to test
+        Assertions.assertThrows(ConcurrentUpdateException.class, () -> employeeServiceImpl.updateEmployee(employee));
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @DisplayName("Junit test for patch Employee")
+    @Test
+    public void givenPatch_whenPatchEmployee_thenReturnPatchedEmployee() {
+
+        // given - precondition on setup
+        EmployeePatch patch = EmployeePatch.builder().firstName("Boris").build();
+        givenTransactionsRunInPlace();
+        employee.setVersion(3L);
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        // when - action or behavior that we are going to test
+        Optional<Employee> patchedEmployee = employeeServiceImpl.patchEmployee(1L, patch, 3L);
+
+        // then - verify the output
+        assertThat(patchedEmployee).isNotEmpty();
+        assertThat(patchedEmployee.get().getFirstName()).isEqualTo("Boris");
+        assertThat(patchedEmployee.get().getLastName()).isEqualTo("Paseka");
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    @DisplayName("Junit test for patch Employee at a stale version")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowException() {
+
+        // given - precondition on setup
+        EmployeePatch patch = EmployeePatch.builder().firstName("Boris").build();
+        givenTransactionsRunInPlace();
+        employee.setVersion(4L);
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or behavior that we are going to test
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> employeeServiceImpl.patchEmployee(1L, patch, 3L));
+
+        // then - verify the output
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @DisplayName("Junit test for patch Employee that does not exist")
+    @Test
+    public void givenMissingEmployee_whenPatchEmployee_thenReturnEmpty() {
+
+        // given - precondition on setup
+        EmployeePatch patch = EmployeePatch.builder().firstName("Boris").build();
+        givenTransactionsRunInPlace();
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.empty());
+
+        // when - action or behavior that we are going to test
+        Optional<Employee> patchedEmployee = employeeServiceImpl.patchEmployee(1L, patch, null);
+
+        // then - verify the output
+        assertThat(patchedEmployee).isEmpty();
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+    }
+
+    @DisplayName("Junit test for patch Employee without If-Match retried after a concurrent update")
+    @Test
+    public void givenConcurrentUpdate_whenPatchEmployeeWithoutVersion_thenRetryOnNewerRow() {
+
+        // given - precondition on setup
+        EmployeePatch patch = EmployeePatch.builder().firstName("Boris").build();
+        givenTransactionsRunInPlace();
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L))
+                .willReturn(employee);
+
+        // when - action or behavior that we are going to test
+        Optional<Employee> patchedEmployee = employeeServiceImpl.patchEmployee(1L, patch, null);
+
+        // then - verify the output
+        assertThat(patchedEmployee).isNotEmpty();
+        verify(employeeRepository, times(2)).saveAndFlush(employee);
+    }
+
+    @DisplayName("Junit test for patch Employee with If-Match losing to a concurrent update")
+    @Test
+    public void givenConcurrentUpdate_whenPatchEmployeeWithVersion_thenThrowException() {
+
+        // given - precondition on setup
+        EmployeePatch patch = EmployeePatch.builder().firstName("Boris").build();
+        givenTransactionsRunInPlace();
+        given(employeeRepository.getEmployeeById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        // when - action or behavior that we are going to test
+        Assertions.assertThrows(PreconditionFailedException.class,
+                () -> employeeServiceImpl.patchEmployee(1L, patch, 0L));
+
+        // then - verify the output
+        verify(employeeRepository, times(1)).saveAndFlush(employee);
+    }
+
     // Junit test for delete employee
     @DisplayName("Junit test for delete employee")
     @Test
@@ -171,11 +517,111 @@ public class EmployeeServiceTests {
         verify(employeeRepository, times(1)).delete(employee);
     }
 
+    @DisplayName("Junit test for name search with next cursor")
+    @Test
+    public void givenMoreMatchesThanLimit_whenSearchEmployeesByName_thenReturnPageWithCursor() {
+        // given - precondition on setup
+        Employee next = Employee.builder().id(2L).firstName("Sebastian").lastName("Paseka").build();
+        given(employeeRepository.findByNamePrefix("pas%", "%", PageRequest.of(0, 2)))
+                .willReturn(List.of(employee, next));
+
+        // when - action or behavior that we are going to test
+        CursorPage<Employee> page = employeeServiceImpl.searchEmployeesByName("pas", null, null, 1);
+
+        // then - verify the output
+        assertThat(page.getItems()).isEqualTo(List.of(employee));
+        assertThat(EmployeeCursor.decode(page.getNextCursor(), EmployeeSortKey.NAME).getId()).isEqualTo(1L);
+    }
+
+    @DisplayName("Junit test for name search after cursor escaping wildcards")
+    @Test
+    public void givenCursor_whenSearchEmployeesByName_thenSeekPastCursor() {
+        // given - precondition on setup
+        String after = EmployeeCursor.after(EmployeeSortKey.NAME, employee).encode();
+        given(employeeRepository.findByNamePrefixAfter("pa!%%", "s!_b%", "Paseka", "Sebastian", 1L,
+                PageRequest.of(0, 11))).willReturn(Collections.emptyList());
+
+        // when - action or behavior that we are going to test
+        CursorPage<Employee> page = employeeServiceImpl.searchEmployeesByName("pa%", "s_b", after, 10);
+
+        // then - verify the output
+        assertThat(page.getItems()).isEqualTo(Collections.emptyList());
+        assertThat(page.getNextCursor()).isNull();
+    }
+
+    @DisplayName("Junit test for type-ahead search answered by the search index")
+    @Test
+    public void givenReadyIndex_whenSearchEmployees_thenReturnIndexMatches() {
+        // given - precondition on setup
+        given(employeeSearchIndex.isReady()).willReturn(true);
+        given(employeeSearchIndex.search(List.of("seb", "pas"), 10)).willReturn(List.of(employee));
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeServiceImpl.searchEmployees(" Seb  PAS ", 10);
+
+        // then - verify the output
+        assertThat(employees).isEqualTo(List.of(employee));
+        verify(employeeRepository, never()).searchByTokens(anyList(), anyInt());
+    }
+
+    @DisplayName("Junit test for type-ahead search falling back to the database before the index is built")
+    @Test
+    public void givenIndexNotBuilt_whenSearchEmployees_thenSearchTheTable() {
+        // given - precondition on setup
+        given(employeeSearchIndex.isReady()).willReturn(false);
+        given(employeeRepository.searchByTokens(List.of("seb"), 10)).willReturn(List.of(employee));
+
+        // when - action or behavior that we are going to test
+        List<Employee> employees = employeeServiceImpl.searchEmployees("seb", 10);
+
+        // then - verify the output
+        assertThat(employees).isEqualTo(List.of(employee));
+    }
+
+    @DisplayName("Junit test for bulk delete by ids in chunks")
+    @Test
+    public void givenIds_whenDeleteEmployees_thenDeleteInChunksAndReturnCount() {
+        // given - precondition on setup
+        givenTransactionsRunInPlace();
+        employeeProperties.getBulkDelete().setChunkSize(2);
+        given(employeeRepository.lockExistingIds(List.of(1L, 2L))).willReturn(List.of(1L, 2L));
+        given(employeeRepository.lockExistingIds(List.of(3L))).willReturn(Collections.emptyList());
+        given(employeeRepository.deleteAllByIdIn(List.of(1L, 2L))).willReturn(2);
+
+        // when - action or behavior that we are going to test
+        long deleted = employeeServiceImpl.deleteEmployees(Arrays.asList(1L, 2L, 2L, null, 3L));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(2L);
+        verify(employeeRepository, times(1)).deleteAllByIdIn(anyList());
+        verify(eventPublisher, times(2)).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    @DisplayName("Junit test for bulk delete by email domain")
+    @Test
+    public void givenEmailDomain_whenDeleteEmployeesByEmailDomain_thenWalkIdsAndReturnCount() {
+        // given - precondition on setup
+        givenTransactionsRunInPlace();
+        employeeProperties.getBulkDelete().setChunkSize(2);
+        PageRequest chunk = PageRequest.of(0, 2);
+        given(employeeRepository.findIdsByEmailLike("%@deneg.net", 0, chunk)).willReturn(List.of(1L, 4L));
+        given(employeeRepository.findIdsByEmailLike("%@deneg.net", 4L, chunk)).willReturn(List.of(7L));
+        given(employeeRepository.findIdsByEmailLike("%@deneg.net", 7L, chunk)).willReturn(Collections.emptyList());
+        given(employeeRepository.lockExistingIds(List.of(1L, 4L))).willReturn(List.of(1L, 4L));
+        given(employeeRepository.lockExistingIds(List.of(7L))).willReturn(List.of(7L));
+
+        // when - action or behavior that we are going to test
+        long deleted = employeeServiceImpl.deleteEmployeesByEmailDomain("@Deneg.net");
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(3L);
+    }
+
     @DisplayName("Junit test for delete employee by id")
     @Test
     public void givenEmployeeObject_whenDeleteEmployeeById_thenNothing() {
         // given - precondition on setup
-        willDoNothing().given(employeeRepository).deleteEmployeeById(employee.getId());
+        given(employeeRepository.deleteEmployeeById(employee.getId())).willReturn(1);
 
         // when - action or behavior that we are going to test
         employeeRepository.deleteEmployeeById(employee.getId());
@@ -183,4 +629,24 @@ public class EmployeeServiceTests {
         // then - verify the output
         verify(employeeRepository, times(1)).deleteEmployeeById(employee.getId());
     }
+
+    @DisplayName("Junit test for delete employee by id when the employee is already gone")
+    @Test
+    public void givenMissingEmployee_whenDeleteEmployeeById_thenNoEventIsPublished() {
+        // given - precondition on setup
+        given(employeeRepository.deleteEmployeeById(employee.getId())).willReturn(0);
+
+        // when - action or behavior that we are going to test
+        employeeServiceImpl.deleteEmployeeById(employee.getId());
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    private void givenTransactionsRunInPlace() {
+        willAnswer(invocation -> {
+            TransactionCallback<?> action = invocation.getArgument(0);
+            return action.doInTransaction(null);
+        }).given(transactionOperations).execute(any());
+    }
 }
@@ -0,0 +1,86 @@
+package com.testing.udemy.project.testingproject.demo.service;
+
+import com.testing.udemy.project.testingproject.demo.config.EmployeeProperties;
+import com.testing.udemy.project.testingproject.demo.model.Employee;
+import com.testing.udemy.project.testingproject.demo.repository.ReactiveEmployeeRepository;
+import com.testing.udemy.project.testingproject.demo.service.impl.ReactiveEmployeeServiceImpl;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveEmployeeServiceTests {
+    @Mock
+    private ReactiveEmployeeRepository employeeRepository;
+    @Spy
+    private EmployeeProperties employeeProperties = new EmployeeProperties();
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+    @InjectMocks
+    private ReactiveEmployeeServiceImpl employeeService;
+
+    // Stands in for the event loop the database driver completes on
+    private final Scheduler eventLoop = Schedulers.newSingle("reactor-tcp-nio");
+
+    @AfterEach
+    public void tearDown() {
+        eventLoop.dispose();
+    }
+
+    @DisplayName("Junit test for change events of the reactive stack being published off the event loop")
+    @Test
+    public void givenRepositoryCompletingOnEventLoop_whenSaveAndDelete_thenEventsArePublishedOffIt() {
+        // given - precondition or setup
+        List<String> publishingThreads = new CopyOnWriteArrayList<>();
+        willAnswer(invocation -> publishingThreads.add(Thread.currentThread().getName()))
+                .given(eventPublisher).publishEvent(any(Object.class));
+        given(employeeRepository.insert(any(Employee.class))).willReturn(Mono.just(1L).publishOn(eventLoop));
+        given(employeeRepository.deleteById(1L)).willReturn(Mono.just(1).publishOn(eventLoop));
+        Employee employee = Employee.builder()
+                .firstName("Lolik")
+                .lastName("Bolik")
+                .email("lolik@reactive.net")
+                .build();
+
+        // when - action or behavior that we are going to test
+        employeeService.saveEmployee(employee).block(Duration.ofSeconds(5));
+        employeeService.deleteEmployeeById(1L).block(Duration.ofSeconds(5));
+
+        // then - verify the output
+        assertThat(publishingThreads).hasSize(4)
+                .allSatisfy(thread -> assertThat(thread).startsWith("boundedElastic-"));
+    }
+
+    @DisplayName("Junit test for deleting a missing employee on the reactive stack")
+    @Test
+    public void givenMissingEmployee_whenDeleteEmployeeById_thenNoEventIsPublished() {
+        // given - precondition or setup
+        given(employeeRepository.deleteById(1L)).willReturn(Mono.just(0));
+
+        // when - action or behavior that we are going to test
+        employeeService.deleteEmployeeById(1L).block(Duration.ofSeconds(5));
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}